@@ -0,0 +1,258 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Growable int array stored outside the Java heap in a {@link MemorySegment},
+ * so multi-GB arrays add nothing to heap sizing or GC pauses. Supports the
+ * same insert/delete/search/update operations as
+ * {@code DataStructures.ArrayOperations}, indexed by {@code long}.
+ *
+ * <p>An array is either anonymous native memory, or a memory-mapped file
+ * laid out as an 8-byte element count followed by the elements. A mapped
+ * array loads at startup without deserializing anything and persists every
+ * change back to the file.
+ *
+ * <p>The backing memory belongs to a shared {@link Arena} and is released by
+ * {@link #close()}; any access after that throws {@link IllegalStateException}.
+ * Instances are not safe for concurrent mutation.
+ *
+ * <p>Uses the Foreign Function &amp; Memory API, final in Java 22, so it
+ * lives in its own source directory and the rest of the tree still builds on
+ * Java 17. Compile it on its own, with {@code --release 22} on Java 22 or
+ * later, or with {@code --release 21 --enable-preview} on Java 21 exactly.
+ */
+public class OffHeapIntArray implements AutoCloseable {
+    private static final long HEADER_BYTES = Long.BYTES;
+    private static final long DEFAULT_CAPACITY = 16;
+
+    // Open only for mapped arrays, so the mapping can be grown
+    private final FileChannel channel;
+    private Arena arena;
+    // Mapped arrays: the element count stored at the start of the file
+    private MemorySegment header;
+    private MemorySegment data;
+    private long capacity;
+    private long size;
+
+    /**
+     * Allocate an empty array in native memory
+     * @param initialCapacity Number of elements to reserve
+     */
+    public OffHeapIntArray(long initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        this.channel = null;
+        this.capacity = Math.max(initialCapacity, 1);
+        this.arena = Arena.ofShared();
+        this.data = arena.allocate(capacity * Integer.BYTES, Integer.BYTES);
+    }
+
+    private OffHeapIntArray(FileChannel channel, long capacity) throws IOException {
+        this.channel = channel;
+        remap(capacity);
+        this.size = header.get(ValueLayout.JAVA_LONG, 0);
+        if (size < 0 || size > this.capacity) {
+            close();
+            throw new IOException("Corrupt array file: element count " + size);
+        }
+    }
+
+    /**
+     * Map a file as an array, creating the file if it does not exist. The
+     * file is grown to hold at least {@code minCapacity} elements.
+     * @param file The backing file
+     * @param minCapacity Number of elements to reserve
+     * @return The mapped array
+     * @throws IOException If the file cannot be opened or mapped
+     */
+    public static OffHeapIntArray map(Path file, long minCapacity) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long existing = Math.max(channel.size() - HEADER_BYTES, 0) / Integer.BYTES;
+            return new OffHeapIntArray(channel, Math.max(Math.max(existing, minCapacity), 1));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the element at a specific index
+     * @param index The position to read
+     * @return The element at that position
+     */
+    public int get(long index) {
+        checkIndex(index);
+        return data.getAtIndex(ValueLayout.JAVA_INT, index);
+    }
+
+    /**
+     * Append an element to the end of the array
+     * @param element The element to append
+     */
+    public void add(int element) {
+        insertAt(size, element);
+    }
+
+    /**
+     * Insert an element at a specific index, shifting later elements right
+     * @param index The position to insert at
+     * @param element The element to insert
+     */
+    public void insertAt(long index, int element) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        if (size == capacity) {
+            grow();
+        }
+        long offset = index * Integer.BYTES;
+        MemorySegment.copy(data, offset, data, offset + Integer.BYTES, (size - index) * Integer.BYTES);
+        data.setAtIndex(ValueLayout.JAVA_INT, index, element);
+        setSize(size + 1);
+    }
+
+    /**
+     * Delete the element at a specific index, shifting later elements left
+     * @param index The position to delete from
+     * @return The deleted element
+     */
+    public int deleteAt(long index) {
+        checkIndex(index);
+        int removed = data.getAtIndex(ValueLayout.JAVA_INT, index);
+        long offset = index * Integer.BYTES;
+        MemorySegment.copy(data, offset + Integer.BYTES, data, offset, (size - index - 1) * Integer.BYTES);
+        setSize(size - 1);
+        return removed;
+    }
+
+    /**
+     * Search for a value in the array
+     * @param target The value to search for
+     * @return The index of the first occurrence, or -1 if not found
+     */
+    public long search(int target) {
+        MemorySegment segment = data;
+        for (long i = 0; i < size; i++) {
+            if (segment.getAtIndex(ValueLayout.JAVA_INT, i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Update the value at a specific index
+     * @param index The position to update
+     * @param newValue The new value
+     * @return true if update was successful, false otherwise
+     */
+    public boolean update(long index, int newValue) {
+        if (index < 0 || index >= size) {
+            return false;
+        }
+        data.setAtIndex(ValueLayout.JAVA_INT, index, newValue);
+        return true;
+    }
+
+    /**
+     * Flush changes of a mapped array to the storage device. No-op for
+     * anonymous arrays.
+     */
+    public void force() {
+        if (header != null) {
+            header.force();
+            data.force();
+        }
+    }
+
+    /**
+     * Release the backing memory and, for mapped arrays, close the file
+     */
+    @Override
+    public void close() {
+        if (arena == null) {
+            return;
+        }
+        try {
+            arena.close();
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            // Keep the segments so later access fails with IllegalStateException
+            arena = null;
+        }
+    }
+
+    private void setSize(long newSize) {
+        size = newSize;
+        if (header != null) {
+            header.set(ValueLayout.JAVA_LONG, 0, newSize);
+        }
+    }
+
+    // Grow by 1.5x into a fresh arena and release the old one
+    private void grow() {
+        long newCapacity = capacity + Math.max(capacity >> 1, DEFAULT_CAPACITY);
+        if (channel != null) {
+            try {
+                remap(newCapacity);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return;
+        }
+        Arena newArena = Arena.ofShared();
+        MemorySegment newData = newArena.allocate(newCapacity * Integer.BYTES, Integer.BYTES);
+        MemorySegment.copy(data, 0, newData, 0, size * Integer.BYTES);
+        arena.close();
+        arena = newArena;
+        data = newData;
+        capacity = newCapacity;
+    }
+
+    // Map header plus newCapacity elements; the file is extended as needed
+    private void remap(long newCapacity) throws IOException {
+        Arena newArena = Arena.ofShared();
+        MemorySegment file;
+        try {
+            file = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_BYTES + newCapacity * Integer.BYTES, newArena);
+        } catch (IOException | RuntimeException e) {
+            newArena.close();
+            throw e;
+        }
+        if (arena != null) {
+            arena.close();
+        }
+        arena = newArena;
+        header = file.asSlice(0, HEADER_BYTES);
+        data = file.asSlice(HEADER_BYTES);
+        capacity = newCapacity;
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+}
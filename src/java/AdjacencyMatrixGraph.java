@@ -0,0 +1,343 @@
+import java.util.Arrays;
+
+/**
+ * Mutable graph stored as an adjacency matrix, the "Graph using Adjacency
+ * Matrix" model of the visualizer. Each row is a bitset, so presence costs
+ * V^2 / 8 bytes; weights other than 1 add a V^2 int matrix, allocated on
+ * first use. That is fine for small dense graphs and impossible for large
+ * sparse ones, which belong in CsrGraph ({@link #toCsr()} converts).
+ *
+ * <p>The algorithms are the ones suited to a matrix: BFS finds unvisited
+ * neighbours a 64-bit word at a time, and Dijkstra scans an array for the
+ * closest vertex, O(V^2) in total, which beats a heap when E is near V^2.
+ */
+public class AdjacencyMatrixGraph implements IntGraph {
+    // Largest vertex count whose weight matrix fits in one array
+    public static final int MAX_VERTICES = 46_340;
+
+    private final int vertexCount;
+    private final boolean directed;
+    private final int wordsPerRow;
+    // Row u holds bit v of word u * wordsPerRow + v / 64 if there is an arc u -> v
+    private final long[] bits;
+    // weights[u * vertexCount + v], or null while every weight is 1
+    private int[] weights;
+    private long arcs;
+
+    /**
+     * Create a graph with no edges
+     * @param vertexCount Number of vertices, at most MAX_VERTICES
+     * @param directed false to add and remove every edge in both directions
+     */
+    public AdjacencyMatrixGraph(int vertexCount, boolean directed) {
+        if (vertexCount < 0 || vertexCount > MAX_VERTICES) {
+            throw new IllegalArgumentException("Illegal vertex count: " + vertexCount);
+        }
+        this.vertexCount = vertexCount;
+        this.directed = directed;
+        this.wordsPerRow = (vertexCount + 63) >>> 6;
+        this.bits = new long[vertexCount * wordsPerRow];
+    }
+
+    /**
+     * Copy any graph into a matrix
+     * @param graph The graph to copy
+     * @return A matrix graph with the same arcs and weights
+     */
+    public static AdjacencyMatrixGraph fromGraph(IntGraph graph) {
+        AdjacencyMatrixGraph matrix = new AdjacencyMatrixGraph(graph.vertexCount(), graph.isDirected());
+        for (int u = 0; u < graph.vertexCount(); u++) {
+            int source = u;
+            graph.forEachNeighbor(u, (target, weight) -> matrix.setArc(source, target, weight));
+        }
+        return matrix;
+    }
+
+    /**
+     * Add an edge of weight 1, or reset an existing edge's weight to 1
+     * @param source The vertex the edge leaves
+     * @param target The vertex the edge enters
+     */
+    public void addEdge(int source, int target) {
+        addEdge(source, target, 1);
+    }
+
+    /**
+     * Add an edge, or change the weight of an existing one
+     * @param source The vertex the edge leaves
+     * @param target The vertex the edge enters
+     * @param weight Non-negative weight
+     */
+    public void addEdge(int source, int target, int weight) {
+        checkVertex(source);
+        checkVertex(target);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Negative weight: " + weight);
+        }
+        setArc(source, target, weight);
+        if (!directed) {
+            setArc(target, source, weight);
+        }
+    }
+
+    /**
+     * Remove an edge
+     * @param source The vertex the edge leaves
+     * @param target The vertex the edge enters
+     * @return true if the edge existed
+     */
+    public boolean removeEdge(int source, int target) {
+        checkVertex(source);
+        checkVertex(target);
+        boolean removed = clearArc(source, target);
+        if (!directed) {
+            clearArc(target, source);
+        }
+        return removed;
+    }
+
+    private void setArc(int source, int target, int weight) {
+        int word = source * wordsPerRow + (target >>> 6);
+        long mask = 1L << target;
+        if ((bits[word] & mask) == 0) {
+            bits[word] |= mask;
+            arcs++;
+        }
+        if (weight != 1 && weights == null) {
+            weights = new int[vertexCount * vertexCount];
+            Arrays.fill(weights, 1);
+        }
+        if (weights != null) {
+            weights[source * vertexCount + target] = weight;
+        }
+    }
+
+    private boolean clearArc(int source, int target) {
+        int word = source * wordsPerRow + (target >>> 6);
+        long mask = 1L << target;
+        if ((bits[word] & mask) == 0) {
+            return false;
+        }
+        bits[word] &= ~mask;
+        arcs--;
+        return true;
+    }
+
+    @Override
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public long edgeCount() {
+        return arcs;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return directed;
+    }
+
+    @Override
+    public int degree(int vertex) {
+        checkVertex(vertex);
+        int degree = 0;
+        for (int w = vertex * wordsPerRow, end = w + wordsPerRow; w < end; w++) {
+            degree += Long.bitCount(bits[w]);
+        }
+        return degree;
+    }
+
+    @Override
+    public boolean hasEdge(int source, int target) {
+        checkVertex(source);
+        checkVertex(target);
+        return (bits[source * wordsPerRow + (target >>> 6)] & (1L << target)) != 0;
+    }
+
+    /**
+     * @param source The vertex the edge leaves
+     * @param target The vertex the edge enters
+     * @return The edge's weight, or -1 if there is no such edge
+     */
+    public int weight(int source, int target) {
+        if (!hasEdge(source, target)) {
+            return -1;
+        }
+        return weights == null ? 1 : weights[source * vertexCount + target];
+    }
+
+    @Override
+    public void forEachNeighbor(int vertex, EdgeVisitor visitor) {
+        checkVertex(vertex);
+        int row = vertex * wordsPerRow;
+        for (int w = 0; w < wordsPerRow; w++) {
+            for (long word = bits[row + w]; word != 0; word &= word - 1) {
+                int target = (w << 6) + Long.numberOfTrailingZeros(word);
+                visitor.visit(target, weights == null ? 1 : weights[vertex * vertexCount + target]);
+            }
+        }
+    }
+
+    /**
+     * Breadth-first search that intersects each row with the unvisited set a word at a time
+     * @param source The start vertex
+     * @return Number of arcs on a shortest path from source to each vertex, or UNREACHABLE
+     */
+    @Override
+    public int[] bfs(int source) {
+        checkVertex(source);
+        int[] distance = new int[vertexCount];
+        Arrays.fill(distance, UNREACHABLE);
+        long[] unvisited = new long[wordsPerRow];
+        Arrays.fill(unvisited, -1L);
+        if ((vertexCount & 63) != 0) {
+            unvisited[wordsPerRow - 1] = (1L << vertexCount) - 1;
+        }
+        int[] queue = new int[vertexCount];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        distance[source] = 0;
+        unvisited[source >>> 6] &= ~(1L << source);
+        while (head < tail) {
+            int u = queue[head++];
+            int row = u * wordsPerRow;
+            for (int w = 0; w < wordsPerRow; w++) {
+                long fresh = bits[row + w] & unvisited[w];
+                if (fresh == 0) {
+                    continue;
+                }
+                unvisited[w] &= ~fresh;
+                for (; fresh != 0; fresh &= fresh - 1) {
+                    int v = (w << 6) + Long.numberOfTrailingZeros(fresh);
+                    distance[v] = distance[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Dijkstra's algorithm with a linear scan for the closest vertex, O(V^2)
+     * @param source The start vertex
+     * @return Total weight of a lightest path from source to each vertex, or INFINITE_DISTANCE
+     * @throws ArithmeticException If a path weight does not fit in an int
+     */
+    @Override
+    public int[] shortestPaths(int source) {
+        checkVertex(source);
+        int[] distance = new int[vertexCount];
+        Arrays.fill(distance, INFINITE_DISTANCE);
+        distance[source] = 0;
+        boolean[] done = new boolean[vertexCount];
+        while (true) {
+            int u = -1;
+            for (int v = 0; v < vertexCount; v++) {
+                if (!done[v] && distance[v] != INFINITE_DISTANCE && (u < 0 || distance[v] < distance[u])) {
+                    u = v;
+                }
+            }
+            if (u < 0) {
+                return distance;
+            }
+            done[u] = true;
+            int base = distance[u];
+            int row = u * wordsPerRow;
+            for (int w = 0; w < wordsPerRow; w++) {
+                for (long word = bits[row + w]; word != 0; word &= word - 1) {
+                    int v = (w << 6) + Long.numberOfTrailingZeros(word);
+                    int candidate = Math.addExact(base, weights == null ? 1 : weights[u * vertexCount + v]);
+                    if (candidate < distance[v]) {
+                        distance[v] = candidate;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Weakly connected components by union-find over every arc
+     * @return For each vertex, the smallest vertex in its component
+     */
+    @Override
+    public int[] connectedComponents() {
+        int[] parent = new int[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            parent[v] = v;
+        }
+        for (int u = 0; u < vertexCount; u++) {
+            int row = u * wordsPerRow;
+            for (int w = 0; w < wordsPerRow; w++) {
+                for (long word = bits[row + w]; word != 0; word &= word - 1) {
+                    int ru = find(parent, u);
+                    int rv = find(parent, (w << 6) + Long.numberOfTrailingZeros(word));
+                    // Linking under the smaller root leaves each component's smallest vertex as its root
+                    if (ru < rv) {
+                        parent[rv] = ru;
+                    } else if (rv < ru) {
+                        parent[ru] = rv;
+                    }
+                }
+            }
+        }
+        for (int v = 0; v < vertexCount; v++) {
+            parent[v] = find(parent, v);
+        }
+        return parent;
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    /**
+     * @return The same graph in CSR form
+     */
+    public CsrGraph toCsr() {
+        // An undirected graph is handed over as one edge per vertex pair
+        int edges = (int) (directed ? arcs : (arcs + selfLoops()) / 2);
+        int[] sources = new int[edges];
+        int[] targets = new int[edges];
+        int[] edgeWeights = weights == null ? null : new int[edges];
+        int count = 0;
+        for (int u = 0; u < vertexCount; u++) {
+            int row = u * wordsPerRow;
+            for (int w = 0; w < wordsPerRow; w++) {
+                for (long word = bits[row + w]; word != 0; word &= word - 1) {
+                    int v = (w << 6) + Long.numberOfTrailingZeros(word);
+                    if (directed || u <= v) {
+                        sources[count] = u;
+                        targets[count] = v;
+                        if (edgeWeights != null) {
+                            edgeWeights[count] = weights[u * vertexCount + v];
+                        }
+                        count++;
+                    }
+                }
+            }
+        }
+        return CsrGraph.fromEdges(vertexCount, sources, targets, edgeWeights, directed);
+    }
+
+    private int selfLoops() {
+        int loops = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            if ((bits[v * wordsPerRow + (v >>> 6)] & (1L << v)) != 0) {
+                loops++;
+            }
+        }
+        return loops;
+    }
+
+    private void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= vertexCount) {
+            throw new IndexOutOfBoundsException("Vertex " + vertex + " out of bounds for " + vertexCount + " vertices");
+        }
+    }
+}
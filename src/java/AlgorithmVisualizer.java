@@ -313,11 +313,16 @@ public class AlgorithmVisualizer {
             int value;
             TreeNode left;
             TreeNode right;
+            // Maintained by BalancedTreeOperations: subtree height and node count
+            int height;
+            int size;
 
             public TreeNode(int value) {
                 this.value = value;
                 this.left = null;
                 this.right = null;
+                this.height = 1;
+                this.size = 1;
             }
         }
 
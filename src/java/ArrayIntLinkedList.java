@@ -0,0 +1,164 @@
+import java.util.Arrays;
+
+/**
+ * Singly linked list of ints stored in parallel {@code int[]} arrays instead of
+ * node objects: {@code values[i]} holds a value and {@code next[i]} the slot of
+ * its successor. Deleted slots go onto a free list and are reused by later
+ * inserts, so the list allocates only when it outgrows its arrays. Positional
+ * operations mirror {@code DataStructures.LinkedListOperations}.
+ */
+public class ArrayIntLinkedList {
+    private static final int NIL = -1;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] values;
+    private int[] next;
+    private int head = NIL;
+    // Head of the chain of reusable slots, linked through next[]
+    private int free = NIL;
+    // Slots at or above this index have never been used
+    private int used;
+    private int size;
+
+    public ArrayIntLinkedList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ArrayIntLinkedList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        this.values = new int[Math.max(initialCapacity, 1)];
+        this.next = new int[values.length];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Insert a value at a specific position
+     * @param value The value to insert
+     * @param position The position to insert at
+     * @return true if inserted, false if the position is past the end
+     */
+    public boolean insertNode(int value, int position) {
+        if (position < 0 || position > size) {
+            return false;
+        }
+        int slot = allocate();
+        values[slot] = value;
+
+        // Insert at beginning
+        if (position == 0) {
+            next[slot] = head;
+            head = slot;
+        } else {
+            int current = slotAt(position - 1);
+            next[slot] = next[current];
+            next[current] = slot;
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Delete the value at a specific position
+     * @param position The position to delete from
+     * @return true if deleted, false if there is no such position
+     */
+    public boolean deleteNode(int position) {
+        if (position < 0 || position >= size) {
+            return false;
+        }
+        int removed;
+        if (position == 0) {
+            removed = head;
+            head = next[removed];
+        } else {
+            int previous = slotAt(position - 1);
+            removed = next[previous];
+            next[previous] = next[removed];
+        }
+        next[removed] = free;
+        free = removed;
+        size--;
+        return true;
+    }
+
+    /**
+     * Search for a value in the list
+     * @param value The value to search for
+     * @return The position of the value, or -1 if not found
+     */
+    public int searchNode(int value) {
+        int position = 0;
+        for (int slot = head; slot != NIL; slot = next[slot]) {
+            if (values[slot] == value) {
+                return position;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    /**
+     * Update the value at a specific position
+     * @param position The position to update
+     * @param newValue The new value
+     * @return true if update was successful, false otherwise
+     */
+    public boolean updateNode(int position, int newValue) {
+        if (position < 0 || position >= size) {
+            return false;
+        }
+        values[slotAt(position)] = newValue;
+        return true;
+    }
+
+    /**
+     * Get the value at a specific position
+     * @param position The position to read
+     * @return The value at that position
+     */
+    public int get(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of bounds for size " + size);
+        }
+        return values[slotAt(position)];
+    }
+
+    /**
+     * @return The values in list order as a plain array
+     */
+    public int[] toArray() {
+        int[] result = new int[size];
+        int i = 0;
+        for (int slot = head; slot != NIL; slot = next[slot]) {
+            result[i++] = values[slot];
+        }
+        return result;
+    }
+
+    private int slotAt(int position) {
+        int slot = head;
+        for (int i = 0; i < position; i++) {
+            slot = next[slot];
+        }
+        return slot;
+    }
+
+    private int allocate() {
+        if (free != NIL) {
+            int slot = free;
+            free = next[slot];
+            return slot;
+        }
+        if (used == values.length) {
+            int newCapacity = values.length + Math.max(values.length >> 1, DEFAULT_CAPACITY);
+            values = Arrays.copyOf(values, newCapacity);
+            next = Arrays.copyOf(next, newCapacity);
+        }
+        return used++;
+    }
+}
@@ -0,0 +1,378 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Executable AVL tree operations on {@code AlgorithmVisualizer.TreeOperations.TreeNode}.
+ * Insert and delete rebalance on the way back up, so height stays below
+ * 1.44 log2(n + 2) even for sorted input, and every operation is iterative:
+ * nothing recurses, however large the tree.
+ *
+ * <p>Each node's {@code height} and {@code size} fields are kept up to date,
+ * which also gives O(log n) rank and select. Like TREE_INSERT, duplicate
+ * values are ignored. Roots must come from these methods (or be built with
+ * matching height and size fields); an empty tree is {@code null}.
+ */
+public final class BalancedTreeOperations {
+    // Longest root-to-leaf path of an AVL tree with at most 2^31 nodes is 45
+    private static final int INITIAL_PATH = 48;
+    // Estimated size of the path array insert and delete allocate, for OperationMetrics
+    private static final long PATH_BYTES = 16 + 4 * INITIAL_PATH;
+
+    private BalancedTreeOperations() {
+    }
+
+    /**
+     * Insert a value, keeping the tree balanced
+     * @param root The root of the tree
+     * @param value The value to insert
+     * @return The new root of the tree
+     */
+    public static AlgorithmVisualizer.TreeOperations.TreeNode insert(
+            AlgorithmVisualizer.TreeOperations.TreeNode root, int value) {
+        long start = OperationMetrics.start();
+        if (root == null) {
+            OperationMetrics.record(OperationMetrics.Operation.TREE_INSERT, start, 0, 0,
+                OperationMetrics.TREE_NODE_BYTES);
+            return new AlgorithmVisualizer.TreeOperations.TreeNode(value);
+        }
+        AlgorithmVisualizer.TreeOperations.TreeNode[] path =
+            new AlgorithmVisualizer.TreeOperations.TreeNode[INITIAL_PATH];
+        int depth = 0;
+        AlgorithmVisualizer.TreeOperations.TreeNode current = root;
+        while (current != null) {
+            if (value == current.value) {
+                OperationMetrics.record(OperationMetrics.Operation.TREE_INSERT, start, 0, depth + 1,
+                    PATH_BYTES);
+                return root;
+            }
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+            }
+            path[depth++] = current;
+            current = value < current.value ? current.left : current.right;
+        }
+        AlgorithmVisualizer.TreeOperations.TreeNode parent = path[depth - 1];
+        if (value < parent.value) {
+            parent.left = new AlgorithmVisualizer.TreeOperations.TreeNode(value);
+        } else {
+            parent.right = new AlgorithmVisualizer.TreeOperations.TreeNode(value);
+        }
+        AlgorithmVisualizer.TreeOperations.TreeNode newRoot = rebalancePath(path, depth);
+        OperationMetrics.record(OperationMetrics.Operation.TREE_INSERT, start, 0, depth,
+            PATH_BYTES + OperationMetrics.TREE_NODE_BYTES);
+        return newRoot;
+    }
+
+    /**
+     * Delete a value, keeping the tree balanced
+     * @param root The root of the tree
+     * @param value The value to delete
+     * @return The new root of the tree
+     */
+    public static AlgorithmVisualizer.TreeOperations.TreeNode delete(
+            AlgorithmVisualizer.TreeOperations.TreeNode root, int value) {
+        long start = OperationMetrics.start();
+        AlgorithmVisualizer.TreeOperations.TreeNode[] path =
+            new AlgorithmVisualizer.TreeOperations.TreeNode[INITIAL_PATH];
+        int depth = 0;
+        AlgorithmVisualizer.TreeOperations.TreeNode target = root;
+        while (target != null && target.value != value) {
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+            }
+            path[depth++] = target;
+            target = value < target.value ? target.left : target.right;
+        }
+        if (target == null) {
+            OperationMetrics.record(OperationMetrics.Operation.TREE_DELETE, start, 0, depth, PATH_BYTES);
+            return root;
+        }
+
+        // Two children: take the inorder successor's value and delete the successor instead
+        if (target.left != null && target.right != null) {
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+            }
+            path[depth++] = target;
+            AlgorithmVisualizer.TreeOperations.TreeNode successor = target.right;
+            while (successor.left != null) {
+                if (depth == path.length) {
+                    path = Arrays.copyOf(path, depth * 2);
+                }
+                path[depth++] = successor;
+                successor = successor.left;
+            }
+            target.value = successor.value;
+            target = successor;
+        }
+
+        // target now has at most one child, which takes its place
+        AlgorithmVisualizer.TreeOperations.TreeNode child = target.left != null ? target.left : target.right;
+        if (depth == 0) {
+            OperationMetrics.record(OperationMetrics.Operation.TREE_DELETE, start, 0, 1, PATH_BYTES);
+            return child;
+        }
+        AlgorithmVisualizer.TreeOperations.TreeNode parent = path[depth - 1];
+        if (parent.left == target) {
+            parent.left = child;
+        } else {
+            parent.right = child;
+        }
+        AlgorithmVisualizer.TreeOperations.TreeNode newRoot = rebalancePath(path, depth);
+        OperationMetrics.record(OperationMetrics.Operation.TREE_DELETE, start, 0, depth + 1, PATH_BYTES);
+        return newRoot;
+    }
+
+    /**
+     * Search for a value in the tree
+     * @param root The root of the tree
+     * @param value The value to search for
+     * @return The node holding the value, or null if not found
+     */
+    public static AlgorithmVisualizer.TreeOperations.TreeNode search(
+            AlgorithmVisualizer.TreeOperations.TreeNode root, int value) {
+        long start = OperationMetrics.start();
+        AlgorithmVisualizer.TreeOperations.TreeNode current = root;
+        int traversed = 0;
+        while (current != null && current.value != value) {
+            current = value < current.value ? current.left : current.right;
+            traversed++;
+        }
+        OperationMetrics.record(OperationMetrics.Operation.TREE_SEARCH, start, 0,
+            current == null ? traversed : traversed + 1, 0);
+        return current;
+    }
+
+    /**
+     * Find the largest value less than or equal to the given one
+     * @param root The root of the tree
+     * @param value The upper bound
+     * @return The node holding the floor, or null if every value is larger
+     */
+    public static AlgorithmVisualizer.TreeOperations.TreeNode floor(
+            AlgorithmVisualizer.TreeOperations.TreeNode root, int value) {
+        AlgorithmVisualizer.TreeOperations.TreeNode best = null;
+        AlgorithmVisualizer.TreeOperations.TreeNode current = root;
+        while (current != null) {
+            if (current.value == value) {
+                return current;
+            }
+            if (current.value < value) {
+                best = current;
+                current = current.right;
+            } else {
+                current = current.left;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Find the smallest value greater than or equal to the given one
+     * @param root The root of the tree
+     * @param value The lower bound
+     * @return The node holding the ceiling, or null if every value is smaller
+     */
+    public static AlgorithmVisualizer.TreeOperations.TreeNode ceiling(
+            AlgorithmVisualizer.TreeOperations.TreeNode root, int value) {
+        AlgorithmVisualizer.TreeOperations.TreeNode best = null;
+        AlgorithmVisualizer.TreeOperations.TreeNode current = root;
+        while (current != null) {
+            if (current.value == value) {
+                return current;
+            }
+            if (current.value > value) {
+                best = current;
+                current = current.left;
+            } else {
+                current = current.right;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Count the values strictly less than the given one
+     * @param root The root of the tree
+     * @param value The value to rank
+     * @return The number of smaller values, which is also the position the
+     *         value has or would have in sorted order
+     */
+    public static int rank(AlgorithmVisualizer.TreeOperations.TreeNode root, int value) {
+        int rank = 0;
+        AlgorithmVisualizer.TreeOperations.TreeNode current = root;
+        while (current != null) {
+            if (current.value < value) {
+                rank += size(current.left) + 1;
+                current = current.right;
+            } else {
+                current = current.left;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Find the k-th smallest value
+     * @param root The root of the tree
+     * @param k Zero-based position in sorted order
+     * @return The node holding that value
+     */
+    public static AlgorithmVisualizer.TreeOperations.TreeNode select(
+            AlgorithmVisualizer.TreeOperations.TreeNode root, int k) {
+        if (k < 0 || k >= size(root)) {
+            throw new IndexOutOfBoundsException("Rank " + k + " out of bounds for size " + size(root));
+        }
+        AlgorithmVisualizer.TreeOperations.TreeNode current = root;
+        while (true) {
+            int leftSize = size(current.left);
+            if (k < leftSize) {
+                current = current.left;
+            } else if (k == leftSize) {
+                return current;
+            } else {
+                k -= leftSize + 1;
+                current = current.right;
+            }
+        }
+    }
+
+    /**
+     * Count the values in {@code [low, high]} in O(log n)
+     * @param root The root of the tree
+     * @param low Smallest value to count
+     * @param high Largest value to count
+     * @return The number of values in the range
+     */
+    public static int countInRange(AlgorithmVisualizer.TreeOperations.TreeNode root, int low, int high) {
+        if (low > high) {
+            return 0;
+        }
+        int upTo = high == Integer.MAX_VALUE ? size(root) : rank(root, high + 1);
+        return upTo - rank(root, low);
+    }
+
+    /**
+     * Visit the values in {@code [low, high]} in ascending order, skipping
+     * subtrees that lie outside the range
+     * @param root The root of the tree
+     * @param low Smallest value to visit
+     * @param high Largest value to visit
+     * @param action Called with each value in the range
+     * @return The number of values visited
+     */
+    public static int forEachInRange(AlgorithmVisualizer.TreeOperations.TreeNode root, int low, int high,
+                                     IntConsumer action) {
+        AlgorithmVisualizer.TreeOperations.TreeNode[] stack =
+            new AlgorithmVisualizer.TreeOperations.TreeNode[Math.max(height(root), 1)];
+        int top = 0;
+        int visited = 0;
+        AlgorithmVisualizer.TreeOperations.TreeNode current = root;
+        while (true) {
+            // Descend left, but never into a subtree that is entirely below low
+            while (current != null) {
+                if (current.value < low) {
+                    current = current.right;
+                } else {
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = current;
+                    current = current.left;
+                }
+            }
+            if (top == 0) {
+                return visited;
+            }
+            AlgorithmVisualizer.TreeOperations.TreeNode node = stack[--top];
+            if (node.value > high) {
+                return visited;
+            }
+            action.accept(node.value);
+            visited++;
+            current = node.right;
+        }
+    }
+
+    /**
+     * @param node A subtree root, or null
+     * @return The height of the subtree; 0 for an empty tree
+     */
+    public static int height(AlgorithmVisualizer.TreeOperations.TreeNode node) {
+        return node == null ? 0 : node.height;
+    }
+
+    /**
+     * @param node A subtree root, or null
+     * @return The number of nodes in the subtree
+     */
+    public static int size(AlgorithmVisualizer.TreeOperations.TreeNode node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Recompute a node's height and size from its children
+     * @param node The node to update
+     */
+    static void update(AlgorithmVisualizer.TreeOperations.TreeNode node) {
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    // Walk path[0..depth) bottom-up, updating and rebalancing each node; returns the root
+    private static AlgorithmVisualizer.TreeOperations.TreeNode rebalancePath(
+            AlgorithmVisualizer.TreeOperations.TreeNode[] path, int depth) {
+        for (int i = depth - 1; i > 0; i--) {
+            AlgorithmVisualizer.TreeOperations.TreeNode node = path[i];
+            AlgorithmVisualizer.TreeOperations.TreeNode balanced = balance(node);
+            if (balanced != node) {
+                AlgorithmVisualizer.TreeOperations.TreeNode parent = path[i - 1];
+                if (parent.left == node) {
+                    parent.left = balanced;
+                } else {
+                    parent.right = balanced;
+                }
+            }
+        }
+        return balance(path[0]);
+    }
+
+    private static AlgorithmVisualizer.TreeOperations.TreeNode balance(
+            AlgorithmVisualizer.TreeOperations.TreeNode node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static AlgorithmVisualizer.TreeOperations.TreeNode rotateRight(
+            AlgorithmVisualizer.TreeOperations.TreeNode node) {
+        AlgorithmVisualizer.TreeOperations.TreeNode pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static AlgorithmVisualizer.TreeOperations.TreeNode rotateLeft(
+            AlgorithmVisualizer.TreeOperations.TreeNode node) {
+        AlgorithmVisualizer.TreeOperations.TreeNode pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+}
@@ -0,0 +1,188 @@
+import java.util.Arrays;
+
+/**
+ * Bloom filter whose bits for any one value all fall in a single 512-bit
+ * block, one cache line, so a lookup costs one cache miss instead of one
+ * per hash function. Values can be added at any time, so the filter can
+ * follow inserts into the data it guards; removals leave their bits set,
+ * which only costs false positives until the filter is rebuilt.
+ *
+ * <p>Sized from the expected number of values and a target false-positive
+ * rate. Confining bits to blocks makes the rate somewhat worse than a plain
+ * Bloom filter of the same size, so blocks are added until an estimate that
+ * averages over how unevenly values land in blocks meets the target;
+ * {@link #falsePositiveRate()} reports that estimate for the values added.
+ */
+public class BlockedBloomFilter implements IntMembershipFilter {
+    private static final int BLOCK_BITS = 512;
+    private static final int BLOCK_WORDS = BLOCK_BITS / Long.SIZE;
+    private static final int MAX_HASHES = 16;
+    // Bit positions drawn from one 64-bit hash, 9 bits each
+    private static final int BITS_PER_HASH = 7;
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    private final long[] words;
+    private final int blocks;
+    private final int hashCount;
+    private long count;
+
+    /**
+     * Create an empty filter
+     * @param expectedValues Number of values the filter is sized for
+     * @param falsePositiveRate Target rate of false positives once that many values are added
+     */
+    public BlockedBloomFilter(int expectedValues, double falsePositiveRate) {
+        if (expectedValues < 0) {
+            throw new IllegalArgumentException("Illegal expected value count: " + expectedValues);
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("Illegal false-positive rate: " + falsePositiveRate);
+        }
+        // Optimal Bloom sizing: m / n = -ln(p) / ln(2)^2 bits per value and k = m / n * ln(2) hashes
+        double bitsPerValue = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        int expected = Math.max(1, expectedValues);
+        this.hashCount = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(bitsPerValue * Math.log(2))));
+        long blockCount = ((long) Math.ceil(expected * bitsPerValue) + BLOCK_BITS - 1) / BLOCK_BITS;
+        // Blocking raises the rate, so grow until the estimate meets the target
+        while (estimate(expected, blockCount, hashCount) > falsePositiveRate) {
+            blockCount += blockCount / 16 + 1;
+        }
+        if (blockCount > Integer.MAX_VALUE / BLOCK_WORDS) {
+            throw new IllegalArgumentException("Filter too large: " + blockCount + " blocks");
+        }
+        this.blocks = (int) blockCount;
+        this.words = new long[blocks * BLOCK_WORDS];
+    }
+
+    /**
+     * Build a filter holding every value of an array
+     * @param arr The values to add
+     * @param falsePositiveRate Target rate of false positives
+     * @return The filter
+     */
+    public static BlockedBloomFilter of(int[] arr, double falsePositiveRate) {
+        BlockedBloomFilter filter = new BlockedBloomFilter(arr.length, falsePositiveRate);
+        filter.addAll(arr);
+        return filter;
+    }
+
+    /**
+     * Build a filter holding every value of a linked list
+     * @param head The head of the linked list
+     * @param falsePositiveRate Target rate of false positives
+     * @return The filter
+     */
+    public static BlockedBloomFilter of(DataStructures.LinkedListOperations.Node head, double falsePositiveRate) {
+        int length = 0;
+        for (DataStructures.LinkedListOperations.Node n = head; n != null; n = n.next) {
+            length++;
+        }
+        BlockedBloomFilter filter = new BlockedBloomFilter(length, falsePositiveRate);
+        for (DataStructures.LinkedListOperations.Node n = head; n != null; n = n.next) {
+            filter.add(n.value);
+        }
+        return filter;
+    }
+
+    /**
+     * Add a value, e.g. after inserting it into the guarded data
+     * @param value The value to add
+     */
+    public void add(int value) {
+        long h = IntMembershipFilter.hash(value, SEED);
+        int base = block(h) * BLOCK_WORDS;
+        long bits = h;
+        for (int i = 0; i < hashCount; i++) {
+            if (i % BITS_PER_HASH == 0) {
+                bits = remix(bits);
+            }
+            int bit = (int) (bits >>> (i % BITS_PER_HASH * 9)) & (BLOCK_BITS - 1);
+            words[base + (bit >>> 6)] |= 1L << bit;
+        }
+        count++;
+    }
+
+    /**
+     * @param values The values to add
+     */
+    public void addAll(int[] values) {
+        for (int value : values) {
+            add(value);
+        }
+    }
+
+    @Override
+    public boolean mightContain(int value) {
+        long h = IntMembershipFilter.hash(value, SEED);
+        int base = block(h) * BLOCK_WORDS;
+        long bits = h;
+        for (int i = 0; i < hashCount; i++) {
+            if (i % BITS_PER_HASH == 0) {
+                bits = remix(bits);
+            }
+            int bit = (int) (bits >>> (i % BITS_PER_HASH * 9)) & (BLOCK_BITS - 1);
+            if ((words[base + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Remove every value, e.g. before re-adding the current contents
+    public void clear() {
+        Arrays.fill(words, 0);
+        count = 0;
+    }
+
+    /**
+     * @return Number of add calls since creation or the last clear
+     */
+    public long count() {
+        return count;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    @Override
+    public double falsePositiveRate() {
+        return estimate(count, blocks, hashCount);
+    }
+
+    // Values per block are Poisson distributed; a block holding j values
+    // has a fraction 1 - e^(-kj/512) of its bits set
+    private static double estimate(long values, long blocks, int hashCount) {
+        double load = (double) values / blocks;
+        if (load > 500) {
+            // e^-load underflows; blocks this overfull are all alike
+            return Math.pow(1 - Math.exp(-hashCount * load / BLOCK_BITS), hashCount);
+        }
+        double probability = Math.exp(-load);
+        double rate = 0;
+        int limit = (int) (load + 12 * Math.sqrt(load) + 12);
+        for (int j = 0; j <= limit; j++) {
+            if (j > 0) {
+                probability *= load / j;
+            }
+            rate += probability * Math.pow(1 - Math.exp(-(double) hashCount * j / BLOCK_BITS), hashCount);
+        }
+        return rate;
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return (long) words.length * Long.BYTES;
+    }
+
+    // Block chosen by the high half of the hash, mapped onto [0, blocks) without a division
+    private int block(long h) {
+        return (int) (((h >>> 32) * blocks) >>> 32);
+    }
+
+    // Fresh bits for the next 7 bit positions, 9 bits each; the block was chosen from the unmixed hash
+    private static long remix(long bits) {
+        bits = (bits ^ (bits >>> 29)) * SEED;
+        return bits ^ (bits >>> 32);
+    }
+}
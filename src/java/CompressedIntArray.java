@@ -0,0 +1,467 @@
+import java.util.Arrays;
+
+/**
+ * Immutable int array compressed in blocks of 128 values, for data such as
+ * sorted IDs and small-range counters that a plain {@code int[]} stores at
+ * 32 bits a value. Each block is bit-packed at a width chosen by the
+ * {@link Builder}, using one of two encodings:
+ * <ul>
+ *   <li>frame of reference: each value is stored as its difference from the
+ *       block minimum, so {@link #get(int)} unpacks a single slot;</li>
+ *   <li>delta: for non-decreasing blocks, each value is stored as its
+ *       difference from the previous one, which is far smaller for sorted
+ *       IDs; {@link #get(int)} sums the slots up to the index.</li>
+ * </ul>
+ * Widths follow PFOR: the few values too wide for the chosen width keep
+ * their low bits in the block and their high bits in a side list of
+ * exceptions, so one outlier does not widen all 128 slots.
+ *
+ * <p>A block of width b fills exactly 2b longs, so blocks start on word
+ * boundaries and are found in O(1). {@link #search(int)} skips blocks
+ * whose min/max range excludes the target and decodes the rest a block at
+ * a time, scanning the result with VectorizedSearch. Decoding has no
+ * per-slot branches: widths that divide 64 are unpacked a word at a time,
+ * a fixed number of slots per word, and other widths read the two words a
+ * slot may straddle and combine them with shifts. Searches in a loop can
+ * pass a scratch buffer to {@link #search(int, int[])} to avoid allocating.
+ */
+public final class CompressedIntArray {
+    // Values per block; a block of width b is 128 * b bits = 2b longs
+    public static final int BLOCK_SIZE = 128;
+    private static final int BLOCK_SHIFT = 7;
+    // Cost of an exception in bits: a one-byte position and the 32-bit high part
+    private static final int EXCEPTION_BITS = 40;
+    private static final byte FRAME_OF_REFERENCE = 0;
+    private static final byte DELTA = 1;
+
+    private final int size;
+    private final long[] data;
+    // Per block: first word in data (blockCount + 1 entries), slot width, encoding and value range
+    private final int[] wordOffsets;
+    private final byte[] widths;
+    private final byte[] encodings;
+    private final int[] minimums;
+    private final int[] maximums;
+    // Per block, exceptions exceptionOffsets[b] .. exceptionOffsets[b + 1] - 1, in slot order
+    private final int[] exceptionOffsets;
+    private final byte[] exceptionSlots;
+    private final int[] exceptionHighBits;
+
+    private CompressedIntArray(Builder builder) {
+        int blocks = builder.blocks;
+        this.size = builder.size;
+        // One word of padding, so unpacking a block's last slot can read the word after it
+        this.data = Arrays.copyOf(builder.data, builder.words + 1);
+        this.wordOffsets = Arrays.copyOf(builder.wordOffsets, blocks + 1);
+        this.widths = Arrays.copyOf(builder.widths, blocks);
+        this.encodings = Arrays.copyOf(builder.encodings, blocks);
+        this.minimums = Arrays.copyOf(builder.minimums, blocks);
+        this.maximums = Arrays.copyOf(builder.maximums, blocks);
+        this.exceptionOffsets = Arrays.copyOf(builder.exceptionOffsets, blocks + 1);
+        this.exceptionSlots = Arrays.copyOf(builder.exceptionSlots, builder.exceptions);
+        this.exceptionHighBits = Arrays.copyOf(builder.exceptionHighBits, builder.exceptions);
+    }
+
+    /**
+     * @param values The values to compress; the array is not modified
+     * @return A compressed copy
+     */
+    public static CompressedIntArray of(int... values) {
+        return new Builder().addAll(values).build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return Bytes held by the encoded data and per-block headers, excluding object headers
+     */
+    public long compressedBytes() {
+        long blocks = widths.length;
+        return (long) data.length * Long.BYTES
+            + blocks * (4 * Integer.BYTES + 2)
+            + (long) exceptionSlots.length * (1 + Integer.BYTES);
+    }
+
+    /**
+     * Get the element at a specific index: O(1) for frame-of-reference
+     * blocks, O(slot) for delta blocks
+     * @param index The position to read
+     * @return The element at that position
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        int block = index >>> BLOCK_SHIFT;
+        int slot = index & (BLOCK_SIZE - 1);
+        if (encodings[block] == FRAME_OF_REFERENCE) {
+            return minimums[block] + slot(block, slot);
+        }
+        int width = widths[block];
+        int value = minimums[block];
+        if (width > 0) {
+            int offset = wordOffsets[block];
+            for (int i = 1; i <= slot; i++) {
+                value += packed(offset, width, i);
+            }
+        }
+        for (int e = exceptionOffsets[block], end = exceptionOffsets[block + 1]; e < end; e++) {
+            if (exceptionSlots[e] > slot) {
+                break;
+            }
+            value += exceptionHighBits[e] << width;
+        }
+        return value;
+    }
+
+    /**
+     * Search for a value, decoding only blocks whose range can hold it
+     * @param target The value to search for
+     * @return The index of the first occurrence, or -1 if not found
+     */
+    public int search(int target) {
+        return search(target, null);
+    }
+
+    /**
+     * Search for a value, decoding blocks into a caller-supplied buffer so
+     * repeated searches allocate nothing
+     * @param target The value to search for
+     * @param scratch An int[BLOCK_SIZE] to decode into, overwritten; if null, one
+     *                is allocated when the first block needs decoding
+     * @return The index of the first occurrence, or -1 if not found
+     */
+    public int search(int target, int[] scratch) {
+        if (scratch != null && scratch.length != BLOCK_SIZE) {
+            throw new IllegalArgumentException("Scratch buffer must hold " + BLOCK_SIZE + " ints: " + scratch.length);
+        }
+        int[] buffer = scratch;
+        for (int block = 0; block < widths.length; block++) {
+            if (target < minimums[block] || target > maximums[block]) {
+                continue;
+            }
+            if (buffer == null) {
+                buffer = new int[BLOCK_SIZE];
+            }
+            decodeBlock(block, buffer);
+            int count = Math.min(BLOCK_SIZE, size - (block << BLOCK_SHIFT));
+            int slot;
+            if (encodings[block] == DELTA) {
+                // Delta blocks are sorted, and padding repeats the last value
+                slot = lowerBound(buffer, count, target);
+                slot = slot < count && buffer[slot] == target ? slot : -1;
+            } else {
+                // A hit in the padding past count means no hit in the block
+                slot = VectorizedSearch.indexOf(buffer, target);
+            }
+            if (slot >= 0 && slot < count) {
+                return (block << BLOCK_SHIFT) + slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The decompressed values
+     */
+    public int[] toArray() {
+        int[] result = new int[size];
+        int[] buffer = new int[BLOCK_SIZE];
+        for (int block = 0; block < widths.length; block++) {
+            decodeBlock(block, buffer);
+            int from = block << BLOCK_SHIFT;
+            System.arraycopy(buffer, 0, result, from, Math.min(BLOCK_SIZE, size - from));
+        }
+        return result;
+    }
+
+    // Decode all 128 slots of a block; slots past size hold padding
+    private void decodeBlock(int block, int[] out) {
+        int width = widths[block];
+        unpack(data, wordOffsets[block], width, out);
+        for (int e = exceptionOffsets[block], end = exceptionOffsets[block + 1]; e < end; e++) {
+            out[exceptionSlots[e]] |= exceptionHighBits[e] << width;
+        }
+        int base = minimums[block];
+        if (encodings[block] == DELTA) {
+            out[0] = base;
+            for (int i = 1; i < BLOCK_SIZE; i++) {
+                out[i] += out[i - 1];
+            }
+        } else {
+            for (int i = 0; i < BLOCK_SIZE; i++) {
+                out[i] += base;
+            }
+        }
+    }
+
+    // The stored difference in one slot, high bits included
+    private int slot(int block, int slot) {
+        int width = widths[block];
+        int low = width == 0 ? 0 : packed(wordOffsets[block], width, slot);
+        int from = exceptionOffsets[block];
+        int to = exceptionOffsets[block + 1];
+        if (from < to) {
+            int e = Arrays.binarySearch(exceptionSlots, from, to, (byte) slot);
+            if (e >= 0) {
+                low |= exceptionHighBits[e] << width;
+            }
+        }
+        return low;
+    }
+
+    // The low bits packed in one slot of a block of nonzero width
+    private int packed(int offset, int width, int slot) {
+        int bit = slot * width;
+        int word = offset + (bit >>> 6);
+        int shift = bit & 63;
+        long value = data[word] >>> shift;
+        if (shift + width > 64) {
+            value |= data[word + 1] << (64 - shift);
+        }
+        return (int) (value & ((1L << width) - 1));
+    }
+
+    // Unpack 128 slots of the given width starting at word offset
+    private static void unpack(long[] data, int offset, int width, int[] out) {
+        if (width == 0) {
+            Arrays.fill(out, 0);
+            return;
+        }
+        int mask = (int) ((1L << width) - 1);
+        if (64 % width == 0) {
+            // No slot straddles a word: each of the 2 * width words holds 64 / width slots
+            int perWord = 64 / width;
+            for (int w = 0, i = 0; w < 2 * width; w++) {
+                long word = data[offset + w];
+                for (int j = 0; j < perWord; j++, i++) {
+                    out[i] = (int) (word >>> (j * width)) & mask;
+                }
+            }
+            return;
+        }
+        long bit = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++, bit += width) {
+            int word = offset + (int) (bit >>> 6);
+            int shift = (int) bit & 63;
+            // (x << 1) << (63 - shift) is x << (64 - shift), but 0 rather than x when shift is 0
+            long value = (data[word] >>> shift) | ((data[word + 1] << 1) << (63 - shift));
+            out[i] = (int) value & mask;
+        }
+    }
+
+    private static int lowerBound(int[] arr, int to, int value) {
+        int lo = 0;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arr[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Accumulates values and encodes each block of 128 as soon as it fills,
+     * choosing per block between frame of reference and delta, and the slot
+     * width that minimizes packed bits plus exceptions.
+     */
+    public static final class Builder {
+        private final int[] pending = new int[BLOCK_SIZE];
+        private final int[] residuals = new int[BLOCK_SIZE];
+        private final int[] deltas = new int[BLOCK_SIZE];
+        private int pendingCount;
+        private int size;
+        private boolean built;
+
+        private long[] data = new long[16];
+        private int words;
+        private int blocks;
+        private int[] wordOffsets = new int[9];
+        private byte[] widths = new byte[8];
+        private byte[] encodings = new byte[8];
+        private int[] minimums = new int[8];
+        private int[] maximums = new int[8];
+        private int exceptions;
+        private int[] exceptionOffsets = new int[9];
+        private byte[] exceptionSlots = new byte[8];
+        private int[] exceptionHighBits = new int[8];
+
+        private Builder() {
+        }
+
+        /**
+         * @param value The value to append
+         * @return This builder
+         */
+        public Builder add(int value) {
+            if (built) {
+                throw new IllegalStateException("Builder already built");
+            }
+            if (size == Integer.MAX_VALUE) {
+                throw new IllegalStateException("Too many values");
+            }
+            pending[pendingCount++] = value;
+            size++;
+            if (pendingCount == BLOCK_SIZE) {
+                flush();
+            }
+            return this;
+        }
+
+        /**
+         * @param values The values to append, in order
+         * @return This builder
+         */
+        public Builder addAll(int[] values) {
+            for (int value : values) {
+                add(value);
+            }
+            return this;
+        }
+
+        /**
+         * Encode any partial last block and create the array; the builder
+         * cannot be used afterwards
+         * @return The compressed array
+         */
+        public CompressedIntArray build() {
+            if (built) {
+                throw new IllegalStateException("Builder already built");
+            }
+            if (pendingCount > 0) {
+                flush();
+            }
+            built = true;
+            return new CompressedIntArray(this);
+        }
+
+        private void flush() {
+            int count = pendingCount;
+            int min = pending[0];
+            int max = pending[0];
+            boolean sorted = true;
+            for (int i = 1; i < count; i++) {
+                min = Math.min(min, pending[i]);
+                max = Math.max(max, pending[i]);
+                sorted &= pending[i - 1] <= pending[i];
+            }
+            // Differences are taken modulo 2^32 and read as unsigned, so any int range fits in 32 bits
+            for (int i = 0; i < count; i++) {
+                residuals[i] = pending[i] - min;
+            }
+            Arrays.fill(residuals, count, BLOCK_SIZE, 0);
+            byte encoding = FRAME_OF_REFERENCE;
+            int width = bestWidth(residuals);
+            if (sorted && count > 1) {
+                for (int i = 1; i < count; i++) {
+                    deltas[i] = pending[i] - pending[i - 1];
+                }
+                Arrays.fill(deltas, count, BLOCK_SIZE, 0);
+                int deltaWidth = bestWidth(deltas);
+                if (cost(deltas, deltaWidth) < cost(residuals, width)) {
+                    encoding = DELTA;
+                    width = deltaWidth;
+                    System.arraycopy(deltas, 0, residuals, 0, BLOCK_SIZE);
+                }
+            }
+            ensureBlockCapacity(2 * width);
+            wordOffsets[blocks] = words;
+            widths[blocks] = (byte) width;
+            encodings[blocks] = encoding;
+            minimums[blocks] = min;
+            maximums[blocks] = max;
+            exceptionOffsets[blocks] = exceptions;
+            long mask = width == 0 ? 0 : (1L << width) - 1;
+            long bit = 0;
+            for (int i = 0; i < BLOCK_SIZE; i++, bit += width) {
+                long value = residuals[i] & 0xFFFFFFFFL;
+                if (value > mask) {
+                    addException(i, (int) (value >>> width));
+                }
+                if (width == 0) {
+                    continue;
+                }
+                int word = words + (int) (bit >>> 6);
+                int shift = (int) bit & 63;
+                data[word] |= (value & mask) << shift;
+                if (shift + width > 64) {
+                    data[word + 1] |= (value & mask) >>> (64 - shift);
+                }
+            }
+            words += 2 * width;
+            blocks++;
+            wordOffsets[blocks] = words;
+            exceptionOffsets[blocks] = exceptions;
+            pendingCount = 0;
+        }
+
+        // Width in 0..32 minimizing packed bits plus exception bits
+        private static int bestWidth(int[] values) {
+            int[] countByWidth = new int[33];
+            for (int value : values) {
+                countByWidth[32 - Integer.numberOfLeadingZeros(value)]++;
+            }
+            int best = 32;
+            long bestCost = 32L * BLOCK_SIZE;
+            int wider = 0;
+            for (int width = 31; width >= 0; width--) {
+                wider += countByWidth[width + 1];
+                long cost = (long) width * BLOCK_SIZE + (long) wider * EXCEPTION_BITS;
+                if (cost < bestCost) {
+                    best = width;
+                    bestCost = cost;
+                }
+            }
+            return best;
+        }
+
+        private static long cost(int[] values, int width) {
+            long cost = (long) width * BLOCK_SIZE;
+            for (int value : values) {
+                if (32 - Integer.numberOfLeadingZeros(value) > width) {
+                    cost += EXCEPTION_BITS;
+                }
+            }
+            return cost;
+        }
+
+        private void addException(int slot, int highBits) {
+            if (exceptions == exceptionSlots.length) {
+                exceptionSlots = Arrays.copyOf(exceptionSlots, exceptions * 2);
+                exceptionHighBits = Arrays.copyOf(exceptionHighBits, exceptions * 2);
+            }
+            exceptionSlots[exceptions] = (byte) slot;
+            exceptionHighBits[exceptions] = highBits;
+            exceptions++;
+        }
+
+        private void ensureBlockCapacity(int blockWords) {
+            if (words + blockWords > data.length) {
+                data = Arrays.copyOf(data, Math.max(words + blockWords, data.length * 2));
+            }
+            if (blocks == widths.length) {
+                int capacity = blocks * 2;
+                wordOffsets = Arrays.copyOf(wordOffsets, capacity + 1);
+                widths = Arrays.copyOf(widths, capacity);
+                encodings = Arrays.copyOf(encodings, capacity);
+                minimums = Arrays.copyOf(minimums, capacity);
+                maximums = Arrays.copyOf(maximums, capacity);
+                exceptionOffsets = Arrays.copyOf(exceptionOffsets, capacity + 1);
+            }
+        }
+    }
+}
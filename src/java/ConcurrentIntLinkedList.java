@@ -0,0 +1,205 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Lock-free sorted set of ints kept as a singly linked list, in the style of
+ * Harris and Michael. A node is deleted in two steps: it is first marked by
+ * CASing a marker node in as its successor, which freezes its {@code next}
+ * link, and then physically unlinked. Any thread that runs into a marked node
+ * helps unlink it. Marker nodes play the role of Harris's mark bit without
+ * the extra indirection of {@code AtomicMarkableReference}, so a traversal
+ * touches one object per element.
+ *
+ * <p>{@link #insert(int)} and {@link #delete(int)} are lock-free,
+ * {@link #contains(int)} is wait-free and writes nothing, and all three are
+ * linearizable. Positions in a list that other threads are changing are not
+ * stable, so unlike {@code DataStructures.LinkedListOperations} this list is
+ * keyed by value; {@link #searchNode(int)} still reports a position, but it
+ * is only a hint under concurrent updates.
+ */
+public class ConcurrentIntLinkedList {
+    private static final VarHandle NEXT;
+
+    static {
+        try {
+            NEXT = MethodHandles.lookup().findVarHandle(Node.class, "next", Node.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final class Node {
+        final int value;
+        // Marker nodes carry no value; a node whose next is a marker is deleted
+        final boolean marker;
+        volatile Node next;
+
+        Node(int value, Node next, boolean marker) {
+            this.value = value;
+            this.next = next;
+            this.marker = marker;
+        }
+
+        boolean isDeleted() {
+            Node n = next;
+            return n != null && n.marker;
+        }
+
+        boolean casNext(Node expected, Node update) {
+            return NEXT.compareAndSet(this, expected, update);
+        }
+    }
+
+    // Sentinel; its value is never compared and it is never deleted
+    private final Node head = new Node(0, null, false);
+
+    /**
+     * Insert a value if it is not already present
+     * @param value The value to insert
+     * @return true if inserted, false if the value was already in the list
+     */
+    public boolean insert(int value) {
+        while (true) {
+            Node pred = findPredecessor(value);
+            Node curr = pred.next;
+            if (curr != null && curr.marker) {
+                // pred was deleted after find returned it
+                continue;
+            }
+            if (curr != null && curr.value == value) {
+                if (curr.isDeleted()) {
+                    continue;
+                }
+                return false;
+            }
+            // Fails if pred was marked or a node was linked in meanwhile
+            if (pred.casNext(curr, new Node(value, curr, false))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Delete a value
+     * @param value The value to delete
+     * @return true if deleted, false if the value was not in the list
+     */
+    public boolean delete(int value) {
+        while (true) {
+            Node pred = findPredecessor(value);
+            Node curr = pred.next;
+            if (curr != null && curr.marker) {
+                continue;
+            }
+            if (curr == null || curr.value != value) {
+                return false;
+            }
+            Node succ = curr.next;
+            if (succ != null && succ.marker) {
+                // Someone else deleted it first; retry so find unlinks it
+                continue;
+            }
+            // Logical deletion: linking the marker is the linearization point
+            if (!curr.casNext(succ, new Node(0, succ, true))) {
+                continue;
+            }
+            // Physical deletion; if it fails, a later find will unlink the node
+            pred.casNext(curr, succ);
+            return true;
+        }
+    }
+
+    /**
+     * Check whether a value is present, without writing to shared state
+     * @param value The value to look for
+     * @return true if the value is in the list
+     */
+    public boolean contains(int value) {
+        Node curr = head.next;
+        while (curr != null && (curr.marker || curr.value < value)) {
+            curr = curr.next;
+        }
+        return curr != null && curr.value == value && !curr.isDeleted();
+    }
+
+    /**
+     * Search for a value in the list
+     * @param value The value to search for
+     * @return The number of live values before it, or -1 if not found. Under
+     *         concurrent updates the position is only a hint.
+     */
+    public int searchNode(int value) {
+        int position = 0;
+        for (Node curr = head.next; curr != null; curr = curr.next) {
+            if (curr.marker || curr.isDeleted()) {
+                continue;
+            }
+            if (curr.value == value) {
+                return position;
+            }
+            if (curr.value > value) {
+                return -1;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    /**
+     * @return The number of live values; weakly consistent under concurrent updates
+     */
+    public int size() {
+        int count = 0;
+        for (Node curr = head.next; curr != null; curr = curr.next) {
+            if (!curr.marker && !curr.isDeleted()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return The live values in ascending order; weakly consistent under concurrent updates
+     */
+    public int[] toArray() {
+        int[] result = new int[16];
+        int count = 0;
+        for (Node curr = head.next; curr != null; curr = curr.next) {
+            if (!curr.marker && !curr.isDeleted()) {
+                if (count == result.length) {
+                    result = Arrays.copyOf(result, count * 2);
+                }
+                result[count++] = curr.value;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // Return the last live node with a value below the given one, unlinking
+    // deleted nodes on the way
+    private Node findPredecessor(int value) {
+        retry:
+        while (true) {
+            Node pred = head;
+            Node curr = pred.next;
+            while (curr != null) {
+                Node succ = curr.next;
+                if (succ != null && succ.marker) {
+                    // curr is deleted: splice out curr and its marker
+                    if (!pred.casNext(curr, succ.next)) {
+                        continue retry;
+                    }
+                    curr = succ.next;
+                    continue;
+                }
+                if (curr.value >= value) {
+                    return pred;
+                }
+                pred = curr;
+                curr = succ;
+            }
+            return pred;
+        }
+    }
+}
@@ -0,0 +1,501 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Immutable graph in compressed sparse row (CSR) form: the arcs leaving
+ * vertex v are {@code targets[offsets[v] .. offsets[v + 1])}, sorted by
+ * target, with their weights in a parallel array. A graph with V vertices
+ * and E arcs takes 4(V + 1) + 4E bytes, or 8E with weights, against the
+ * V^2 cells of an adjacency matrix; ten million vertices of average degree
+ * 16 fit in under a gigabyte.
+ *
+ * <p>Construction from an edge list runs in parallel on the common
+ * fork-join pool: degree counting, a prefix sum, scattering arcs into
+ * place, and sorting each vertex's arcs. BFS is direction-optimizing
+ * (Beamer et al.): it expands the frontier top-down while the frontier is
+ * small and switches to bottom-up, where each unvisited vertex looks for a
+ * parent in the frontier, once the frontier holds a large share of the
+ * remaining arcs. Both kinds of step run in parallel. Connected components
+ * use a lock-free union-find over all arcs in parallel.
+ */
+public final class CsrGraph implements IntGraph {
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    // Edges or vertices below which a parallel loop runs on the calling thread
+    private static final int GRAIN = 1 << 12;
+    // Frontier vertices per top-down task, and bitmap words (64 vertices each) per bottom-up task
+    private static final int FRONTIER_GRAIN = 256;
+    private static final int WORD_GRAIN = 64;
+    // Go bottom-up once frontier arcs exceed unexplored arcs / ALPHA, and back once
+    // the frontier shrinks below V / BETA vertices; the values from the paper
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+    private static final int MAX_ARCS = Integer.MAX_VALUE - 8;
+
+    private final int vertexCount;
+    private final boolean directed;
+    private final int[] offsets;
+    private final int[] targets;
+    // null if the graph is unweighted, i.e. every weight is 1
+    private final int[] weights;
+    // Graph with every arc reversed, built on first need by bottom-up BFS steps
+    private volatile CsrGraph reverse;
+
+    private CsrGraph(int vertexCount, boolean directed, int[] offsets, int[] targets, int[] weights) {
+        this.vertexCount = vertexCount;
+        this.directed = directed;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Build an unweighted graph from an edge list
+     * @param vertexCount Number of vertices
+     * @param sources Source vertex of each edge
+     * @param targets Target vertex of each edge
+     * @param directed false to store every edge in both directions
+     * @return The graph
+     */
+    public static CsrGraph fromEdges(int vertexCount, int[] sources, int[] targets, boolean directed) {
+        return fromEdges(vertexCount, sources, targets, null, directed);
+    }
+
+    /**
+     * Build a graph from an edge list, in parallel. Duplicate edges are kept.
+     * @param vertexCount Number of vertices
+     * @param sources Source vertex of each edge
+     * @param targets Target vertex of each edge
+     * @param weights Non-negative weight of each edge, or null for an unweighted graph
+     * @param directed false to store every edge in both directions
+     * @return The graph
+     */
+    public static CsrGraph fromEdges(int vertexCount, int[] sources, int[] targets, int[] weights,
+                                     boolean directed) {
+        if (vertexCount < 0) {
+            throw new IllegalArgumentException("Illegal vertex count: " + vertexCount);
+        }
+        int edges = sources.length;
+        if (targets.length != edges || weights != null && weights.length != edges) {
+            throw new IllegalArgumentException("Edge arrays differ in length");
+        }
+        if ((directed ? edges : 2L * edges) > MAX_ARCS) {
+            throw new IllegalArgumentException("Too many edges: " + edges);
+        }
+
+        // Count arcs per vertex into offsets[v + 1], validating as we go
+        int[] offsets = new int[vertexCount + 1];
+        parallelFor(0, edges, GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int s = sources[i];
+                int t = targets[i];
+                checkVertex(s, vertexCount);
+                checkVertex(t, vertexCount);
+                if (weights != null && weights[i] < 0) {
+                    throw new IllegalArgumentException("Negative weight " + weights[i] + " on edge " + i);
+                }
+                INTS.getAndAdd(offsets, s + 1, 1);
+                if (!directed && s != t) {
+                    INTS.getAndAdd(offsets, t + 1, 1);
+                }
+            }
+        });
+        Arrays.parallelPrefix(offsets, Integer::sum);
+        int arcs = offsets[vertexCount];
+
+        // Scatter arcs into their vertex's range, then sort each range. Weighted arcs
+        // travel packed as target << 32 | weight so that one sort orders both.
+        int[] cursor = Arrays.copyOf(offsets, vertexCount);
+        if (weights == null) {
+            int[] arcTargets = new int[arcs];
+            parallelFor(0, edges, GRAIN, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    int s = sources[i];
+                    int t = targets[i];
+                    arcTargets[(int) INTS.getAndAdd(cursor, s, 1)] = t;
+                    if (!directed && s != t) {
+                        arcTargets[(int) INTS.getAndAdd(cursor, t, 1)] = s;
+                    }
+                }
+            });
+            parallelFor(0, vertexCount, GRAIN, (from, to) -> {
+                for (int v = from; v < to; v++) {
+                    Arrays.sort(arcTargets, offsets[v], offsets[v + 1]);
+                }
+            });
+            return new CsrGraph(vertexCount, directed, offsets, arcTargets, null);
+        }
+        long[] packed = new long[arcs];
+        parallelFor(0, edges, GRAIN, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int s = sources[i];
+                int t = targets[i];
+                long weight = weights[i];
+                packed[(int) INTS.getAndAdd(cursor, s, 1)] = (long) t << 32 | weight;
+                if (!directed && s != t) {
+                    packed[(int) INTS.getAndAdd(cursor, t, 1)] = (long) s << 32 | weight;
+                }
+            }
+        });
+        int[] arcTargets = new int[arcs];
+        int[] arcWeights = new int[arcs];
+        parallelFor(0, vertexCount, GRAIN, (from, to) -> {
+            for (int v = from; v < to; v++) {
+                Arrays.sort(packed, offsets[v], offsets[v + 1]);
+                for (int k = offsets[v]; k < offsets[v + 1]; k++) {
+                    arcTargets[k] = (int) (packed[k] >>> 32);
+                    arcWeights[k] = (int) packed[k];
+                }
+            }
+        });
+        return new CsrGraph(vertexCount, directed, offsets, arcTargets, arcWeights);
+    }
+
+    @Override
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public long edgeCount() {
+        return targets.length;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return directed;
+    }
+
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    @Override
+    public int degree(int vertex) {
+        checkVertex(vertex, vertexCount);
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    @Override
+    public boolean hasEdge(int source, int target) {
+        checkVertex(source, vertexCount);
+        checkVertex(target, vertexCount);
+        return Arrays.binarySearch(targets, offsets[source], offsets[source + 1], target) >= 0;
+    }
+
+    @Override
+    public void forEachNeighbor(int vertex, EdgeVisitor visitor) {
+        checkVertex(vertex, vertexCount);
+        for (int k = offsets[vertex]; k < offsets[vertex + 1]; k++) {
+            visitor.visit(targets[k], weights == null ? 1 : weights[k]);
+        }
+    }
+
+    /**
+     * @return The graph with every arc reversed; an undirected graph is its own reverse
+     */
+    public CsrGraph transpose() {
+        if (!directed) {
+            return this;
+        }
+        CsrGraph result = reverse;
+        if (result == null) {
+            int[] arcSources = new int[targets.length];
+            parallelFor(0, vertexCount, GRAIN, (from, to) -> {
+                for (int v = from; v < to; v++) {
+                    Arrays.fill(arcSources, offsets[v], offsets[v + 1], v);
+                }
+            });
+            result = fromEdges(vertexCount, targets, arcSources, weights, true);
+            reverse = result;
+        }
+        return result;
+    }
+
+    /**
+     * Direction-optimizing breadth-first search, in parallel
+     * @param source The start vertex
+     * @return Number of arcs on a shortest path from source to each vertex, or UNREACHABLE
+     */
+    @Override
+    public int[] bfs(int source) {
+        checkVertex(source, vertexCount);
+        int[] distance = new int[vertexCount];
+        Arrays.fill(distance, UNREACHABLE);
+        distance[source] = 0;
+
+        int[] frontier = {source};
+        long[] frontierBits = null;
+        int frontierSize = 1;
+        long frontierArcs = degree(source);
+        long unexploredArcs = targets.length - frontierArcs;
+        int previousSize = 0;
+        for (int level = 1; frontierSize > 0; level++) {
+            if (frontierBits == null) {
+                if (frontierArcs > unexploredArcs / ALPHA) {
+                    frontierBits = toBits(frontier, frontierSize);
+                }
+            } else if (frontierSize < previousSize && frontierSize < vertexCount / BETA) {
+                // The frontier is shrinking and small again
+                frontier = toQueue(frontierBits, frontierSize);
+                frontierBits = null;
+            }
+            previousSize = frontierSize;
+            long[] totals = new long[2];
+            if (frontierBits == null) {
+                frontier = topDownStep(frontier, frontierSize, distance, level, totals);
+            } else {
+                frontierBits = bottomUpStep(frontierBits, distance, level, totals);
+            }
+            frontierSize = (int) totals[0];
+            frontierArcs = totals[1];
+            unexploredArcs -= frontierArcs;
+        }
+        return distance;
+    }
+
+    // Expand every frontier vertex's arcs; returns the next frontier, totals = {size, arcs}
+    private int[] topDownStep(int[] frontier, int frontierSize, int[] distance, int level, long[] totals) {
+        int chunks = (frontierSize + FRONTIER_GRAIN - 1) / FRONTIER_GRAIN;
+        int[][] found = new int[chunks][];
+        int[] foundCount = new int[chunks];
+        long[] foundArcs = new long[chunks];
+        parallelFor(0, chunks, 1, (first, last) -> {
+            for (int c = first; c < last; c++) {
+                int[] next = new int[16];
+                int count = 0;
+                long arcs = 0;
+                int end = Math.min(frontierSize, (c + 1) * FRONTIER_GRAIN);
+                for (int i = c * FRONTIER_GRAIN; i < end; i++) {
+                    int u = frontier[i];
+                    for (int k = offsets[u]; k < offsets[u + 1]; k++) {
+                        int v = targets[k];
+                        // The plain read filters most visited vertices before the CAS decides
+                        if (distance[v] == UNREACHABLE && INTS.compareAndSet(distance, v, UNREACHABLE, level)) {
+                            if (count == next.length) {
+                                next = Arrays.copyOf(next, count * 2);
+                            }
+                            next[count++] = v;
+                            arcs += offsets[v + 1] - offsets[v];
+                        }
+                    }
+                }
+                found[c] = next;
+                foundCount[c] = count;
+                foundArcs[c] = arcs;
+            }
+        });
+        int size = 0;
+        long arcs = 0;
+        for (int c = 0; c < chunks; c++) {
+            size += foundCount[c];
+            arcs += foundArcs[c];
+        }
+        int[] nextFrontier = new int[size];
+        for (int c = 0, at = 0; c < chunks; c++) {
+            System.arraycopy(found[c], 0, nextFrontier, at, foundCount[c]);
+            at += foundCount[c];
+        }
+        totals[0] = size;
+        totals[1] = arcs;
+        return nextFrontier;
+    }
+
+    // Let every unvisited vertex look for a parent in the frontier; each task owns whole
+    // bitmap words, so no writes race. Returns the next frontier, totals = {size, arcs}
+    private long[] bottomUpStep(long[] frontierBits, int[] distance, int level, long[] totals) {
+        CsrGraph in = transpose();
+        long[] nextBits = new long[frontierBits.length];
+        int chunks = (frontierBits.length + WORD_GRAIN - 1) / WORD_GRAIN;
+        int[] foundCount = new int[chunks];
+        long[] foundArcs = new long[chunks];
+        parallelFor(0, chunks, 1, (first, last) -> {
+            for (int c = first; c < last; c++) {
+                int count = 0;
+                long arcs = 0;
+                int endVertex = (int) Math.min(vertexCount, (long) (c + 1) * WORD_GRAIN * 64);
+                for (int v = c * WORD_GRAIN * 64; v < endVertex; v++) {
+                    if (distance[v] != UNREACHABLE) {
+                        continue;
+                    }
+                    for (int k = in.offsets[v]; k < in.offsets[v + 1]; k++) {
+                        int u = in.targets[k];
+                        if ((frontierBits[u >>> 6] & (1L << u)) != 0) {
+                            distance[v] = level;
+                            nextBits[v >>> 6] |= 1L << v;
+                            count++;
+                            arcs += offsets[v + 1] - offsets[v];
+                            break;
+                        }
+                    }
+                }
+                foundCount[c] = count;
+                foundArcs[c] = arcs;
+            }
+        });
+        long size = 0;
+        long arcs = 0;
+        for (int c = 0; c < chunks; c++) {
+            size += foundCount[c];
+            arcs += foundArcs[c];
+        }
+        totals[0] = size;
+        totals[1] = arcs;
+        return nextBits;
+    }
+
+    private long[] toBits(int[] frontier, int size) {
+        long[] bits = new long[(vertexCount + 63) >>> 6];
+        for (int i = 0; i < size; i++) {
+            bits[frontier[i] >>> 6] |= 1L << frontier[i];
+        }
+        return bits;
+    }
+
+    private static int[] toQueue(long[] bits, int size) {
+        int[] queue = new int[size];
+        int count = 0;
+        for (int w = 0; w < bits.length; w++) {
+            for (long word = bits[w]; word != 0; word &= word - 1) {
+                queue[count++] = (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Dijkstra's algorithm over an IndexedDaryIntHeap
+     * @param source The start vertex
+     * @return Total weight of a lightest path from source to each vertex, or INFINITE_DISTANCE
+     * @throws ArithmeticException If a path weight does not fit in an int
+     */
+    @Override
+    public int[] shortestPaths(int source) {
+        checkVertex(source, vertexCount);
+        int[] distance = new int[vertexCount];
+        Arrays.fill(distance, INFINITE_DISTANCE);
+        distance[source] = 0;
+        IndexedDaryIntHeap heap = new IndexedDaryIntHeap(vertexCount);
+        heap.insert(source, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.extractId();
+            int base = distance[u];
+            for (int k = offsets[u]; k < offsets[u + 1]; k++) {
+                int v = targets[k];
+                int candidate = Math.addExact(base, weights == null ? 1 : weights[k]);
+                if (candidate < distance[v]) {
+                    distance[v] = candidate;
+                    heap.insertOrDecrease(v, candidate);
+                }
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Weakly connected components by lock-free union-find over all arcs in parallel
+     * @return For each vertex, the smallest vertex in its component
+     */
+    @Override
+    public int[] connectedComponents() {
+        int[] parent = new int[vertexCount];
+        Arrays.parallelSetAll(parent, v -> v);
+        parallelFor(0, vertexCount, GRAIN, (from, to) -> {
+            for (int u = from; u < to; u++) {
+                for (int k = offsets[u]; k < offsets[u + 1]; k++) {
+                    int v = targets[k];
+                    // Undirected graphs hold each edge twice; one direction is enough
+                    if (directed ? u != v : u < v) {
+                        union(parent, u, v);
+                    }
+                }
+            }
+        });
+        // Every root is now final, so compressing in place cannot race with a link
+        parallelFor(0, vertexCount, GRAIN, (from, to) -> {
+            for (int v = from; v < to; v++) {
+                parent[v] = find(parent, v);
+            }
+        });
+        return parent;
+    }
+
+    // Roots are only ever linked under smaller roots, so parent[x] <= x throughout,
+    // the forest stays acyclic, and each component's root ends up its smallest vertex
+    private static void union(int[] parent, int u, int v) {
+        while (true) {
+            int ru = find(parent, u);
+            int rv = find(parent, v);
+            if (ru == rv) {
+                return;
+            }
+            int high = Math.max(ru, rv);
+            int low = Math.min(ru, rv);
+            if (INTS.compareAndSet(parent, high, high, low)) {
+                return;
+            }
+        }
+    }
+
+    // Find with path halving; a failed halving CAS only means someone else shortened the path
+    private static int find(int[] parent, int x) {
+        while (true) {
+            int p = (int) INTS.getVolatile(parent, x);
+            if (p == x) {
+                return x;
+            }
+            int grandparent = (int) INTS.getVolatile(parent, p);
+            if (p != grandparent) {
+                INTS.compareAndSet(parent, x, p, grandparent);
+            }
+            x = grandparent;
+        }
+    }
+
+    private static void checkVertex(int vertex, int vertexCount) {
+        if (vertex < 0 || vertex >= vertexCount) {
+            throw new IndexOutOfBoundsException("Vertex " + vertex + " out of bounds for " + vertexCount + " vertices");
+        }
+    }
+
+    // Body of a parallel loop over [from, to)
+    private interface RangeBody {
+        void run(int from, int to);
+    }
+
+    private static void parallelFor(int from, int to, int grain, RangeBody body) {
+        if (to - from <= grain) {
+            body.run(from, to);
+        } else {
+            ForkJoinPool.commonPool().invoke(new RangeTask(from, to, grain, body));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class RangeTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final RangeBody body;
+
+        RangeTask(int from, int to, int grain, RangeBody body) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                body.run(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, grain, body), new RangeTask(mid, to, grain, body));
+        }
+    }
+}
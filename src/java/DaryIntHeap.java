@@ -0,0 +1,151 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Implicit d-ary min-heap on a single {@code int[]}: the children of slot i
+ * are slots d*i + 1 through d*i + d. Arity 2 is the classic binary heap.
+ * Higher arity makes the tree shallower, so inserts do fewer swaps and
+ * extracts fewer cache misses, at the price of more comparisons per level;
+ * 4 is usually the fastest for extract-heavy workloads.
+ *
+ * <p>Sifting moves a hole rather than swapping, so each level costs one
+ * store instead of three.
+ */
+public class DaryIntHeap implements IntHeap {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final int arity;
+    private int[] heap;
+    private int size;
+
+    /**
+     * Create an empty binary heap
+     */
+    public DaryIntHeap() {
+        this(2);
+    }
+
+    /**
+     * Create an empty heap
+     * @param arity Number of children per node, at least 2
+     */
+    public DaryIntHeap(int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Arity must be at least 2: " + arity);
+        }
+        this.arity = arity;
+        this.heap = new int[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Build a binary heap from arbitrary values in O(n)
+     * @param values The values; the array is copied, not modified
+     * @return The new heap
+     */
+    public static DaryIntHeap heapify(int[] values) {
+        return heapify(values, 2);
+    }
+
+    /**
+     * Build a heap from arbitrary values in O(n) by sifting down every
+     * internal node, last first, instead of inserting one value at a time
+     * @param values The values; the array is copied, not modified
+     * @param arity Number of children per node, at least 2
+     * @return The new heap
+     */
+    public static DaryIntHeap heapify(int[] values, int arity) {
+        DaryIntHeap result = new DaryIntHeap(arity);
+        result.heap = Arrays.copyOf(values, Math.max(values.length, DEFAULT_CAPACITY));
+        result.size = values.length;
+        for (int i = (values.length - 2) / arity; i >= 0; i--) {
+            result.siftDown(i, result.heap[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public void insert(int value) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length + (heap.length >> 1));
+        }
+        siftUp(size++, value);
+    }
+
+    @Override
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        return heap[0];
+    }
+
+    @Override
+    public int extract() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        int top = heap[0];
+        int last = heap[--size];
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return top;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+    }
+
+    public int arity() {
+        return arity;
+    }
+
+    /**
+     * @return The values in heap order, i.e. the backing array's live prefix
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(heap, size);
+    }
+
+    // Move the hole at index up until value fits, then store value there
+    private void siftUp(int index, int value) {
+        while (index > 0) {
+            int parent = (index - 1) / arity;
+            if (heap[parent] <= value) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    // Move the hole at index down past every smaller child, then store value there
+    private void siftDown(int index, int value) {
+        while (true) {
+            int first = arity * index + 1;
+            if (first >= size) {
+                break;
+            }
+            int end = Math.min(first + arity, size);
+            int smallest = first;
+            for (int child = first + 1; child < end; child++) {
+                if (heap[child] < heap[smallest]) {
+                    smallest = child;
+                }
+            }
+            if (heap[smallest] >= value) {
+                break;
+            }
+            heap[index] = heap[smallest];
+            index = smallest;
+        }
+        heap[index] = value;
+    }
+}
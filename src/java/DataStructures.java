@@ -7,27 +7,23 @@ public class DataStructures {
          * @param index The position to insert at
          * @param element The element to insert
          * @return A new array with the element inserted
+         * @see IntArrayList#insert(int, int) for in-place, amortized inserts
          */
         public static int[] insertAt(int[] arr, int index, int element) {
             if (index < 0 || index > arr.length) {
                 throw new IndexOutOfBoundsException("Index out of bounds");
             }
+            long start = OperationMetrics.start();
             
             int[] newArr = new int[arr.length + 1];
             
-            // Copy elements before the insertion point
-            for (int i = 0; i < index; i++) {
-                newArr[i] = arr[i];
-            }
-            
-            // Insert the new element
+            // Copy elements before and after the insertion point in bulk
+            System.arraycopy(arr, 0, newArr, 0, index);
             newArr[index] = element;
+            System.arraycopy(arr, index, newArr, index + 1, arr.length - index);
             
-            // Copy elements after the insertion point
-            for (int i = index; i < arr.length; i++) {
-                newArr[i + 1] = arr[i];
-            }
-            
+            OperationMetrics.record(OperationMetrics.Operation.ARRAY_INSERT, start, arr.length - index, 0,
+                OperationMetrics.intArrayBytes(newArr.length));
             return newArr;
         }
 
@@ -36,24 +32,22 @@ public class DataStructures {
          * @param arr The array to delete from
          * @param index The position to delete from
          * @return A new array with the element deleted
+         * @see IntArrayList#removeAt(int) for in-place deletes
          */
         public static int[] deleteAt(int[] arr, int index) {
             if (index < 0 || index >= arr.length) {
                 throw new IndexOutOfBoundsException("Index out of bounds");
             }
+            long start = OperationMetrics.start();
             
             int[] newArr = new int[arr.length - 1];
             
-            // Copy elements before the deletion point
-            for (int i = 0; i < index; i++) {
-                newArr[i] = arr[i];
-            }
-            
-            // Copy elements after the deletion point
-            for (int i = index + 1; i < arr.length; i++) {
-                newArr[i - 1] = arr[i];
-            }
+            // Copy elements before and after the deletion point in bulk
+            System.arraycopy(arr, 0, newArr, 0, index);
+            System.arraycopy(arr, index + 1, newArr, index, arr.length - index - 1);
             
+            OperationMetrics.record(OperationMetrics.Operation.ARRAY_DELETE, start, arr.length - index - 1, 0,
+                OperationMetrics.intArrayBytes(newArr.length));
             return newArr;
         }
 
@@ -64,14 +58,145 @@ public class DataStructures {
          * @return The index of the target value, or -1 if not found
          */
         public static int search(int[] arr, int target) {
+            long start = OperationMetrics.start();
             for (int i = 0; i < arr.length; i++) {
                 if (arr[i] == target) {
+                    OperationMetrics.record(OperationMetrics.Operation.ARRAY_SEARCH, start, 0, i + 1, 0);
                     return i;
                 }
             }
+            OperationMetrics.record(OperationMetrics.Operation.ARRAY_SEARCH, start, 0, arr.length, 0);
             return -1;
         }
 
+        /**
+         * Search for a value, skipping the scan when a filter rules it out
+         * @param arr The array to search in
+         * @param target The value to search for
+         * @param filter A filter holding every value in arr, e.g. BlockedBloomFilter.of(arr, 0.01)
+         * @return The index of the first occurrence, or -1 if not found
+         */
+        public static int search(int[] arr, int target, IntMembershipFilter filter) {
+            long start = OperationMetrics.start();
+            if (!filter.mightContain(target)) {
+                OperationMetrics.record(OperationMetrics.Operation.ARRAY_SEARCH, start, 0, 0, 0);
+                return -1;
+            }
+            return search(arr, target);
+        }
+
+        // Strategies for search(arr, target, mode)
+        public enum SearchMode {
+            // Scalar scan, works on any array
+            LINEAR,
+            // Lane-parallel scan through the Vector API, works on any array
+            VECTOR,
+            // Binary search, array must be sorted ascending
+            BINARY,
+            // Binary search without data-dependent branches, array must be sorted ascending
+            BRANCHLESS,
+            // Interpolation search, array must be sorted ascending; best for uniform keys
+            INTERPOLATION
+        }
+
+        // Below this length a scan beats the setup cost of the other modes
+        private static final int SMALL_ARRAY_LENGTH = 32;
+
+        /**
+         * Search for a value using a specific strategy
+         * @param arr The array to search in
+         * @param target The value to search for
+         * @param mode The search strategy; sorted modes require an ascending array
+         * @return The index of the first occurrence, or -1 if not found
+         */
+        public static int search(int[] arr, int target, SearchMode mode) {
+            switch (mode) {
+                case VECTOR:
+                    return VectorizedSearch.indexOf(arr, target);
+                case BINARY:
+                    return SortedSearch.binary(arr, target);
+                case BRANCHLESS:
+                    return SortedSearch.branchless(arr, target);
+                case INTERPOLATION:
+                    return SortedSearch.interpolation(arr, target);
+                default:
+                    return search(arr, target);
+            }
+        }
+
+        /**
+         * Search for a value in an array sorted in ascending order
+         * @param arr The sorted array to search in
+         * @param target The value to search for
+         * @return The index of the first occurrence, or -1 if not found
+         */
+        public static int searchSorted(int[] arr, int target) {
+            return search(arr, target, selectSearchMode(arr.length, true));
+        }
+
+        /**
+         * Pick a search strategy from the array size and a sortedness hint
+         * @param length The length of the array that will be searched
+         * @param sorted true if the array is sorted in ascending order
+         * @return The mode expected to be fastest for that array
+         */
+        public static SearchMode selectSearchMode(int length, boolean sorted) {
+            if (length <= SMALL_ARRAY_LENGTH) {
+                return SearchMode.LINEAR;
+            }
+            if (sorted) {
+                return SearchMode.BRANCHLESS;
+            }
+            return VectorizedSearch.isAvailable() ? SearchMode.VECTOR : SearchMode.LINEAR;
+        }
+
+        /**
+         * Search for many values in one pass over the array
+         * @param arr The array to search in
+         * @param targets The values to search for
+         * @return For each target, the index of its first occurrence, or -1 if not found
+         * @throws IllegalArgumentException If there are more than 2^29 targets and the array is larger still
+         */
+        public static int[] searchAll(int[] arr, int[] targets) {
+            int[] result = new int[targets.length];
+            if (targets.length == 0) {
+                return result;
+            }
+
+            // Few targets: scan once, probing a small set of targets.
+            // Arrays too large to index also take this path.
+            if ((long) targets.length * 2 <= arr.length || arr.length > FirstIndexTable.MAX_KEYS) {
+                FirstIndexTable found = new FirstIndexTable(targets.length);
+                int remaining = 0;
+                for (int target : targets) {
+                    if (found.putIfAbsent(target, -1)) {
+                        remaining++;
+                    }
+                }
+                for (int i = 0; i < arr.length && remaining > 0; i++) {
+                    int slot = found.slotOf(arr[i]);
+                    if (slot >= 0 && found.valueAt(slot) == -1) {
+                        found.setValueAt(slot, i);
+                        remaining--;
+                    }
+                }
+                for (int j = 0; j < targets.length; j++) {
+                    result[j] = found.get(targets[j]);
+                }
+                return result;
+            }
+
+            // Many targets: index the array once, then answer each target in O(1)
+            FirstIndexTable index = new FirstIndexTable(arr.length);
+            for (int i = 0; i < arr.length; i++) {
+                index.putIfAbsent(arr[i], i);
+            }
+            for (int j = 0; j < targets.length; j++) {
+                result[j] = index.get(targets[j]);
+            }
+            return result;
+        }
+
         /**
          * Update the value at a specific index in the array
          * @param arr The array to update
@@ -80,11 +205,81 @@ public class DataStructures {
          * @return true if update was successful, false otherwise
          */
         public static boolean update(int[] arr, int index, int newValue) {
-            if (index < 0 || index >= arr.length) {
-                return false;
+            long start = OperationMetrics.start();
+            boolean updated = index >= 0 && index < arr.length;
+            if (updated) {
+                arr[index] = newValue;
+            }
+            OperationMetrics.record(OperationMetrics.Operation.ARRAY_UPDATE, start, 0, updated ? 1 : 0, 0);
+            return updated;
+        }
+
+        // Transient open-addressing map from int keys to int values, used by searchAll
+        private static final class FirstIndexTable {
+            private final int[] keys;
+            private final int[] values;
+            private final boolean[] used;
+            private final int mask;
+            // Largest key count whose table of twice the size fits in an array
+            static final int MAX_KEYS = 1 << 29;
+
+            FirstIndexTable(int expectedSize) {
+                if (expectedSize > MAX_KEYS) {
+                    throw new IllegalArgumentException(
+                        "Too many keys for one table: " + expectedSize + " (maximum " + MAX_KEYS + ")");
+                }
+                // Power of two with load factor at most 0.5
+                int capacity = Integer.highestOneBit(Math.max(expectedSize, 2) * 2 - 1) << 1;
+                this.keys = new int[capacity];
+                this.values = new int[capacity];
+                this.used = new boolean[capacity];
+                this.mask = capacity - 1;
+            }
+
+            private int home(int key) {
+                int h = key * 0x9E3779B9;
+                return (h ^ (h >>> 16)) & mask;
+            }
+
+            // Returns true if the key was added, false if it was already present
+            boolean putIfAbsent(int key, int value) {
+                int slot = home(key);
+                while (used[slot]) {
+                    if (keys[slot] == key) {
+                        return false;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                used[slot] = true;
+                keys[slot] = key;
+                values[slot] = value;
+                return true;
+            }
+
+            // Returns the slot holding the key, or -1 if absent
+            int slotOf(int key) {
+                int slot = home(key);
+                while (used[slot]) {
+                    if (keys[slot] == key) {
+                        return slot;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                return -1;
+            }
+
+            int valueAt(int slot) {
+                return values[slot];
+            }
+
+            void setValueAt(int slot, int value) {
+                values[slot] = value;
+            }
+
+            int get(int key) {
+                int slot = slotOf(key);
+                return slot >= 0 ? values[slot] : -1;
             }
-            arr[index] = newValue;
-            return true;
         }
     }
 
@@ -109,17 +304,21 @@ public class DataStructures {
          * @return The new head of the linked list
          */
         public static Node insertNode(Node head, int value, int position) {
+            long start = OperationMetrics.start();
             Node newNode = new Node(value);
 
             // Insert at beginning
             if (position == 0) {
                 newNode.next = head;
+                OperationMetrics.record(OperationMetrics.Operation.LIST_INSERT, start, 0, 0,
+                    OperationMetrics.LIST_NODE_BYTES);
                 return newNode;
             }
 
             // Traverse to insertion point
             Node current = head;
-            for (int i = 0; i < position - 1 && current != null; i++) {
+            int traversed = 0;
+            for (; traversed < position - 1 && current != null; traversed++) {
                 current = current.next;
             }
 
@@ -128,6 +327,8 @@ public class DataStructures {
                 current.next = newNode;
             }
 
+            OperationMetrics.record(OperationMetrics.Operation.LIST_INSERT, start, 0, traversed,
+                OperationMetrics.LIST_NODE_BYTES);
             return head;
         }
 
@@ -142,14 +343,18 @@ public class DataStructures {
                 return null;
             }
 
+            long start = OperationMetrics.start();
+
             // Delete first node
             if (position == 0) {
+                OperationMetrics.record(OperationMetrics.Operation.LIST_DELETE, start, 0, 0, 0);
                 return head.next;
             }
 
             // Traverse to node before deletion point
             Node current = head;
-            for (int i = 0; i < position - 1 && current.next != null; i++) {
+            int traversed = 0;
+            for (; traversed < position - 1 && current.next != null; traversed++) {
                 current = current.next;
             }
 
@@ -158,6 +363,7 @@ public class DataStructures {
                 current.next = current.next.next;
             }
 
+            OperationMetrics.record(OperationMetrics.Operation.LIST_DELETE, start, 0, traversed, 0);
             return head;
         }
 
@@ -168,20 +374,39 @@ public class DataStructures {
          * @return The position of the value, or -1 if not found
          */
         public static int searchNode(Node head, int value) {
+            long start = OperationMetrics.start();
             Node current = head;
             int position = 0;
 
             while (current != null) {
                 if (current.value == value) {
+                    OperationMetrics.record(OperationMetrics.Operation.LIST_SEARCH, start, 0, position + 1, 0);
                     return position;
                 }
                 current = current.next;
                 position++;
             }
 
+            OperationMetrics.record(OperationMetrics.Operation.LIST_SEARCH, start, 0, position, 0);
             return -1;
         }
 
+        /**
+         * Search for a value in the linked list, skipping the walk when a filter rules it out
+         * @param head The head of the linked list
+         * @param value The value to search for
+         * @param filter A filter holding every value in the list, e.g. XorFilter.of(head)
+         * @return The position of the value, or -1 if not found
+         */
+        public static int searchNode(Node head, int value, IntMembershipFilter filter) {
+            long start = OperationMetrics.start();
+            if (!filter.mightContain(value)) {
+                OperationMetrics.record(OperationMetrics.Operation.LIST_SEARCH, start, 0, 0, 0);
+                return -1;
+            }
+            return searchNode(head, value);
+        }
+
         /**
          * Update the value of a node at a specific position
          * @param head The head of the linked list
@@ -190,20 +415,130 @@ public class DataStructures {
          * @return true if update was successful, false otherwise
          */
         public static boolean updateNode(Node head, int position, int newValue) {
+            long start = OperationMetrics.start();
             Node current = head;
 
             // Traverse to the node
-            for (int i = 0; i < position && current != null; i++) {
+            int traversed = 0;
+            for (; traversed < position && current != null; traversed++) {
                 current = current.next;
             }
 
             // Update value if node exists
-            if (current != null) {
+            boolean updated = current != null;
+            if (updated) {
                 current.value = newValue;
-                return true;
             }
 
-            return false;
+            OperationMetrics.record(OperationMetrics.Operation.LIST_UPDATE, start, 0, traversed, 0);
+            return updated;
+        }
+    }
+
+    // Persistent Linked List Operations
+    /**
+     * Linked list operations that never modify an existing node. Each one
+     * copies the nodes in front of the position and shares the rest with the
+     * original list, so every earlier head stays a valid, unchanged version.
+     * Copying the prefix makes an edit cost O(position) time and memory,
+     * which is the best a singly linked list can do: an edit at the front is
+     * O(1). For O(log n) edits anywhere, use PersistentIntVector.
+     *
+     * <p>Shared nodes must not be changed afterwards with LinkedListOperations,
+     * since that would change every version that shares them.
+     */
+    public static class PersistentListOperations {
+        /**
+         * Insert a value at a specific position, leaving the original list unchanged
+         * @param head The head of the linked list
+         * @param value The value to insert
+         * @param position The position to insert at
+         * @return The head of the new version, or head itself if position is past the end
+         */
+        public static LinkedListOperations.Node insertNode(LinkedListOperations.Node head, int value, int position) {
+            if (position < 0 || length(head, position) < position) {
+                return head;
+            }
+            LinkedListOperations.Node newNode = new LinkedListOperations.Node(value);
+            newNode.next = nodeAt(head, position);
+            return copyPrefix(head, position, newNode);
+        }
+
+        /**
+         * Delete the node at a specific position, leaving the original list unchanged
+         * @param head The head of the linked list
+         * @param position The position to delete from
+         * @return The head of the new version, or head itself if position is past the end
+         */
+        public static LinkedListOperations.Node deleteNode(LinkedListOperations.Node head, int position) {
+            LinkedListOperations.Node at = nodeAt(head, position);
+            if (at == null) {
+                return head;
+            }
+            return copyPrefix(head, position, at.next);
+        }
+
+        /**
+         * Search for a value in the linked list
+         * @param head The head of the linked list
+         * @param value The value to search for
+         * @return The position of the value, or -1 if not found
+         */
+        public static int searchNode(LinkedListOperations.Node head, int value) {
+            return LinkedListOperations.searchNode(head, value);
+        }
+
+        /**
+         * Update the value at a specific position, leaving the original list unchanged
+         * @param head The head of the linked list
+         * @param position The position to update
+         * @param newValue The new value
+         * @return The head of the new version, or head itself if position is past the end
+         */
+        public static LinkedListOperations.Node updateNode(LinkedListOperations.Node head, int position,
+                int newValue) {
+            LinkedListOperations.Node at = nodeAt(head, position);
+            if (at == null) {
+                return head;
+            }
+            LinkedListOperations.Node newNode = new LinkedListOperations.Node(newValue);
+            newNode.next = at.next;
+            return copyPrefix(head, position, newNode);
+        }
+
+        // Node at position, or null if the list is shorter
+        private static LinkedListOperations.Node nodeAt(LinkedListOperations.Node head, int position) {
+            LinkedListOperations.Node current = head;
+            for (int i = 0; i < position && current != null; i++) {
+                current = current.next;
+            }
+            return position < 0 ? null : current;
+        }
+
+        // Number of nodes, counting no further than limit
+        private static int length(LinkedListOperations.Node head, int limit) {
+            int length = 0;
+            for (LinkedListOperations.Node current = head; current != null && length < limit; current = current.next) {
+                length++;
+            }
+            return length;
+        }
+
+        // Copies of the first count nodes, followed by tail
+        private static LinkedListOperations.Node copyPrefix(LinkedListOperations.Node head, int count,
+                LinkedListOperations.Node tail) {
+            if (count == 0) {
+                return tail;
+            }
+            LinkedListOperations.Node newHead = new LinkedListOperations.Node(head.value);
+            LinkedListOperations.Node last = newHead;
+            for (int i = 1; i < count; i++) {
+                head = head.next;
+                last.next = new LinkedListOperations.Node(head.value);
+                last = last.next;
+            }
+            last.next = tail;
+            return newHead;
         }
     }
 
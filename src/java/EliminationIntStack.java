@@ -0,0 +1,123 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free stack of ints: a Treiber stack, i.e. a linked list whose top is
+ * swung with compare-and-set, with an elimination array for backoff. When a
+ * CAS on the top fails because other threads are hammering it, the thread
+ * goes to a random slot of the elimination array instead of retrying at
+ * once. A push waiting there and a pop arriving there cancel out without
+ * touching the top at all: the pop takes the pushed value, which is legal
+ * since a push followed immediately by a pop leaves the stack unchanged.
+ * Under contention most operations pair off this way in parallel, so
+ * throughput keeps up with thread count instead of serializing on one word.
+ */
+public class EliminationIntStack {
+    private static final VarHandle TOP;
+
+    static {
+        try {
+            TOP = MethodHandles.lookup().findVarHandle(EliminationIntStack.class, "top", Node.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Spin iterations a push waits in the elimination array for a pop
+    private static final int ELIMINATION_SPINS = 128;
+
+    private static final class Node {
+        final int value;
+        Node next;
+
+        Node(int value) {
+            this.value = value;
+        }
+    }
+
+    private volatile Node top;
+    // Each slot holds a push waiting to be taken by a pop, or null
+    private final AtomicReferenceArray<Node> elimination;
+
+    /**
+     * Create a stack with an elimination array sized for the machine
+     */
+    public EliminationIntStack() {
+        this(Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() / 2, 32)));
+    }
+
+    /**
+     * @param eliminationSlots Number of elimination slots; about half the number
+     *                         of threads that contend is a good choice
+     */
+    public EliminationIntStack(int eliminationSlots) {
+        if (eliminationSlots < 1) {
+            throw new IllegalArgumentException("Need at least one elimination slot: " + eliminationSlots);
+        }
+        this.elimination = new AtomicReferenceArray<>(eliminationSlots);
+    }
+
+    /**
+     * Push a value onto the stack
+     * @param value The value to push
+     */
+    public void push(int value) {
+        Node node = new Node(value);
+        while (true) {
+            Node current = top;
+            node.next = current;
+            if (TOP.compareAndSet(this, current, node)) {
+                return;
+            }
+            // Contention: offer the node to a pop instead of retrying straight away
+            int slot = ThreadLocalRandom.current().nextInt(elimination.length());
+            if (elimination.compareAndSet(slot, null, node)) {
+                for (int spin = 0; spin < ELIMINATION_SPINS && elimination.get(slot) == node; spin++) {
+                    Thread.onSpinWait();
+                }
+                // Withdrawing fails only if a pop took the node in the meantime
+                if (!elimination.compareAndSet(slot, node, null)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Pop the value on top of the stack
+     * @param valueIfEmpty Returned if the stack is empty
+     * @return The value popped, or valueIfEmpty
+     */
+    public int pop(int valueIfEmpty) {
+        while (true) {
+            Node current = top;
+            if (current == null) {
+                return valueIfEmpty;
+            }
+            if (TOP.compareAndSet(this, current, current.next)) {
+                return current.value;
+            }
+            // Contention: look for a push waiting in a random slot
+            int slot = ThreadLocalRandom.current().nextInt(elimination.length());
+            Node waiting = elimination.get(slot);
+            if (waiting != null && elimination.compareAndSet(slot, waiting, null)) {
+                return waiting.value;
+            }
+        }
+    }
+
+    /**
+     * @param valueIfEmpty Returned if the stack is empty
+     * @return The value on top of the stack, without removing it
+     */
+    public int peek(int valueIfEmpty) {
+        Node current = top;
+        return current == null ? valueIfEmpty : current.value;
+    }
+
+    public boolean isEmpty() {
+        return top == null;
+    }
+}
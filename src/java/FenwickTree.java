@@ -0,0 +1,147 @@
+/**
+ * Fenwick (binary indexed) tree over an int array: prefix and range sums,
+ * point updates and range additions, each in O(log n) with two long arrays
+ * of n + 1 entries and no pointers.
+ *
+ * <p>Range additions use the two-tree form: one tree holds the added
+ * deltas d and the other d * (start - 1), so the sum of the first i values
+ * is {@code i * prefix(deltas, i) - prefix(weighted, i)}. Ranges are
+ * half-open, {@code [fromIndex, toIndex)}.
+ */
+public class FenwickTree {
+    private final int size;
+    // 1-based trees; entry i covers the i & -i positions ending at i
+    private final long[] deltas;
+    private final long[] weighted;
+
+    /**
+     * Create a tree of zeros
+     * @param size Number of values
+     */
+    public FenwickTree(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Illegal size: " + size);
+        }
+        this.size = size;
+        this.deltas = new long[size + 1];
+        this.weighted = new long[size + 1];
+    }
+
+    /**
+     * Build a tree holding the values of an array in O(n)
+     * @param arr The initial values; the array is not modified
+     * @return The tree
+     */
+    public static FenwickTree of(int[] arr) {
+        FenwickTree tree = new FenwickTree(arr.length);
+        long previous = 0;
+        for (int i = 1; i <= arr.length; i++) {
+            long delta = arr[i - 1] - previous;
+            previous = arr[i - 1];
+            tree.deltas[i] += delta;
+            tree.weighted[i] += delta * (i - 1);
+            // Each entry is final once reached, so pass it on to its parent
+            int parent = i + (i & -i);
+            if (parent <= arr.length) {
+                tree.deltas[parent] += tree.deltas[i];
+                tree.weighted[parent] += tree.weighted[i];
+            }
+        }
+        return tree;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index The position to read
+     * @return The current value at that position
+     */
+    public long get(int index) {
+        checkIndex(index);
+        return prefixSum(index + 1) - prefixSum(index);
+    }
+
+    /**
+     * Replace one value
+     * @param index The position to write
+     * @param value The new value
+     */
+    public void set(int index, long value) {
+        add(index, value - get(index));
+    }
+
+    /**
+     * Add delta to one value
+     * @param index The position to change
+     * @param delta The amount to add
+     */
+    public void add(int index, long delta) {
+        checkIndex(index);
+        addRange(index, index + 1, delta);
+    }
+
+    /**
+     * Add delta to every value in {@code [fromIndex, toIndex)}
+     * @param fromIndex First index, inclusive
+     * @param toIndex Last index, exclusive
+     * @param delta The amount to add
+     */
+    public void addRange(int fromIndex, int toIndex, long delta) {
+        checkRange(fromIndex, toIndex);
+        if (fromIndex == toIndex) {
+            return;
+        }
+        update(fromIndex + 1, delta, delta * fromIndex);
+        update(toIndex + 1, -delta, -delta * toIndex);
+    }
+
+    /**
+     * @param count Number of leading values to add up
+     * @return Sum of the values at indices {@code [0, count)}
+     */
+    public long prefixSum(int count) {
+        if (count < 0 || count > size) {
+            throw new IndexOutOfBoundsException("Index " + count + " out of bounds for size " + size);
+        }
+        long plain = 0;
+        long correction = 0;
+        for (int i = count; i > 0; i -= i & -i) {
+            plain += deltas[i];
+            correction += weighted[i];
+        }
+        return plain * count - correction;
+    }
+
+    /**
+     * @param fromIndex First index, inclusive
+     * @param toIndex Last index, exclusive
+     * @return Sum of the values in the range
+     */
+    public long sum(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        return prefixSum(toIndex) - prefixSum(fromIndex);
+    }
+
+    // Add to both trees at a 1-based position; positions past the end are dropped
+    private void update(int position, long delta, long weightedDelta) {
+        for (int i = position; i <= size; i += i & -i) {
+            deltas[i] += delta;
+            weighted[i] += weightedDelta;
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    private void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException(
+                "Range [" + fromIndex + ", " + toIndex + ") out of bounds for size " + size);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/**
+ * Segment tree laid out as flat arrays and walked bottom-up without
+ * recursion. Leaves sit at {@code capacity + index}, where capacity is the
+ * size rounded up to a power of two, and node p's parent is p / 2, so a
+ * range is split into O(log n) nodes by climbing from both ends at once
+ * with shifts. Padding leaves past the size hold sentinels that no range
+ * ever includes.
+ *
+ * <p>Range additions are lazy as in SegmentTree, but node p's pending
+ * addition is included in p's own aggregates when they are recomputed, so
+ * an addition needs no pushes; a query first pushes the additions pending
+ * above its two end leaves.
+ */
+public class FlatSegmentTree implements IntRangeTree {
+    private final int size;
+    private final int capacity;
+    // log2(capacity): number of levels above the leaves
+    private final int height;
+    private final long[] sums;
+    private final long[] mins;
+    private final long[] maxs;
+    // Addition already applied to internal node p but not yet to its children
+    private final long[] pending;
+
+    /**
+     * Create a tree of zeros
+     * @param size Number of values
+     */
+    public FlatSegmentTree(int size) {
+        this(new int[size]);
+    }
+
+    private FlatSegmentTree(int[] arr) {
+        if (arr.length > 1 << 30) {
+            throw new IllegalArgumentException("Illegal size: " + arr.length);
+        }
+        this.size = arr.length;
+        this.capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        this.height = Integer.numberOfTrailingZeros(capacity);
+        this.sums = new long[2 * capacity];
+        this.mins = new long[2 * capacity];
+        this.maxs = new long[2 * capacity];
+        this.pending = new long[capacity];
+        for (int i = 0; i < capacity; i++) {
+            int leaf = capacity + i;
+            if (i < size) {
+                sums[leaf] = arr[i];
+                mins[leaf] = arr[i];
+                maxs[leaf] = arr[i];
+            } else {
+                mins[leaf] = Long.MAX_VALUE;
+                maxs[leaf] = Long.MIN_VALUE;
+            }
+        }
+        for (int p = capacity - 1; p > 0; p--) {
+            pull(p, capacity >>> (31 - Integer.numberOfLeadingZeros(p)));
+        }
+    }
+
+    /**
+     * Build a tree holding the values of an array in O(n)
+     * @param arr The initial values; the array is not modified
+     * @return The tree
+     */
+    public static FlatSegmentTree of(int[] arr) {
+        return new FlatSegmentTree(arr);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long get(int index) {
+        checkIndex(index);
+        // The leaf plus every addition still pending above it
+        int p = capacity + index;
+        long value = sums[p];
+        for (p >>= 1; p > 0; p >>= 1) {
+            value += pending[p];
+        }
+        return value;
+    }
+
+    @Override
+    public void set(int index, long value) {
+        checkIndex(index);
+        int leaf = capacity + index;
+        push(leaf);
+        sums[leaf] = value;
+        mins[leaf] = value;
+        maxs[leaf] = value;
+        rebuild(leaf);
+    }
+
+    @Override
+    public void addRange(int fromIndex, int toIndex, long delta) {
+        checkRange(fromIndex, toIndex);
+        if (fromIndex == toIndex || delta == 0) {
+            return;
+        }
+        int lo = fromIndex + capacity;
+        int hi = toIndex + capacity;
+        for (int l = lo, r = hi, length = 1; l < r; l >>= 1, r >>= 1, length <<= 1) {
+            if ((l & 1) != 0) {
+                apply(l++, length, delta);
+            }
+            if ((r & 1) != 0) {
+                apply(--r, length, delta);
+            }
+        }
+        rebuild(lo);
+        rebuild(hi - 1);
+    }
+
+    @Override
+    public long sum(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        if (fromIndex == toIndex) {
+            return 0;
+        }
+        int l = fromIndex + capacity;
+        int r = toIndex + capacity;
+        push(l);
+        push(r - 1);
+        long sum = 0;
+        for (; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) != 0) {
+                sum += sums[l++];
+            }
+            if ((r & 1) != 0) {
+                sum += sums[--r];
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public long min(int fromIndex, int toIndex) {
+        checkNonEmptyRange(fromIndex, toIndex);
+        int l = fromIndex + capacity;
+        int r = toIndex + capacity;
+        push(l);
+        push(r - 1);
+        long min = Long.MAX_VALUE;
+        for (; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) != 0) {
+                min = Math.min(min, mins[l++]);
+            }
+            if ((r & 1) != 0) {
+                min = Math.min(min, mins[--r]);
+            }
+        }
+        return min;
+    }
+
+    @Override
+    public long max(int fromIndex, int toIndex) {
+        checkNonEmptyRange(fromIndex, toIndex);
+        int l = fromIndex + capacity;
+        int r = toIndex + capacity;
+        push(l);
+        push(r - 1);
+        long max = Long.MIN_VALUE;
+        for (; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) != 0) {
+                max = Math.max(max, maxs[l++]);
+            }
+            if ((r & 1) != 0) {
+                max = Math.max(max, maxs[--r]);
+            }
+        }
+        return max;
+    }
+
+    // Number of real (non-padding) leaves under node p, whose range is length leaves wide
+    private int count(int p, int length) {
+        long first = (long) p * length - capacity;
+        return (int) Math.max(0, Math.min(length, size - first));
+    }
+
+    // Add delta to node p; nodes over padding alone are skipped so their sentinels stay intact
+    private void apply(int p, int length, long delta) {
+        int count = count(p, length);
+        if (count == 0) {
+            return;
+        }
+        sums[p] += delta * count;
+        mins[p] += delta;
+        maxs[p] += delta;
+        if (p < capacity) {
+            pending[p] += delta;
+        }
+    }
+
+    // Recompute internal node p from its children and its own pending addition
+    private void pull(int p, int length) {
+        long delta = pending[p];
+        sums[p] = sums[2 * p] + sums[2 * p + 1] + delta * count(p, length);
+        mins[p] = Math.min(mins[2 * p], mins[2 * p + 1]) + delta;
+        maxs[p] = Math.max(maxs[2 * p], maxs[2 * p + 1]) + delta;
+    }
+
+    // Recompute every ancestor of a leaf, bottom-up
+    private void rebuild(int leaf) {
+        for (int p = leaf >> 1, length = 2; p > 0; p >>= 1, length <<= 1) {
+            pull(p, length);
+        }
+    }
+
+    // Pass down every addition pending above a leaf, top-down
+    private void push(int leaf) {
+        for (int level = height; level > 0; level--) {
+            int p = leaf >> level;
+            long delta = pending[p];
+            if (delta != 0) {
+                int childLength = 1 << (level - 1);
+                apply(2 * p, childLength, delta);
+                apply(2 * p + 1, childLength, delta);
+                pending[p] = 0;
+            }
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    private void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException(
+                "Range [" + fromIndex + ", " + toIndex + ") out of bounds for size " + size);
+        }
+    }
+
+    private void checkNonEmptyRange(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        if (fromIndex == toIndex) {
+            throw new IllegalArgumentException("Empty range [" + fromIndex + ", " + toIndex + ")");
+        }
+    }
+}
@@ -0,0 +1,159 @@
+import java.util.Arrays;
+
+/**
+ * Int sequence stored as a gap buffer: one array with a movable hole at the
+ * last edit position. Inserts and deletes at the gap are O(1); moving the gap
+ * costs only the distance it travels, so edits clustered around a cursor are
+ * O(1) amortized instead of the O(n) copy of {@code ArrayOperations.insertAt}.
+ */
+public class GapIntBuffer {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] buffer;
+    // Elements live in [0, gapStart) and [gapEnd, buffer.length)
+    private int gapStart;
+    private int gapEnd;
+
+    public GapIntBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public GapIntBuffer(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        this.buffer = new int[Math.max(initialCapacity, 1)];
+        this.gapStart = 0;
+        this.gapEnd = buffer.length;
+    }
+
+    /**
+     * Create a buffer holding a copy of the given array, with the gap at the end
+     * @param values The initial contents
+     */
+    public GapIntBuffer(int[] values) {
+        this.buffer = Arrays.copyOf(values, Math.max(values.length * 2, DEFAULT_CAPACITY));
+        this.gapStart = values.length;
+        this.gapEnd = buffer.length;
+    }
+
+    public int size() {
+        return buffer.length - (gapEnd - gapStart);
+    }
+
+    /**
+     * Insert an element at a specific index
+     * @param index The position to insert at
+     * @param element The element to insert
+     */
+    public void insertAt(int index, int element) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        if (gapStart == gapEnd) {
+            grow();
+        }
+        moveGap(index);
+        buffer[gapStart++] = element;
+    }
+
+    /**
+     * Delete the element at a specific index
+     * @param index The position to delete from
+     * @return The deleted element
+     */
+    public int deleteAt(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        moveGap(index);
+        return buffer[gapEnd++];
+    }
+
+    /**
+     * Search for a value in the buffer
+     * @param target The value to search for
+     * @return The index of the first occurrence, or -1 if not found
+     */
+    public int search(int target) {
+        for (int i = 0; i < gapStart; i++) {
+            if (buffer[i] == target) {
+                return i;
+            }
+        }
+        int shift = gapEnd - gapStart;
+        for (int i = gapEnd; i < buffer.length; i++) {
+            if (buffer[i] == target) {
+                return i - shift;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Update the value at a specific index
+     * @param index The position to update
+     * @param newValue The new value
+     * @return true if update was successful, false otherwise
+     */
+    public boolean update(int index, int newValue) {
+        if (index < 0 || index >= size()) {
+            return false;
+        }
+        buffer[physicalIndex(index)] = newValue;
+        return true;
+    }
+
+    /**
+     * Get the element at a specific index
+     * @param index The position to read
+     * @return The element at that position
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        return buffer[physicalIndex(index)];
+    }
+
+    /**
+     * @return A copy of the contents without the gap
+     */
+    public int[] toArray() {
+        int[] result = new int[size()];
+        System.arraycopy(buffer, 0, result, 0, gapStart);
+        System.arraycopy(buffer, gapEnd, result, gapStart, buffer.length - gapEnd);
+        return result;
+    }
+
+    private int physicalIndex(int index) {
+        return index < gapStart ? index : index + (gapEnd - gapStart);
+    }
+
+    // Slide the gap so that it starts at the given logical index
+    private void moveGap(int index) {
+        if (index < gapStart) {
+            int count = gapStart - index;
+            System.arraycopy(buffer, index, buffer, gapEnd - count, count);
+            gapStart -= count;
+            gapEnd -= count;
+        } else if (index > gapStart) {
+            int count = index - gapStart;
+            System.arraycopy(buffer, gapEnd, buffer, gapStart, count);
+            gapStart += count;
+            gapEnd += count;
+        }
+    }
+
+    // Double the buffer, keeping the gap where it is
+    private void grow() {
+        int oldLength = buffer.length;
+        int newLength = Math.max(oldLength * 2, DEFAULT_CAPACITY);
+        int[] newBuffer = new int[newLength];
+        int tail = oldLength - gapEnd;
+        System.arraycopy(buffer, 0, newBuffer, 0, gapStart);
+        System.arraycopy(buffer, gapEnd, newBuffer, newLength - tail, tail);
+        buffer = newBuffer;
+        gapEnd = newLength - tail;
+    }
+}
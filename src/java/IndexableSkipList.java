@@ -0,0 +1,203 @@
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Positional list of ints built on an indexable skip list. Every express-lane
+ * link records how many positions it spans, so locating a position takes
+ * O(log n) expected hops instead of walking from the head. Positional
+ * operations mirror {@code DataStructures.LinkedListOperations}.
+ */
+public class IndexableSkipList implements Iterable<Integer> {
+    private static final int MAX_LEVEL = 32;
+
+    private static final class Node {
+        int value;
+        final Node[] next;
+        // width[l]: positions from this node to next[l], or to the end of the list if next[l] is null
+        final int[] width;
+
+        Node(int value, int level) {
+            this.value = value;
+            this.next = new Node[level];
+            this.width = new int[level];
+        }
+    }
+
+    // Sentinel at position -1
+    private final Node head = new Node(0, MAX_LEVEL);
+    // Number of levels in use
+    private int levels = 1;
+    private int size;
+    private int seed = 0x2545F491;
+
+    public IndexableSkipList() {
+        head.width[0] = 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Insert a value at a specific position
+     * @param value The value to insert
+     * @param position The position to insert at
+     * @return true if inserted, false if the position is past the end
+     */
+    public boolean insertNode(int value, int position) {
+        if (position < 0 || position > size) {
+            return false;
+        }
+        int level = randomLevel();
+        if (level > levels) {
+            // New lanes start out spanning head to end of list
+            for (int l = levels; l < level; l++) {
+                head.next[l] = null;
+                head.width[l] = size + 1;
+            }
+            levels = level;
+        }
+
+        Node node = new Node(value, level);
+        Node current = head;
+        int currentPosition = -1;
+        for (int l = levels - 1; l >= 0; l--) {
+            // Stop at the last node before the insertion point
+            while (current.next[l] != null && currentPosition + current.width[l] < position) {
+                currentPosition += current.width[l];
+                current = current.next[l];
+            }
+            if (l < level) {
+                node.next[l] = current.next[l];
+                node.width[l] = currentPosition + current.width[l] + 1 - position;
+                current.next[l] = node;
+                current.width[l] = position - currentPosition;
+            } else {
+                current.width[l]++;
+            }
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Delete the value at a specific position
+     * @param position The position to delete from
+     * @return true if deleted, false if there is no such position
+     */
+    public boolean deleteNode(int position) {
+        if (position < 0 || position >= size) {
+            return false;
+        }
+        Node current = head;
+        int currentPosition = -1;
+        for (int l = levels - 1; l >= 0; l--) {
+            while (current.next[l] != null && currentPosition + current.width[l] < position) {
+                currentPosition += current.width[l];
+                current = current.next[l];
+            }
+            Node candidate = current.next[l];
+            if (candidate != null && currentPosition + current.width[l] == position) {
+                current.width[l] += candidate.width[l] - 1;
+                current.next[l] = candidate.next[l];
+            } else {
+                current.width[l]--;
+            }
+        }
+        while (levels > 1 && head.next[levels - 1] == null) {
+            levels--;
+        }
+        size--;
+        return true;
+    }
+
+    /**
+     * Search for a value in the list
+     * @param value The value to search for
+     * @return The position of the value, or -1 if not found
+     */
+    public int searchNode(int value) {
+        int position = 0;
+        for (Node node = head.next[0]; node != null; node = node.next[0]) {
+            if (node.value == value) {
+                return position;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    /**
+     * Update the value at a specific position
+     * @param position The position to update
+     * @param newValue The new value
+     * @return true if update was successful, false otherwise
+     */
+    public boolean updateNode(int position, int newValue) {
+        if (position < 0 || position >= size) {
+            return false;
+        }
+        nodeAt(position).value = newValue;
+        return true;
+    }
+
+    /**
+     * Get the value at a specific position
+     * @param position The position to read
+     * @return The value at that position
+     */
+    public int get(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of bounds for size " + size);
+        }
+        return nodeAt(position).value;
+    }
+
+    /**
+     * @return An iterator over the values in list order
+     */
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private Node node = head.next[0];
+
+            @Override
+            public boolean hasNext() {
+                return node != null;
+            }
+
+            @Override
+            public int nextInt() {
+                if (node == null) {
+                    throw new NoSuchElementException();
+                }
+                int value = node.value;
+                node = node.next[0];
+                return value;
+            }
+        };
+    }
+
+    private Node nodeAt(int position) {
+        Node current = head;
+        int currentPosition = -1;
+        for (int l = levels - 1; l >= 0; l--) {
+            while (current.next[l] != null && currentPosition + current.width[l] <= position) {
+                currentPosition += current.width[l];
+                current = current.next[l];
+            }
+        }
+        return current;
+    }
+
+    // Geometric level distribution with p = 1/4
+    private int randomLevel() {
+        int x = seed;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        seed = x;
+        int level = 1 + Integer.numberOfTrailingZeros(x | (1 << 30)) / 2;
+        return Math.min(level, MAX_LEVEL);
+    }
+}
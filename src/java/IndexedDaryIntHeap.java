@@ -0,0 +1,210 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * D-ary min-heap of ids in {@code [0, capacity)} ordered by int priorities,
+ * with an index map from id to heap slot so {@link #decreaseKey} finds its
+ * entry in O(1) and fixes the heap in O(log n). This is the queue Dijkstra
+ * and Prim need; without the index map they must insert duplicates and skip
+ * stale entries.
+ */
+public class IndexedDaryIntHeap {
+    private final int arity;
+    // heap[slot] = id; position[id] = slot, or -1 if absent
+    private final int[] heap;
+    private final int[] position;
+    private final int[] priority;
+    private int size;
+
+    /**
+     * Create an empty 4-ary heap
+     * @param capacity Ids range over [0, capacity)
+     */
+    public IndexedDaryIntHeap(int capacity) {
+        this(capacity, 4);
+    }
+
+    /**
+     * Create an empty heap
+     * @param capacity Ids range over [0, capacity)
+     * @param arity Number of children per node, at least 2
+     */
+    public IndexedDaryIntHeap(int capacity, int arity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        if (arity < 2) {
+            throw new IllegalArgumentException("Arity must be at least 2: " + arity);
+        }
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.priority = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Insert an id that is not yet in the heap
+     * @param id The id to insert
+     * @param priority Its priority; smaller comes out first
+     * @throws IllegalArgumentException If the id is already present
+     */
+    public void insert(int id, int priority) {
+        checkId(id);
+        if (position[id] >= 0) {
+            throw new IllegalArgumentException("Id " + id + " is already in the heap");
+        }
+        this.priority[id] = priority;
+        siftUp(size++, id);
+    }
+
+    /**
+     * Lower the priority of an id in the heap
+     * @param id The id to update
+     * @param priority The new priority, no larger than the current one
+     * @throws IllegalArgumentException If the id is absent or the priority would increase
+     */
+    public void decreaseKey(int id, int priority) {
+        checkId(id);
+        if (position[id] < 0) {
+            throw new IllegalArgumentException("Id " + id + " is not in the heap");
+        }
+        if (priority > this.priority[id]) {
+            throw new IllegalArgumentException(
+                "New priority " + priority + " is larger than current " + this.priority[id]);
+        }
+        this.priority[id] = priority;
+        siftUp(position[id], id);
+    }
+
+    /**
+     * Insert an id, or lower its priority if it is present with a larger one
+     * @param id The id to insert or update
+     * @param priority The priority to offer
+     * @return true if the heap changed
+     */
+    public boolean insertOrDecrease(int id, int priority) {
+        checkId(id);
+        if (position[id] < 0) {
+            insert(id, priority);
+            return true;
+        }
+        if (priority < this.priority[id]) {
+            decreaseKey(id, priority);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return The id with the smallest priority, without removing it
+     * @throws NoSuchElementException If the heap is empty
+     */
+    public int peekId() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Remove the id with the smallest priority
+     * @return The id removed; {@link #priorityOf} still reports its last priority
+     * @throws NoSuchElementException If the heap is empty
+     */
+    public int extractId() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        int top = heap[0];
+        position[top] = -1;
+        int last = heap[--size];
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return top;
+    }
+
+    /**
+     * @param id An id in [0, capacity)
+     * @return true if the id is in the heap
+     */
+    public boolean contains(int id) {
+        checkId(id);
+        return position[id] >= 0;
+    }
+
+    /**
+     * @param id An id in [0, capacity)
+     * @return The id's current priority, or the last one it had if it has been extracted
+     */
+    public int priorityOf(int id) {
+        checkId(id);
+        return priority[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void checkId(int id) {
+        if (id < 0 || id >= position.length) {
+            throw new IndexOutOfBoundsException("Id " + id + " out of bounds for capacity " + position.length);
+        }
+    }
+
+    private void place(int slot, int id) {
+        heap[slot] = id;
+        position[id] = slot;
+    }
+
+    private void siftUp(int slot, int id) {
+        int key = priority[id];
+        while (slot > 0) {
+            int parent = (slot - 1) / arity;
+            if (priority[heap[parent]] <= key) {
+                break;
+            }
+            place(slot, heap[parent]);
+            slot = parent;
+        }
+        place(slot, id);
+    }
+
+    private void siftDown(int slot, int id) {
+        int key = priority[id];
+        while (true) {
+            int first = arity * slot + 1;
+            if (first >= size) {
+                break;
+            }
+            int end = Math.min(first + arity, size);
+            int smallest = first;
+            int smallestKey = priority[heap[first]];
+            for (int child = first + 1; child < end; child++) {
+                int childKey = priority[heap[child]];
+                if (childKey < smallestKey) {
+                    smallest = child;
+                    smallestKey = childKey;
+                }
+            }
+            if (smallestKey >= key) {
+                break;
+            }
+            place(slot, heap[smallest]);
+            slot = smallest;
+        }
+        place(slot, id);
+    }
+}
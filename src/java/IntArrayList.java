@@ -0,0 +1,239 @@
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints backed by a single {@code int[]}.
+ * Appends are amortized O(1) through geometric growth, and positional
+ * inserts and deletes shift elements in place with {@link System#arraycopy}
+ * instead of copying the whole array into a new one.
+ */
+public class IntArrayList {
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final int[] EMPTY = {};
+    // Largest array size the VM can reliably allocate
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private int[] elements;
+    private int size;
+
+    public IntArrayList() {
+        this.elements = EMPTY;
+    }
+
+    public IntArrayList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        this.elements = initialCapacity == 0 ? EMPTY : new int[initialCapacity];
+    }
+
+    /**
+     * Create a list holding a copy of the given array
+     * @param values The initial contents
+     */
+    public IntArrayList(int[] values) {
+        this.elements = values.length == 0 ? EMPTY : values.clone();
+        this.size = values.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * Get the element at a specific index
+     * @param index The position to read
+     * @return The element at that position
+     */
+    public int get(int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    /**
+     * Replace the element at a specific index
+     * @param index The position to update
+     * @param value The new value
+     * @return The previous value
+     */
+    public int set(int index, int value) {
+        checkIndex(index);
+        int old = elements[index];
+        elements[index] = value;
+        return old;
+    }
+
+    /**
+     * Append an element to the end of the list
+     * @param value The element to append
+     */
+    public void add(int value) {
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * Insert an element at a specific index, shifting later elements right
+     * @param index The position to insert at
+     * @param value The element to insert
+     */
+    public void insert(int index, int value) {
+        checkPositionIndex(index);
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = value;
+        size++;
+    }
+
+    /**
+     * Insert all values at a specific index with a single shift
+     * @param index The position to insert at
+     * @param values The elements to insert
+     */
+    public void insertAll(int index, int[] values) {
+        checkPositionIndex(index);
+        int count = values.length;
+        if (count == 0) {
+            return;
+        }
+        ensureCapacity(size + count);
+        System.arraycopy(elements, index, elements, index + count, size - index);
+        System.arraycopy(values, 0, elements, index, count);
+        size += count;
+    }
+
+    /**
+     * Append all values to the end of the list
+     * @param values The elements to append
+     */
+    public void addAll(int[] values) {
+        insertAll(size, values);
+    }
+
+    /**
+     * Remove the element at a specific index, shifting later elements left
+     * @param index The position to remove
+     * @return The removed element
+     */
+    public int removeAt(int index) {
+        checkIndex(index);
+        int old = elements[index];
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(elements, index + 1, elements, index, moved);
+        }
+        size--;
+        return old;
+    }
+
+    /**
+     * Remove the elements in {@code [fromIndex, toIndex)} with a single shift
+     * @param fromIndex First index to remove, inclusive
+     * @param toIndex Last index to remove, exclusive
+     */
+    public void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException(
+                "Range [" + fromIndex + ", " + toIndex + ") out of bounds for size " + size);
+        }
+        System.arraycopy(elements, toIndex, elements, fromIndex, size - toIndex);
+        size -= toIndex - fromIndex;
+    }
+
+    /**
+     * Search for a value in the list
+     * @param value The value to search for
+     * @return The index of the first occurrence, or -1 if not found
+     */
+    public int indexOf(int value) {
+        int[] es = elements;
+        for (int i = 0, n = size; i < n; i++) {
+            if (es[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Make sure the list can hold at least {@code minCapacity} elements
+     * without growing again
+     * @param minCapacity The required capacity
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elements.length) {
+            grow(minCapacity);
+        }
+    }
+
+    /**
+     * Shrink the backing array to the current size
+     */
+    public void trimToSize() {
+        if (size < elements.length) {
+            elements = size == 0 ? EMPTY : Arrays.copyOf(elements, size);
+        }
+    }
+
+    /**
+     * @return A copy of the elements as a plain array
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(elements[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    // Grow by 1.5x, or straight to minCapacity if that is larger
+    private void grow(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required capacity " + minCapacity + " exceeds maximum array size");
+        }
+        int oldCapacity = elements.length;
+        int newCapacity = oldCapacity + (oldCapacity >> 1);
+        if (newCapacity < minCapacity || newCapacity < 0) {
+            newCapacity = Math.max(minCapacity, DEFAULT_CAPACITY);
+        }
+        if (newCapacity > MAX_CAPACITY) {
+            newCapacity = MAX_CAPACITY;
+        }
+        elements = Arrays.copyOf(elements, newCapacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    private void checkPositionIndex(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+import java.util.function.IntConsumer;
+
+/**
+ * Sorted set of ints stored as a B+-tree with wide nodes. Keys are packed in
+ * {@code int[]} arrays, 64 to a leaf, so a lookup touches a handful of
+ * contiguous blocks instead of one object per level as with
+ * {@code TreeOperations.TreeNode}, and the tree costs about 5 bytes per key
+ * instead of 32. Leaves are linked left to right, so range scans walk arrays
+ * without going back up the tree.
+ *
+ * <p>Deletes never merge or borrow: separators stay valid routing bounds
+ * when keys leave, so underflowing leaves are simply left sparse. After
+ * deleting most of the keys, rebuild with {@code fromSorted(tree.toArray())}
+ * to compact.
+ */
+public class IntBPlusTree {
+    // 64 ints is four cache lines per leaf; inner nodes hold up to 64 children
+    static final int LEAF_CAPACITY = 64;
+    static final int MAX_CHILDREN = 64;
+
+    private abstract static class Node {
+        int count;
+    }
+
+    private static final class Leaf extends Node {
+        // One spare slot so a full leaf can take the key before it splits
+        final int[] keys = new int[LEAF_CAPACITY + 1];
+        Leaf next;
+    }
+
+    private static final class Inner extends Node {
+        // keys[i] is the smallest key reachable through children[i + 1]; count counts children
+        final int[] keys = new int[MAX_CHILDREN];
+        final Node[] children = new Node[MAX_CHILDREN + 1];
+    }
+
+    private Node root = new Leaf();
+    private int height = 1;
+    private int size;
+
+    /**
+     * Build a tree from values in ascending order, filling every leaf
+     * @param sorted Values in ascending order; duplicates are stored once
+     * @return The new tree
+     * @throws IllegalArgumentException If the values are not in ascending order
+     */
+    public static IntBPlusTree fromSorted(int[] sorted) {
+        IntBPlusTree tree = new IntBPlusTree();
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i > 0 && sorted[i] < sorted[i - 1]) {
+                throw new IllegalArgumentException("Values are not sorted at index " + i);
+            }
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                distinct++;
+            }
+        }
+        if (distinct == 0) {
+            return tree;
+        }
+
+        // Leaf level, keys spread evenly so no leaf is nearly empty
+        int leafCount = (distinct + LEAF_CAPACITY - 1) / LEAF_CAPACITY;
+        Node[] level = new Node[leafCount];
+        int[] lowest = new int[leafCount];
+        int source = 0;
+        Leaf previous = null;
+        for (int l = 0; l < leafCount; l++) {
+            Leaf leaf = new Leaf();
+            int take = distinct / leafCount + (l < distinct % leafCount ? 1 : 0);
+            while (leaf.count < take) {
+                int value = sorted[source++];
+                if (leaf.count == 0 && previous != null && value == previous.keys[previous.count - 1]
+                        || leaf.count > 0 && value == leaf.keys[leaf.count - 1]) {
+                    continue;
+                }
+                leaf.keys[leaf.count++] = value;
+            }
+            if (previous != null) {
+                previous.next = leaf;
+            }
+            previous = leaf;
+            level[l] = leaf;
+            lowest[l] = leaf.keys[0];
+        }
+
+        // Inner levels, each grouping the one below
+        int height = 1;
+        while (level.length > 1) {
+            int parents = (level.length + MAX_CHILDREN - 1) / MAX_CHILDREN;
+            Node[] upper = new Node[parents];
+            int[] upperLowest = new int[parents];
+            int child = 0;
+            for (int p = 0; p < parents; p++) {
+                Inner inner = new Inner();
+                int take = level.length / parents + (p < level.length % parents ? 1 : 0);
+                upperLowest[p] = lowest[child];
+                for (int c = 0; c < take; c++, child++) {
+                    inner.children[c] = level[child];
+                    if (c > 0) {
+                        inner.keys[c - 1] = lowest[child];
+                    }
+                }
+                inner.count = take;
+                upper[p] = inner;
+            }
+            level = upper;
+            lowest = upperLowest;
+            height++;
+        }
+        tree.root = level[0];
+        tree.height = height;
+        tree.size = distinct;
+        return tree;
+    }
+
+    /**
+     * Check whether a value is in the tree
+     * @param value The value to look for
+     * @return true if the value is present
+     */
+    public boolean contains(int value) {
+        Leaf leaf = findLeaf(value);
+        int index = lowerBound(leaf.keys, leaf.count, value);
+        return index < leaf.count && leaf.keys[index] == value;
+    }
+
+    /**
+     * Insert a value if it is not already present
+     * @param value The value to insert
+     * @return true if inserted, false if the value was already in the tree
+     */
+    public boolean insert(int value) {
+        // Remember the inner nodes and child slots on the way down for splitting
+        Inner[] path = new Inner[height - 1];
+        int[] slots = new int[height - 1];
+        Node node = root;
+        for (int depth = 0; depth < height - 1; depth++) {
+            Inner inner = (Inner) node;
+            int slot = upperBound(inner.keys, inner.count - 1, value);
+            path[depth] = inner;
+            slots[depth] = slot;
+            node = inner.children[slot];
+        }
+        Leaf leaf = (Leaf) node;
+        int index = lowerBound(leaf.keys, leaf.count, value);
+        if (index < leaf.count && leaf.keys[index] == value) {
+            return false;
+        }
+        System.arraycopy(leaf.keys, index, leaf.keys, index + 1, leaf.count - index);
+        leaf.keys[index] = value;
+        leaf.count++;
+        size++;
+        if (leaf.count <= LEAF_CAPACITY) {
+            return true;
+        }
+
+        // Split the leaf, then push separators up while parents overflow
+        Leaf right = new Leaf();
+        int keep = leaf.count / 2;
+        right.count = leaf.count - keep;
+        System.arraycopy(leaf.keys, keep, right.keys, 0, right.count);
+        leaf.count = keep;
+        right.next = leaf.next;
+        leaf.next = right;
+        int separator = right.keys[0];
+        Node split = right;
+
+        for (int depth = height - 2; depth >= 0; depth--) {
+            Inner inner = path[depth];
+            int slot = slots[depth];
+            System.arraycopy(inner.keys, slot, inner.keys, slot + 1, inner.count - 1 - slot);
+            System.arraycopy(inner.children, slot + 1, inner.children, slot + 2, inner.count - 1 - slot);
+            inner.keys[slot] = separator;
+            inner.children[slot + 1] = split;
+            inner.count++;
+            if (inner.count <= MAX_CHILDREN) {
+                return true;
+            }
+            Inner sibling = new Inner();
+            int children = inner.count / 2;
+            sibling.count = inner.count - children;
+            System.arraycopy(inner.children, children, sibling.children, 0, sibling.count);
+            System.arraycopy(inner.keys, children, sibling.keys, 0, sibling.count - 1);
+            separator = inner.keys[children - 1];
+            for (int i = children; i < inner.count; i++) {
+                inner.children[i] = null;
+            }
+            inner.count = children;
+            split = sibling;
+        }
+
+        // The root itself split
+        Inner newRoot = new Inner();
+        newRoot.children[0] = root;
+        newRoot.children[1] = split;
+        newRoot.keys[0] = separator;
+        newRoot.count = 2;
+        root = newRoot;
+        height++;
+        return true;
+    }
+
+    /**
+     * Delete a value. The leaf is left sparse rather than merged.
+     * @param value The value to delete
+     * @return true if deleted, false if the value was not in the tree
+     */
+    public boolean delete(int value) {
+        Leaf leaf = findLeaf(value);
+        int index = lowerBound(leaf.keys, leaf.count, value);
+        if (index == leaf.count || leaf.keys[index] != value) {
+            return false;
+        }
+        System.arraycopy(leaf.keys, index + 1, leaf.keys, index, leaf.count - index - 1);
+        leaf.count--;
+        size--;
+        return true;
+    }
+
+    /**
+     * Visit the values in {@code [low, high]} in ascending order by walking
+     * the leaf chain
+     * @param low Smallest value to visit
+     * @param high Largest value to visit
+     * @param action Called with each value in the range
+     * @return The number of values visited
+     */
+    public int forEachInRange(int low, int high, IntConsumer action) {
+        if (low > high) {
+            return 0;
+        }
+        Leaf leaf = findLeaf(low);
+        int index = lowerBound(leaf.keys, leaf.count, low);
+        int visited = 0;
+        while (leaf != null) {
+            for (; index < leaf.count; index++) {
+                int key = leaf.keys[index];
+                if (key > high) {
+                    return visited;
+                }
+                action.accept(key);
+                visited++;
+            }
+            leaf = leaf.next;
+            index = 0;
+        }
+        return visited;
+    }
+
+    /**
+     * @return All values in ascending order
+     */
+    public int[] toArray() {
+        int[] result = new int[size];
+        int position = 0;
+        Node node = root;
+        while (node instanceof Inner) {
+            node = ((Inner) node).children[0];
+        }
+        for (Leaf leaf = (Leaf) node; leaf != null; leaf = leaf.next) {
+            System.arraycopy(leaf.keys, 0, result, position, leaf.count);
+            position += leaf.count;
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of values in the tree
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The number of levels, counting the leaves
+     */
+    public int height() {
+        return height;
+    }
+
+    private Leaf findLeaf(int value) {
+        Node node = root;
+        for (int depth = 0; depth < height - 1; depth++) {
+            Inner inner = (Inner) node;
+            node = inner.children[upperBound(inner.keys, inner.count - 1, value)];
+        }
+        return (Leaf) node;
+    }
+
+    // First index in keys[0..count) whose key is >= value. The step is
+    // computed from the sign of a long difference rather than a comparison:
+    // HotSpot compiles the ternary form to a branch, and a mispredicted
+    // branch per halving made in-node search slower than the cache miss
+    // that fetched the node.
+    private static int lowerBound(int[] keys, int count, int value) {
+        if (count == 0) {
+            return 0;
+        }
+        int base = 0;
+        int n = count;
+        while (n > 1) {
+            int half = n >>> 1;
+            base += half & (int) (((long) keys[base + half - 1] - value) >> 63);
+            n -= half;
+        }
+        return base + (int) (((long) keys[base] - value) >>> 63);
+    }
+
+    // First index in keys[0..count) whose key is > value, i.e. the child slot to descend into
+    private static int upperBound(int[] keys, int count, int value) {
+        if (count == 0) {
+            return 0;
+        }
+        int base = 0;
+        int n = count;
+        while (n > 1) {
+            int half = n >>> 1;
+            base += half & (int) (((long) keys[base + half - 1] - value - 1) >> 63);
+            n -= half;
+        }
+        return base + (int) (((long) keys[base] - value - 1) >>> 63);
+    }
+}
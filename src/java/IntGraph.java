@@ -0,0 +1,74 @@
+/**
+ * Graph over vertices {@code 0 .. vertexCount() - 1} with int edge weights.
+ * CsrGraph is the representation for large sparse graphs; AdjacencyMatrixGraph
+ * keeps the visualizer's adjacency-matrix model for small dense ones. Both
+ * answer the same queries, each with algorithms suited to its layout.
+ *
+ * <p>Edges are counted as directed arcs: an undirected edge between two
+ * distinct vertices is stored, and counted, in both directions.
+ */
+public interface IntGraph {
+    // Marks unreachable vertices in bfs() results
+    int UNREACHABLE = -1;
+    // Marks unreachable vertices in shortestPaths() results
+    int INFINITE_DISTANCE = Integer.MAX_VALUE;
+
+    // Receives the edges leaving a vertex
+    interface EdgeVisitor {
+        /**
+         * @param target The vertex the edge leads to
+         * @param weight The edge's weight; 1 in unweighted graphs
+         */
+        void visit(int target, int weight);
+    }
+
+    int vertexCount();
+
+    /**
+     * @return Number of directed arcs; an undirected edge counts once per direction
+     */
+    long edgeCount();
+
+    boolean isDirected();
+
+    /**
+     * @param vertex A vertex
+     * @return Number of arcs leaving the vertex
+     */
+    int degree(int vertex);
+
+    /**
+     * @param source The vertex the arc leaves
+     * @param target The vertex the arc enters
+     * @return true if there is an arc from source to target
+     */
+    boolean hasEdge(int source, int target);
+
+    /**
+     * Pass every arc leaving a vertex to the visitor
+     * @param vertex The vertex
+     * @param visitor Receives the target and weight of each arc
+     */
+    void forEachNeighbor(int vertex, EdgeVisitor visitor);
+
+    /**
+     * Breadth-first search, ignoring weights
+     * @param source The start vertex
+     * @return Number of arcs on a shortest path from source to each vertex, or UNREACHABLE
+     */
+    int[] bfs(int source);
+
+    /**
+     * Single-source shortest paths; weights must be non-negative
+     * @param source The start vertex
+     * @return Total weight of a lightest path from source to each vertex, or INFINITE_DISTANCE
+     * @throws ArithmeticException If a path weight does not fit in an int
+     */
+    int[] shortestPaths(int source);
+
+    /**
+     * Label connected components, treating arcs as undirected (weak connectivity)
+     * @return For each vertex, the smallest vertex in its component
+     */
+    int[] connectedComponents();
+}
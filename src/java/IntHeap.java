@@ -0,0 +1,34 @@
+/**
+ * Min-priority queue of primitive ints: the operations HeapVisualizer
+ * animates (insert, extract, peek) without boxing every element the way
+ * {@code PriorityQueue<Integer>} does. For a max heap, store negated values
+ * (values other than {@code Integer.MIN_VALUE} negate safely).
+ */
+public interface IntHeap {
+    /**
+     * Insert a value
+     * @param value The value to insert
+     */
+    void insert(int value);
+
+    /**
+     * @return The smallest value, without removing it
+     * @throws java.util.NoSuchElementException If the heap is empty
+     */
+    int peek();
+
+    /**
+     * Remove the smallest value
+     * @return The value removed
+     * @throws java.util.NoSuchElementException If the heap is empty
+     */
+    int extract();
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    void clear();
+}
@@ -0,0 +1,323 @@
+/**
+ * Hash map from int keys to int values on two parallel {@code int[]} arrays,
+ * the "hash table using array and hash function" from the visualizer made
+ * concrete. Nothing is boxed: an entry costs 8 bytes per slot, roughly
+ * 11-21 bytes at the default load factor, against about 50-80 for a
+ * {@code HashMap<Integer, Integer>} entry.
+ *
+ * <p>Collisions use Robin Hood linear probing: an entry being inserted takes
+ * the slot of any entry that is closer to its home slot, which keeps probe
+ * sequences short and lets a lookup stop as soon as it meets an entry closer
+ * to home than the key would be. Removal shifts the following entries back a
+ * slot instead of leaving tombstones. Slot key 0 marks an empty slot, so key 0
+ * itself is stored in a separate field.
+ *
+ * <p>Growing does not rehash everything at once. The old table is kept next
+ * to the new one, and every put or remove moves a few old slots across, so no
+ * single operation pays for the whole table. Until migration finishes a
+ * lookup may check both tables. Lookups never write, so a map that is no
+ * longer modified can be read from several threads once safely published.
+ */
+public class IntIntHashMap {
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+    private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    private static final int MAX_CAPACITY = 1 << 30;
+    // Old-table slots moved across per put or remove while a resize is in progress
+    private static final int MIGRATE_PER_OP = 8;
+
+    // One open-addressing table; keys[i] == 0 means slot i is empty
+    private static final class Table {
+        final int[] keys;
+        final int[] values;
+        final int mask;
+        final int shift;
+
+        Table(int capacity) {
+            keys = new int[capacity];
+            values = new int[capacity];
+            mask = capacity - 1;
+            shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        }
+
+        int capacity() {
+            return keys.length;
+        }
+
+        // Fibonacci hashing: the high bits of key * 2^32/phi spread sequential keys.
+        // Capacity is at least 2, so shift is at most 31.
+        int home(int key) {
+            return (key * 0x9E3779B9) >>> shift;
+        }
+
+        int find(int key) {
+            int index = home(key);
+            for (int distance = 0; ; distance++) {
+                int k = keys[index];
+                if (k == key) {
+                    return index;
+                }
+                // An empty slot, or an entry closer to home than key would be, ends the search
+                if (k == 0 || ((index - home(k)) & mask) < distance) {
+                    return -1;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+
+        // Insert a key known to be absent, displacing entries richer than it
+        void insertNew(int key, int value) {
+            int index = home(key);
+            int distance = 0;
+            while (true) {
+                int k = keys[index];
+                if (k == 0) {
+                    keys[index] = key;
+                    values[index] = value;
+                    return;
+                }
+                int existing = (index - home(k)) & mask;
+                if (existing < distance) {
+                    int v = values[index];
+                    keys[index] = key;
+                    values[index] = value;
+                    key = k;
+                    value = v;
+                    distance = existing;
+                }
+                index = (index + 1) & mask;
+                distance++;
+            }
+        }
+
+        // Backward-shift deletion: pull each following displaced entry one slot back
+        void removeAt(int index) {
+            while (true) {
+                int next = (index + 1) & mask;
+                int k = keys[next];
+                if (k == 0 || ((next - home(k)) & mask) == 0) {
+                    keys[index] = 0;
+                    return;
+                }
+                keys[index] = k;
+                values[index] = values[next];
+                index = next;
+            }
+        }
+    }
+
+    private final float loadFactor;
+    private Table table;
+    // Table being drained into table during a resize, or null
+    private Table old;
+    // Slots of old below this index are empty
+    private int migrated;
+    private int size;
+    // Size at which table grows
+    private int threshold;
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public IntIntHashMap() {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * @param expectedSize Number of entries the map should hold without growing
+     */
+    public IntIntHashMap(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * @param expectedSize Number of entries the map should hold without growing
+     * @param loadFactor Fraction of slots that may be full before the table grows,
+     *                   in (0, 1); Robin Hood probing stays fast up to about 0.9
+     */
+    public IntIntHashMap(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be in (0, 1): " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / (double) loadFactor) + 1;
+        int capacity = 2;
+        while (capacity < needed && capacity < MAX_CAPACITY) {
+            capacity <<= 1;
+        }
+        this.table = new Table(capacity);
+        this.threshold = threshold(capacity);
+    }
+
+    /**
+     * Get the value for a key
+     * @param key The key to look up
+     * @param defaultValue Returned if the key is absent
+     * @return The key's value, or defaultValue
+     */
+    public int get(int key, int defaultValue) {
+        if (key == 0) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        // Each field is read once, so a lookup racing a writer (as in
+        // StripedIntIntHashMap's optimistic reads) cannot fail, only be stale
+        Table current = table;
+        int index = current.find(key);
+        if (index >= 0) {
+            return current.values[index];
+        }
+        Table previous = old;
+        if (previous != null) {
+            index = previous.find(key);
+            if (index >= 0) {
+                return previous.values[index];
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * @param key The key to look up
+     * @return true if the map has an entry for the key
+     */
+    public boolean containsKey(int key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        Table previous = old;
+        return table.find(key) >= 0 || previous != null && previous.find(key) >= 0;
+    }
+
+    /**
+     * Associate a value with a key, replacing any previous value
+     * @param key The key
+     * @param value The value
+     * @return true if the key was new, false if an existing value was replaced
+     */
+    public boolean put(int key, int value) {
+        if (key == 0) {
+            boolean added = !hasZeroKey;
+            hasZeroKey = true;
+            zeroValue = value;
+            if (added) {
+                size++;
+            }
+            return added;
+        }
+        migrate();
+        int index = table.find(key);
+        if (index >= 0) {
+            table.values[index] = value;
+            return false;
+        }
+        if (old != null) {
+            index = old.find(key);
+            if (index >= 0) {
+                old.values[index] = value;
+                return false;
+            }
+        }
+        if (size >= threshold) {
+            grow();
+        }
+        table.insertNew(key, value);
+        size++;
+        return true;
+    }
+
+    /**
+     * Remove the entry for a key
+     * @param key The key
+     * @return true if an entry was removed
+     */
+    public boolean remove(int key) {
+        if (key == 0) {
+            boolean removed = hasZeroKey;
+            if (removed) {
+                hasZeroKey = false;
+                size--;
+            }
+            return removed;
+        }
+        migrate();
+        int index = table.find(key);
+        if (index >= 0) {
+            table.removeAt(index);
+            size--;
+            return true;
+        }
+        if (old != null) {
+            // Shifting only moves entries at or above migrated, so none escape migration
+            index = old.find(key);
+            if (index >= 0) {
+                old.removeAt(index);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove every entry, keeping the current capacity
+     */
+    public void clear() {
+        table = new Table(table.capacity());
+        old = null;
+        size = 0;
+        hasZeroKey = false;
+    }
+
+    /**
+     * @return Number of slots in the current table
+     */
+    public int capacity() {
+        return table.capacity();
+    }
+
+    private int threshold(int capacity) {
+        return capacity == MAX_CAPACITY ? capacity - 1 : (int) (capacity * loadFactor);
+    }
+
+    // Start a resize; a resize still in progress is finished first
+    private void grow() {
+        if (table.capacity() == MAX_CAPACITY) {
+            throw new IllegalStateException("Map is full");
+        }
+        while (old != null) {
+            migrate();
+        }
+        old = table;
+        table = new Table(table.capacity() * 2);
+        threshold = threshold(table.capacity());
+        migrated = 0;
+    }
+
+    // Move up to MIGRATE_PER_OP old slots across. The entry at migrated is taken
+    // out with removeAt, which may shift its successor into the same slot, so the
+    // cursor only advances past empty slots.
+    private void migrate() {
+        for (int work = 0; work < MIGRATE_PER_OP && old != null; work++) {
+            if (migrated == old.capacity()) {
+                old = null;
+                return;
+            }
+            int key = old.keys[migrated];
+            if (key == 0) {
+                migrated++;
+            } else {
+                table.insertNew(key, old.values[migrated]);
+                old.removeAt(migrated);
+            }
+        }
+    }
+}
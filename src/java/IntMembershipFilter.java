@@ -0,0 +1,44 @@
+/**
+ * Approximate set of ints that answers "definitely absent" or "maybe
+ * present". Placed in front of an O(n) search, it turns most misses into a
+ * few memory reads: {@code ArrayOperations.search(arr, target, filter)}
+ * and {@code LinkedListOperations.searchNode(head, value, filter)} return -1
+ * without scanning when the filter rules the value out.
+ *
+ * <p>A filter never gives a false negative for a value it was built with,
+ * so it stays correct after values are removed from the underlying data;
+ * it only needs rebuilding or updating when values are added.
+ * BlockedBloomFilter accepts additions and any false-positive rate;
+ * XorFilter is built once, smaller and faster, at a fixed rate of 1/256.
+ */
+public interface IntMembershipFilter {
+    /**
+     * @param value The value to test
+     * @return false if the value was never added; true if it probably was
+     */
+    boolean mightContain(int value);
+
+    /**
+     * @return Probability that mightContain returns true for a value never added,
+     *     estimated for the values added so far
+     */
+    double falsePositiveRate();
+
+    /**
+     * @return Bytes held by the filter's tables, excluding object headers
+     */
+    long sizeInBytes();
+
+    /**
+     * Mix a value into 64 well-spread bits (the MurmurHash3 finalizer)
+     * @param value The value to hash
+     * @param seed Selects an independent hash function
+     * @return The hash
+     */
+    static long hash(int value, long seed) {
+        long h = (value & 0xFFFFFFFFL) + seed;
+        h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+}
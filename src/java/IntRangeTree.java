@@ -0,0 +1,57 @@
+/**
+ * Array of ints that answers range sum, min and max and applies range
+ * additions in O(log n), replacing the O(n) rescans that follow
+ * {@code ArrayOperations.update}. SegmentTree is the textbook recursive
+ * form; FlatSegmentTree walks the same heap-ordered arrays bottom-up
+ * without recursion. For sums alone, FenwickTree is smaller and faster.
+ *
+ * <p>Ranges are half-open, {@code [fromIndex, toIndex)}. Values and
+ * results are longs, so additions and sums do not overflow int.
+ */
+public interface IntRangeTree {
+    int size();
+
+    /**
+     * @param index The position to read
+     * @return The current value at that position
+     */
+    long get(int index);
+
+    /**
+     * Replace one value
+     * @param index The position to write
+     * @param value The new value
+     */
+    void set(int index, long value);
+
+    /**
+     * Add delta to every value in {@code [fromIndex, toIndex)}
+     * @param fromIndex First index, inclusive
+     * @param toIndex Last index, exclusive
+     * @param delta The amount to add
+     */
+    void addRange(int fromIndex, int toIndex, long delta);
+
+    /**
+     * @param fromIndex First index, inclusive
+     * @param toIndex Last index, exclusive
+     * @return Sum of the values in the range; 0 for an empty range
+     */
+    long sum(int fromIndex, int toIndex);
+
+    /**
+     * @param fromIndex First index, inclusive
+     * @param toIndex Last index, exclusive
+     * @return The smallest value in the range
+     * @throws IllegalArgumentException If the range is empty
+     */
+    long min(int fromIndex, int toIndex);
+
+    /**
+     * @param fromIndex First index, inclusive
+     * @param toIndex Last index, exclusive
+     * @return The largest value in the range
+     * @throws IllegalArgumentException If the range is empty
+     */
+    long max(int fromIndex, int toIndex);
+}
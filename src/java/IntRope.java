@@ -0,0 +1,379 @@
+import java.util.Arrays;
+
+/**
+ * Int sequence stored as a rope: a height-balanced (AVL) tree whose leaves
+ * are small chunks of the sequence and whose branches carry subtree sizes.
+ * Positional insert, delete, get, split and concatenation are all
+ * O(log n), which suits very large sequences edited at scattered positions.
+ */
+public class IntRope {
+    // Leaves never hold more than this many elements
+    private static final int MAX_LEAF = 256;
+    // Sibling leaves are merged once they fit together in this many elements
+    private static final int MERGE_LEAF = MAX_LEAF / 2;
+
+    // A leaf has data != null and no children; a branch always has two children
+    private static final class Node {
+        int[] data;
+        Node left;
+        Node right;
+        int size;
+        int height;
+
+        Node(int[] data, int size) {
+            this.data = data;
+            this.size = size;
+        }
+
+        Node(Node left, Node right) {
+            this.left = left;
+            this.right = right;
+            update();
+        }
+
+        boolean isLeaf() {
+            return data != null;
+        }
+
+        void update() {
+            size = left.size + right.size;
+            height = Math.max(left.height, right.height) + 1;
+        }
+    }
+
+    private Node root;
+
+    public IntRope() {
+    }
+
+    /**
+     * Create a rope holding a copy of the given array
+     * @param values The initial contents
+     */
+    public IntRope(int[] values) {
+        this.root = build(values, 0, values.length);
+    }
+
+    private IntRope(Node root) {
+        this.root = root;
+    }
+
+    public int size() {
+        return root == null ? 0 : root.size;
+    }
+
+    /**
+     * Insert an element at a specific index
+     * @param index The position to insert at
+     * @param element The element to insert
+     */
+    public void insertAt(int index, int element) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        if (root == null) {
+            int[] data = new int[16];
+            data[0] = element;
+            root = new Node(data, 1);
+            return;
+        }
+        root = insert(root, index, element);
+    }
+
+    /**
+     * Delete the element at a specific index
+     * @param index The position to delete from
+     * @return The deleted element
+     */
+    public int deleteAt(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        int removed = get(index);
+        root = delete(root, index);
+        return removed;
+    }
+
+    /**
+     * Search for a value in the rope
+     * @param target The value to search for
+     * @return The index of the first occurrence, or -1 if not found
+     */
+    public int search(int target) {
+        if (root == null) {
+            return -1;
+        }
+        // Iterative inorder walk over the leaves; depth is bounded by the AVL height
+        Node[] stack = new Node[root.height + 1];
+        int top = 0;
+        int offset = 0;
+        Node current = root;
+        while (current != null) {
+            while (!current.isLeaf()) {
+                stack[top++] = current;
+                current = current.left;
+            }
+            int[] data = current.data;
+            for (int i = 0, n = current.size; i < n; i++) {
+                if (data[i] == target) {
+                    return offset + i;
+                }
+            }
+            offset += current.size;
+            current = top > 0 ? stack[--top].right : null;
+        }
+        return -1;
+    }
+
+    /**
+     * Update the value at a specific index
+     * @param index The position to update
+     * @param newValue The new value
+     * @return true if update was successful, false otherwise
+     */
+    public boolean update(int index, int newValue) {
+        if (index < 0 || index >= size()) {
+            return false;
+        }
+        Node leaf = root;
+        while (!leaf.isLeaf()) {
+            if (index < leaf.left.size) {
+                leaf = leaf.left;
+            } else {
+                index -= leaf.left.size;
+                leaf = leaf.right;
+            }
+        }
+        leaf.data[index] = newValue;
+        return true;
+    }
+
+    /**
+     * Get the element at a specific index
+     * @param index The position to read
+     * @return The element at that position
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        Node node = root;
+        while (!node.isLeaf()) {
+            if (index < node.left.size) {
+                node = node.left;
+            } else {
+                index -= node.left.size;
+                node = node.right;
+            }
+        }
+        return node.data[index];
+    }
+
+    /**
+     * Append another rope to the end of this one. The other rope is emptied.
+     * @param other The rope to append
+     */
+    public void append(IntRope other) {
+        if (other == this) {
+            throw new IllegalArgumentException("Cannot append a rope to itself");
+        }
+        root = join(root, other.root);
+        other.root = null;
+    }
+
+    /**
+     * Split this rope in two. This rope keeps {@code [0, index)} and the
+     * returned rope holds {@code [index, size)}.
+     * @param index The split position
+     * @return A new rope with the elements from index onwards
+     */
+    public IntRope splitOff(int index) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        if (root == null) {
+            return new IntRope();
+        }
+        Node[] parts = split(root, index);
+        root = parts[0];
+        return new IntRope(parts[1]);
+    }
+
+    /**
+     * @return A copy of the contents as a plain array
+     */
+    public int[] toArray() {
+        int[] result = new int[size()];
+        if (root != null) {
+            copyTo(root, result, 0);
+        }
+        return result;
+    }
+
+    private static void copyTo(Node node, int[] dest, int offset) {
+        while (!node.isLeaf()) {
+            copyTo(node.left, dest, offset);
+            offset += node.left.size;
+            node = node.right;
+        }
+        System.arraycopy(node.data, 0, dest, offset, node.size);
+    }
+
+    private static Node build(int[] values, int from, int to) {
+        int count = to - from;
+        if (count == 0) {
+            return null;
+        }
+        if (count <= MAX_LEAF) {
+            int[] data = new int[MAX_LEAF];
+            System.arraycopy(values, from, data, 0, count);
+            return new Node(data, count);
+        }
+        int mid = from + count / 2;
+        return new Node(build(values, from, mid), build(values, mid, to));
+    }
+
+    private static Node insert(Node node, int index, int element) {
+        if (node.isLeaf()) {
+            if (node.size < MAX_LEAF) {
+                if (node.size == node.data.length) {
+                    node.data = Arrays.copyOf(node.data, Math.min(node.data.length * 2, MAX_LEAF));
+                }
+                System.arraycopy(node.data, index, node.data, index + 1, node.size - index);
+                node.data[index] = element;
+                node.size++;
+                return node;
+            }
+            // Full leaf: split it into two half-full leaves
+            int half = MAX_LEAF / 2;
+            int[] rightData = new int[MAX_LEAF];
+            System.arraycopy(node.data, half, rightData, 0, MAX_LEAF - half);
+            Node rightLeaf = new Node(rightData, MAX_LEAF - half);
+            node.size = half;
+            Node branch = new Node(node, rightLeaf);
+            return insert(branch, index, element);
+        }
+        if (index <= node.left.size) {
+            node.left = insert(node.left, index, element);
+        } else {
+            node.right = insert(node.right, index - node.left.size, element);
+        }
+        return balance(node);
+    }
+
+    private static Node delete(Node node, int index) {
+        if (node.isLeaf()) {
+            System.arraycopy(node.data, index + 1, node.data, index, node.size - index - 1);
+            node.size--;
+            return node.size == 0 ? null : node;
+        }
+        if (index < node.left.size) {
+            node.left = delete(node.left, index);
+        } else {
+            node.right = delete(node.right, index - node.left.size);
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        if (node.left.isLeaf() && node.right.isLeaf() && node.size <= MERGE_LEAF) {
+            return mergeLeaves(node.left, node.right);
+        }
+        return balance(node);
+    }
+
+    private static Node mergeLeaves(Node left, Node right) {
+        if (left.data.length < left.size + right.size) {
+            left.data = Arrays.copyOf(left.data, MAX_LEAF);
+        }
+        System.arraycopy(right.data, 0, left.data, left.size, right.size);
+        left.size += right.size;
+        return left;
+    }
+
+    // Returns {prefix, suffix}; either may be null
+    private static Node[] split(Node node, int index) {
+        if (node.isLeaf()) {
+            if (index == 0) {
+                return new Node[] {null, node};
+            }
+            if (index == node.size) {
+                return new Node[] {node, null};
+            }
+            int[] rightData = new int[MAX_LEAF];
+            System.arraycopy(node.data, index, rightData, 0, node.size - index);
+            Node rightLeaf = new Node(rightData, node.size - index);
+            node.size = index;
+            return new Node[] {node, rightLeaf};
+        }
+        int leftSize = node.left.size;
+        if (index < leftSize) {
+            Node[] parts = split(node.left, index);
+            parts[1] = join(parts[1], node.right);
+            return parts;
+        }
+        if (index == leftSize) {
+            return new Node[] {node.left, node.right};
+        }
+        Node[] parts = split(node.right, index - leftSize);
+        parts[0] = join(node.left, parts[0]);
+        return parts;
+    }
+
+    // Concatenate two balanced trees in O(|height difference|)
+    private static Node join(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.height > right.height + 1) {
+            left.right = join(left.right, right);
+            return balance(left);
+        }
+        if (right.height > left.height + 1) {
+            right.left = join(left, right.left);
+            return balance(right);
+        }
+        return new Node(left, right);
+    }
+
+    private static Node balance(Node node) {
+        node.update();
+        int diff = node.left.height - node.right.height;
+        if (diff > 1) {
+            if (node.left.left.height < node.left.right.height) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (diff < -1) {
+            if (node.right.right.height < node.right.left.height) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        node.update();
+        pivot.right = node;
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        node.update();
+        pivot.left = node;
+        pivot.update();
+        return pivot;
+    }
+}
@@ -0,0 +1,147 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Bounded lock-free multi-producer multi-consumer queue of ints on a ring
+ * buffer, after Dmitry Vyukov's design. Every cell carries a sequence number
+ * that tells a producer whether the cell is free for its lap around the ring
+ * and a consumer whether it has been filled, so producers and consumers only
+ * contend on their own counter and never on each other's.
+ *
+ * <p>The two counters are separated by padding so that producers bumping one
+ * do not keep invalidating the cache line consumers read the other from.
+ */
+public class MpmcIntQueue extends MpmcIntQueueDequeue {
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle ENQUEUE;
+    private static final VarHandle DEQUEUE;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            ENQUEUE = lookup.findVarHandle(MpmcIntQueueEnqueue.class, "enqueuePosition", long.class);
+            DEQUEUE = lookup.findVarHandle(MpmcIntQueueDequeue.class, "dequeuePosition", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Trailing padding, so the dequeue counter does not share a line with whatever follows
+    long p20, p21, p22, p23, p24, p25, p26;
+
+    private final int[] buffer;
+    // sequence[i] == position: cell free for the producer of that position;
+    // sequence[i] == position + 1: cell filled for the consumer of that position
+    private final long[] sequence;
+    private final int mask;
+
+    /**
+     * @param capacity Maximum number of queued values; rounded up to a power of two, at least 2
+     */
+    public MpmcIntQueue(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        // A single cell cannot tell "filled this lap" from "free next lap"
+        int size = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        this.buffer = new int[size];
+        this.sequence = new long[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequence[i] = i;
+        }
+    }
+
+    /**
+     * Add a value at the tail
+     * @param value The value to add
+     * @return true if added, false if the queue was full
+     */
+    public boolean offer(int value) {
+        long position = (long) ENQUEUE.getOpaque(this);
+        while (true) {
+            int cell = (int) position & mask;
+            long difference = (long) SEQUENCE.getAcquire(sequence, cell) - position;
+            if (difference == 0) {
+                if (ENQUEUE.weakCompareAndSet(this, position, position + 1)) {
+                    buffer[cell] = value;
+                    // Publishes the value to the consumer that acquires this sequence
+                    SEQUENCE.setRelease(sequence, cell, position + 1);
+                    return true;
+                }
+                position = (long) ENQUEUE.getOpaque(this);
+            } else if (difference < 0) {
+                // The cell still holds a value from the previous lap
+                return false;
+            } else {
+                // Another producer claimed this position first
+                position = (long) ENQUEUE.getOpaque(this);
+            }
+        }
+    }
+
+    /**
+     * Remove the value at the head
+     * @param valueIfEmpty Returned if the queue is empty
+     * @return The value removed, or valueIfEmpty
+     */
+    public int poll(int valueIfEmpty) {
+        long position = (long) DEQUEUE.getOpaque(this);
+        while (true) {
+            int cell = (int) position & mask;
+            long difference = (long) SEQUENCE.getAcquire(sequence, cell) - (position + 1);
+            if (difference == 0) {
+                if (DEQUEUE.weakCompareAndSet(this, position, position + 1)) {
+                    int value = buffer[cell];
+                    // Free the cell for the producer one lap ahead
+                    SEQUENCE.setRelease(sequence, cell, position + mask + 1);
+                    return value;
+                }
+                position = (long) DEQUEUE.getOpaque(this);
+            } else if (difference < 0) {
+                return valueIfEmpty;
+            } else {
+                position = (long) DEQUEUE.getOpaque(this);
+            }
+        }
+    }
+
+    /**
+     * @return The number of queued values; only a snapshot under concurrent use
+     */
+    public int size() {
+        while (true) {
+            long dequeue = (long) DEQUEUE.getVolatile(this);
+            long enqueue = (long) ENQUEUE.getVolatile(this);
+            if (dequeue == (long) DEQUEUE.getVolatile(this)) {
+                return (int) Math.max(0, Math.min(enqueue - dequeue, capacity()));
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
+
+// Field layout padding: the JVM lays out superclass fields first, so each
+// counter sits between 56 bytes of unused longs on either side.
+abstract class MpmcIntQueuePadding {
+    long p00, p01, p02, p03, p04, p05, p06;
+}
+
+abstract class MpmcIntQueueEnqueue extends MpmcIntQueuePadding {
+    volatile long enqueuePosition;
+}
+
+abstract class MpmcIntQueueMiddlePadding extends MpmcIntQueueEnqueue {
+    long p10, p11, p12, p13, p14, p15, p16;
+}
+
+abstract class MpmcIntQueueDequeue extends MpmcIntQueueMiddlePadding {
+    volatile long dequeuePosition;
+}
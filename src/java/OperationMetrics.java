@@ -0,0 +1,472 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Opt-in instrumentation for the executable operations in DataStructures
+ * and BalancedTreeOperations: per-operation call counts, a latency
+ * histogram, and counts of elements shifted, nodes (or array elements)
+ * visited and bytes allocated.
+ *
+ * <p>Recording is off by default. The enabled flag lives in a call site
+ * the JIT treats as a constant, so while recording is off the check in an
+ * instrumented operation compiles away entirely; flipping the flag throws
+ * away the affected compiled code instead. When on, every counter
+ * is a LongAdder, so threads calling the same operation add to per-thread
+ * cells instead of contending on one word.
+ *
+ * <p>Results are read with {@link #snapshot()} or over JMX once
+ * {@link #registerMBeans()} has been called. Allocated bytes are estimates
+ * for a 64-bit JVM with compressed references; the harness in
+ * {@code bench} measures allocation exactly.
+ */
+public final class OperationMetrics {
+    // The instrumented operations
+    public enum Operation {
+        ARRAY_INSERT("ArrayOperations.insertAt"),
+        ARRAY_DELETE("ArrayOperations.deleteAt"),
+        ARRAY_SEARCH("ArrayOperations.search"),
+        ARRAY_UPDATE("ArrayOperations.update"),
+        LIST_INSERT("LinkedListOperations.insertNode"),
+        LIST_DELETE("LinkedListOperations.deleteNode"),
+        LIST_SEARCH("LinkedListOperations.searchNode"),
+        LIST_UPDATE("LinkedListOperations.updateNode"),
+        TREE_INSERT("BalancedTreeOperations.insert"),
+        TREE_DELETE("BalancedTreeOperations.delete"),
+        TREE_SEARCH("BalancedTreeOperations.search");
+
+        private final String displayName;
+
+        Operation(String displayName) {
+            this.displayName = displayName;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    // Estimated heap sizes with compressed references
+    static final long LIST_NODE_BYTES = 24;
+    static final long TREE_NODE_BYTES = 32;
+
+    // Returned by start() while recording is off
+    private static final long DISABLED = Long.MIN_VALUE;
+
+    private static final Operation[] OPERATIONS = Operation.values();
+    // Constant-folded by the JIT; retargeted, which deoptimizes dependent code, by setEnabled()
+    private static final MutableCallSite ENABLED_SITE =
+        new MutableCallSite(MethodHandles.constant(boolean.class, false));
+    private static final MethodHandle ENABLED = ENABLED_SITE.dynamicInvoker();
+    private static volatile boolean enabled;
+    // Created on first use, so a JVM that never enables recording allocates no histograms
+    private static final AtomicReferenceArray<Stats> STATS = new AtomicReferenceArray<>(OPERATIONS.length);
+
+    private OperationMetrics() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turn recording on or off; counts gathered so far are kept
+     * @param on true to record every instrumented call
+     */
+    public static synchronized void setEnabled(boolean on) {
+        if (on != enabled) {
+            ENABLED_SITE.setTarget(MethodHandles.constant(boolean.class, on));
+            MutableCallSite.syncAll(new MutableCallSite[] {ENABLED_SITE});
+            enabled = on;
+        }
+    }
+
+    /**
+     * Called on entry to an instrumented operation
+     * @return A start timestamp to pass to record(), or a marker that recording is off
+     */
+    static long start() {
+        boolean on;
+        try {
+            on = (boolean) ENABLED.invokeExact();
+        } catch (Throwable e) {
+            throw new AssertionError(e);
+        }
+        return on ? System.nanoTime() : DISABLED;
+    }
+
+    /**
+     * Called on exit from an instrumented operation; does nothing if start() found recording off
+     * @param operation The operation that ran
+     * @param start The value start() returned
+     * @param elementsShifted Elements moved to open or close a gap
+     * @param nodesTraversed Nodes or array elements visited
+     * @param allocatedBytes Estimated bytes allocated
+     */
+    static void record(Operation operation, long start, long elementsShifted, long nodesTraversed,
+                       long allocatedBytes) {
+        if (start == DISABLED) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        Stats stats = stats(operation);
+        stats.calls.increment();
+        stats.totalNanos.add(nanos);
+        stats.maxNanos.accumulate(nanos);
+        stats.latency.record(nanos);
+        if (elementsShifted != 0) {
+            stats.elementsShifted.add(elementsShifted);
+        }
+        if (nodesTraversed != 0) {
+            stats.nodesTraversed.add(nodesTraversed);
+        }
+        if (allocatedBytes != 0) {
+            stats.allocatedBytes.add(allocatedBytes);
+        }
+    }
+
+    /**
+     * @param length Length of an int array
+     * @return Estimated heap size of the array: a 16-byte header plus elements, padded to 8 bytes
+     */
+    static long intArrayBytes(int length) {
+        return (16 + 4L * length + 7) & ~7L;
+    }
+
+    /**
+     * @param operation The operation
+     * @return What has been recorded for it so far
+     */
+    public static Snapshot snapshot(Operation operation) {
+        Stats stats = STATS.get(operation.ordinal());
+        if (stats == null) {
+            return new Snapshot(operation, 0, 0, 0, 0, 0, 0, new long[LatencyHistogram.BUCKETS]);
+        }
+        return new Snapshot(operation, stats.calls.sum(), stats.totalNanos.sum(), stats.maxNanos.get(),
+            stats.elementsShifted.sum(), stats.nodesTraversed.sum(), stats.allocatedBytes.sum(),
+            stats.latency.counts());
+    }
+
+    /**
+     * @return A snapshot of every operation, in declaration order. Counters are read
+     *         one at a time, so they may disagree slightly while operations run.
+     */
+    public static List<Snapshot> snapshot() {
+        List<Snapshot> result = new ArrayList<>(OPERATIONS.length);
+        for (Operation operation : OPERATIONS) {
+            result.add(snapshot(operation));
+        }
+        return result;
+    }
+
+    /**
+     * Discard everything recorded so far
+     */
+    public static void reset() {
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            STATS.set(i, null);
+        }
+    }
+
+    /**
+     * Register a control MBean and one MBean per operation with the platform
+     * MBean server, under the domain "DataStructures". Calling it again does nothing.
+     */
+    public static synchronized void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName control = new ObjectName("DataStructures:type=OperationMetrics");
+            if (server.isRegistered(control)) {
+                return;
+            }
+            for (Operation operation : OPERATIONS) {
+                server.registerMBean(new OperationStats(operation),
+                    new ObjectName("DataStructures:type=OperationMetrics,name=" + operation));
+            }
+            server.registerMBean(new Control(), control);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register operation metrics MBeans", e);
+        }
+    }
+
+    private static Stats stats(Operation operation) {
+        int index = operation.ordinal();
+        while (true) {
+            Stats stats = STATS.get(index);
+            if (stats != null) {
+                return stats;
+            }
+            // Loops only if a reset() cleared the slot again in between
+            stats = new Stats();
+            if (STATS.compareAndSet(index, null, stats)) {
+                return stats;
+            }
+        }
+    }
+
+    // Live counters for one operation
+    private static final class Stats {
+        final LongAdder calls = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        final LongAdder elementsShifted = new LongAdder();
+        final LongAdder nodesTraversed = new LongAdder();
+        final LongAdder allocatedBytes = new LongAdder();
+        final LatencyHistogram latency = new LatencyHistogram();
+    }
+
+    /**
+     * Log-linear histogram in the style of HdrHistogram: every power of two
+     * is split into 16 equal buckets, so any recorded value is known to
+     * within 6.25% while the whole range up to about half an hour in
+     * nanoseconds takes 608 buckets. Larger values land in the last bucket.
+     */
+    static final class LatencyHistogram {
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int MAX_MAGNITUDE = 40;
+        static final int BUCKETS = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+        LatencyHistogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long value) {
+            buckets[bucketOf(value)].increment();
+        }
+
+        long[] counts() {
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets[i].sum();
+            }
+            return counts;
+        }
+
+        static int bucketOf(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) Math.max(value, 0);
+            }
+            int magnitude = 63 - Long.numberOfLeadingZeros(value);
+            if (magnitude > MAX_MAGNITUDE) {
+                return BUCKETS - 1;
+            }
+            int sub = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        // Largest value that falls in the bucket
+        static long highestValueIn(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            int sub = bucket % SUB_BUCKETS;
+            long lowest = (long) (SUB_BUCKETS + sub) << (magnitude - SUB_BUCKET_BITS);
+            return lowest + (1L << (magnitude - SUB_BUCKET_BITS)) - 1;
+        }
+    }
+
+    // Point-in-time copy of one operation's counters
+    public static final class Snapshot {
+        private final Operation operation;
+        private final long calls;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long elementsShifted;
+        private final long nodesTraversed;
+        private final long allocatedBytes;
+        private final long[] latencyCounts;
+
+        Snapshot(Operation operation, long calls, long totalNanos, long maxNanos, long elementsShifted,
+                 long nodesTraversed, long allocatedBytes, long[] latencyCounts) {
+            this.operation = operation;
+            this.calls = calls;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.elementsShifted = elementsShifted;
+            this.nodesTraversed = nodesTraversed;
+            this.allocatedBytes = allocatedBytes;
+            this.latencyCounts = latencyCounts;
+        }
+
+        public Operation operation() {
+            return operation;
+        }
+
+        public long calls() {
+            return calls;
+        }
+
+        public long totalNanos() {
+            return totalNanos;
+        }
+
+        public double meanNanos() {
+            return calls == 0 ? 0 : (double) totalNanos / calls;
+        }
+
+        public long maxNanos() {
+            return maxNanos;
+        }
+
+        public long elementsShifted() {
+            return elementsShifted;
+        }
+
+        public long nodesTraversed() {
+            return nodesTraversed;
+        }
+
+        public long allocatedBytes() {
+            return allocatedBytes;
+        }
+
+        /**
+         * @param percentile Percentile to read, from 0 to 100
+         * @return Latency at or below which that share of calls completed, accurate to 6.25%
+         */
+        public long percentileNanos(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be in [0, 100]: " + percentile);
+            }
+            long total = 0;
+            for (long count : latencyCounts) {
+                total += count;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < latencyCounts.length; i++) {
+                seen += latencyCounts[i];
+                if (seen >= rank) {
+                    return Math.min(LatencyHistogram.highestValueIn(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: calls=%d mean=%.1fns p50=%dns p99=%dns max=%dns shifted=%d traversed=%d "
+                    + "allocated=%dB", operation, calls, meanNanos(), percentileNanos(50), percentileNanos(99),
+                maxNanos, elementsShifted, nodesTraversed, allocatedBytes);
+        }
+    }
+
+    // JMX view of the switch
+    public interface OperationMetricsControlMXBean {
+        boolean isEnabled();
+
+        void setEnabled(boolean enabled);
+
+        void reset();
+    }
+
+    // JMX view of one operation; every attribute read takes a fresh snapshot
+    public interface OperationStatsMXBean {
+        long getCalls();
+
+        double getMeanNanos();
+
+        long getMaxNanos();
+
+        long getP50Nanos();
+
+        long getP99Nanos();
+
+        long getP999Nanos();
+
+        long getElementsShifted();
+
+        long getNodesTraversed();
+
+        long getAllocatedBytes();
+    }
+
+    private static final class Control implements OperationMetricsControlMXBean {
+        @Override
+        public boolean isEnabled() {
+            return OperationMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean on) {
+            OperationMetrics.setEnabled(on);
+        }
+
+        @Override
+        public void reset() {
+            OperationMetrics.reset();
+        }
+    }
+
+    private static final class OperationStats implements OperationStatsMXBean {
+        private final Operation operation;
+
+        OperationStats(Operation operation) {
+            this.operation = operation;
+        }
+
+        @Override
+        public long getCalls() {
+            return snapshot(operation).calls();
+        }
+
+        @Override
+        public double getMeanNanos() {
+            return snapshot(operation).meanNanos();
+        }
+
+        @Override
+        public long getMaxNanos() {
+            return snapshot(operation).maxNanos();
+        }
+
+        @Override
+        public long getP50Nanos() {
+            return snapshot(operation).percentileNanos(50);
+        }
+
+        @Override
+        public long getP99Nanos() {
+            return snapshot(operation).percentileNanos(99);
+        }
+
+        @Override
+        public long getP999Nanos() {
+            return snapshot(operation).percentileNanos(99.9);
+        }
+
+        @Override
+        public long getElementsShifted() {
+            return snapshot(operation).elementsShifted();
+        }
+
+        @Override
+        public long getNodesTraversed() {
+            return snapshot(operation).nodesTraversed();
+        }
+
+        @Override
+        public long getAllocatedBytes() {
+            return snapshot(operation).allocatedBytes();
+        }
+    }
+}
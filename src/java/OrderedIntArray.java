@@ -0,0 +1,368 @@
+import java.util.Arrays;
+
+/**
+ * Growable array of ints kept in ascending order, the "ordered list" of the
+ * visualizer. Duplicates are allowed. Lookups are binary searches for the
+ * lower or upper bound, or exponential ("galloping") searches that start
+ * from a hint and cost O(log d) for an answer d slots away, which suits
+ * lookups that arrive in roughly sorted order.
+ *
+ * <p>{@link #addAll(int[])} inserts a batch in one pass: it sorts the batch,
+ * then merges it in from the back of the array, so each element moves at
+ * most once. That is O(n + k log k) for k values instead of the O(n k) of k
+ * separate inserts. The static set operations merge two arrays in linear
+ * time.
+ */
+public class OrderedIntArray {
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final int[] EMPTY = {};
+    // Largest array size the VM can reliably allocate
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private int[] elements;
+    private int size;
+
+    public OrderedIntArray() {
+        this.elements = EMPTY;
+    }
+
+    public OrderedIntArray(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        this.elements = initialCapacity == 0 ? EMPTY : new int[initialCapacity];
+    }
+
+    private OrderedIntArray(int[] sorted, int size) {
+        this.elements = sorted;
+        this.size = size;
+    }
+
+    /**
+     * @param values Values in any order; the array is not modified
+     * @return An ordered array holding the values
+     */
+    public static OrderedIntArray of(int... values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return new OrderedIntArray(sorted, sorted.length);
+    }
+
+    /**
+     * @param sorted Values in ascending order; the array is copied
+     * @return An ordered array holding the values
+     * @throws IllegalArgumentException If the values are not in ascending order
+     */
+    public static OrderedIntArray fromSorted(int[] sorted) {
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i - 1] > sorted[i]) {
+                throw new IllegalArgumentException("Values are not sorted at index " + i);
+            }
+        }
+        return new OrderedIntArray(sorted.clone(), sorted.length);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Get the element at a specific index
+     * @param index The position to read
+     * @return The element at that position
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return elements[index];
+    }
+
+    /**
+     * @param value The value to look for
+     * @return Index of the first element not less than value, or size() if there is none
+     */
+    public int lowerBound(int value) {
+        return lowerBound(elements, 0, size, value);
+    }
+
+    /**
+     * @param value The value to look for
+     * @return Index of the first element greater than value, or size() if there is none
+     */
+    public int upperBound(int value) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (elements[mid] <= value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Galloping lower bound: probe 1, 2, 4, ... slots away from the hint, then
+     * bisect the last gap, so an answer d slots from the hint costs O(log d)
+     * @param value The value to look for
+     * @param hint Where the answer is expected, e.g. the previous lookup's result
+     * @return Index of the first element not less than value, or size() if there is none
+     */
+    public int lowerBound(int value, int hint) {
+        return gallop(elements, 0, size, value, Math.max(0, Math.min(hint, size)));
+    }
+
+    /**
+     * Search for a value
+     * @param value The value to search for
+     * @return The index of the first occurrence, or -1 if not found
+     */
+    public int indexOf(int value) {
+        int index = lowerBound(value);
+        return index < size && elements[index] == value ? index : -1;
+    }
+
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    /**
+     * Insert a value at its place in the order, after any equal values
+     * @param value The value to insert
+     * @return The index it was inserted at
+     */
+    public int add(int value) {
+        int index = upperBound(value);
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = value;
+        size++;
+        return index;
+    }
+
+    /**
+     * Insert a batch of values in one merge pass, O(n + k log k)
+     * @param values The values to insert, in any order; the array is not modified
+     */
+    public void addAll(int[] values) {
+        int count = values.length;
+        if (count == 0) {
+            return;
+        }
+        int[] batch = values.clone();
+        Arrays.sort(batch);
+        ensureCapacity(size + count);
+        // Merge from the back: the largest remaining value goes to the highest free slot.
+        // Elements below the batch's smallest value never move.
+        int i = size - 1;
+        int j = count - 1;
+        int out = size + count - 1;
+        while (j >= 0) {
+            if (i >= 0 && elements[i] > batch[j]) {
+                elements[out--] = elements[i--];
+            } else {
+                elements[out--] = batch[j--];
+            }
+        }
+        size += count;
+    }
+
+    /**
+     * Remove one occurrence of a value
+     * @param value The value to remove
+     * @return true if the value was present
+     */
+    public boolean remove(int value) {
+        int index = indexOf(value);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Remove the element at a specific index, shifting later elements left
+     * @param index The position to remove
+     * @return The removed element
+     */
+    public int removeAt(int index) {
+        int old = get(index);
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        return old;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Make sure the array can hold at least {@code minCapacity} elements
+     * without growing again
+     * @param minCapacity The required capacity
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elements.length) {
+            grow(minCapacity);
+        }
+    }
+
+    /**
+     * @return A copy of the elements as a plain sorted array
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    /**
+     * Values in either array, each once
+     * @param a An ordered array
+     * @param b An ordered array
+     * @return The union, in O(a.size() + b.size())
+     */
+    public static OrderedIntArray union(OrderedIntArray a, OrderedIntArray b) {
+        int[] result = new int[a.size + b.size];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            int value;
+            if (j == b.size || i < a.size && a.elements[i] <= b.elements[j]) {
+                value = a.elements[i++];
+            } else {
+                value = b.elements[j++];
+            }
+            if (count == 0 || result[count - 1] != value) {
+                result[count++] = value;
+            }
+        }
+        return new OrderedIntArray(result, count);
+    }
+
+    /**
+     * Values in both arrays, each once. Each value of the smaller array is
+     * galloped for in the larger one from where the last search ended, which
+     * is never worse than a linear merge and much faster when sizes differ.
+     * @param a An ordered array
+     * @param b An ordered array
+     * @return The intersection, in O(m log(n / m)) for sizes m <= n
+     */
+    public static OrderedIntArray intersection(OrderedIntArray a, OrderedIntArray b) {
+        OrderedIntArray small = a.size <= b.size ? a : b;
+        OrderedIntArray large = small == a ? b : a;
+        int[] result = new int[small.size];
+        int count = 0;
+        int at = 0;
+        for (int i = 0; i < small.size && at < large.size; i++) {
+            int value = small.elements[i];
+            if (count > 0 && result[count - 1] == value) {
+                continue;
+            }
+            at = gallop(large.elements, 0, large.size, value, at);
+            if (at < large.size && large.elements[at] == value) {
+                result[count++] = value;
+            }
+        }
+        return new OrderedIntArray(result, count);
+    }
+
+    /**
+     * Values in the first array but not the second, each once
+     * @param a An ordered array
+     * @param b An ordered array
+     * @return The difference a - b, in O(a.size() + b.size())
+     */
+    public static OrderedIntArray difference(OrderedIntArray a, OrderedIntArray b) {
+        int[] result = new int[a.size];
+        int count = 0;
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            int value = a.elements[i];
+            if (count > 0 && result[count - 1] == value) {
+                continue;
+            }
+            while (j < b.size && b.elements[j] < value) {
+                j++;
+            }
+            if (j == b.size || b.elements[j] != value) {
+                result[count++] = value;
+            }
+        }
+        return new OrderedIntArray(result, count);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(elements[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    // First index in [from, to) whose element is not less than value, or to
+    private static int lowerBound(int[] arr, int from, int to, int value) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arr[mid] < value) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // lowerBound over [from, to) by exponential search outward from hint
+    private static int gallop(int[] arr, int from, int to, int value, int hint) {
+        if (hint < to && arr[hint] < value) {
+            // The answer lies right of hint
+            int lo = hint + 1;
+            int step = 1;
+            while (lo < to && arr[lo + Math.min(step, to - lo) - 1] < value) {
+                lo += Math.min(step, to - lo);
+                step <<= 1;
+            }
+            return lowerBound(arr, lo, Math.min(to, lo + step), value);
+        }
+        // The answer is hint or left of it
+        int hi = hint;
+        int step = 1;
+        while (hi > from && arr[hi - Math.min(step, hi - from)] >= value) {
+            hi -= Math.min(step, hi - from);
+            step <<= 1;
+        }
+        return lowerBound(arr, Math.max(from, hi - step), hi, value);
+    }
+
+    // Grow by 1.5x, or straight to minCapacity if that is larger
+    private void grow(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required capacity " + minCapacity + " exceeds maximum array size");
+        }
+        int oldCapacity = elements.length;
+        int newCapacity = oldCapacity + (oldCapacity >> 1);
+        if (newCapacity < minCapacity || newCapacity < 0) {
+            newCapacity = Math.max(minCapacity, DEFAULT_CAPACITY);
+        }
+        if (newCapacity > MAX_CAPACITY) {
+            newCapacity = MAX_CAPACITY;
+        }
+        elements = Arrays.copyOf(elements, newCapacity);
+    }
+}
@@ -0,0 +1,120 @@
+import java.util.NoSuchElementException;
+
+/**
+ * Pairing min-heap: a heap-ordered multiway tree kept as child and sibling
+ * links. Insert and {@link #meld} are O(1), so workloads that merge many
+ * queues pay nothing for it, unlike an array heap that must copy one into
+ * the other; extract is O(log n) amortized using the two-pass pairing.
+ * Extraction is iterative, so long sibling lists cannot overflow the stack.
+ */
+public class PairingIntHeap implements IntHeap {
+    private static final class Node {
+        final int value;
+        // First child, and next sibling in the parent's child list
+        Node child;
+        Node sibling;
+
+        Node(int value) {
+            this.value = value;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    @Override
+    public void insert(int value) {
+        root = link(root, new Node(value));
+        size++;
+    }
+
+    @Override
+    public int peek() {
+        if (root == null) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        return root.value;
+    }
+
+    @Override
+    public int extract() {
+        if (root == null) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        int top = root.value;
+        root = combineSiblings(root.child);
+        size--;
+        return top;
+    }
+
+    /**
+     * Move every value of another heap into this one in O(1); the other heap
+     * is left empty
+     * @param other The heap to absorb
+     */
+    public void meld(PairingIntHeap other) {
+        if (other == this) {
+            throw new IllegalArgumentException("Cannot meld a heap with itself");
+        }
+        root = link(root, other.root);
+        size += other.size;
+        other.root = null;
+        other.size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    // Make the root with the larger value the first child of the other
+    private static Node link(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (b.value < a.value) {
+            Node t = a;
+            a = b;
+            b = t;
+        }
+        b.sibling = a.child;
+        a.child = b;
+        return a;
+    }
+
+    // Two-pass pairing: link siblings in pairs left to right, then fold the
+    // pairs right to left. The first pass threads the pairs onto a reversed
+    // list through their sibling links, so the second needs no extra space.
+    private static Node combineSiblings(Node first) {
+        Node pairs = null;
+        while (first != null) {
+            Node a = first;
+            Node b = a.sibling;
+            first = b == null ? null : b.sibling;
+            a.sibling = null;
+            if (b != null) {
+                b.sibling = null;
+            }
+            Node linked = link(a, b);
+            linked.sibling = pairs;
+            pairs = linked;
+        }
+        Node result = null;
+        while (pairs != null) {
+            Node next = pairs.sibling;
+            pairs.sibling = null;
+            result = link(result, pairs);
+            pairs = next;
+        }
+        return result;
+    }
+}
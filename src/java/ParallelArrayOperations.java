@@ -0,0 +1,215 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fork-join counterparts of {@code DataStructures.ArrayOperations} for very
+ * large arrays. Inputs shorter than the sequential threshold run on the
+ * calling thread with the scalar implementation.
+ */
+public final class ParallelArrayOperations {
+    // Default number of elements below which work is not split further
+    public static final int DEFAULT_THRESHOLD = 1 << 16;
+
+    private ParallelArrayOperations() {
+    }
+
+    /**
+     * Insert an element at a specific index, copying in parallel chunks
+     * @param arr The array to insert into
+     * @param index The position to insert at
+     * @param element The element to insert
+     * @return A new array with the element inserted
+     */
+    public static int[] insertAt(int[] arr, int index, int element) {
+        return insertAt(arr, index, element, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Insert an element at a specific index, copying in parallel chunks
+     * @param arr The array to insert into
+     * @param index The position to insert at
+     * @param element The element to insert
+     * @param threshold Chunk size below which copying runs sequentially
+     * @return A new array with the element inserted
+     */
+    public static int[] insertAt(int[] arr, int index, int element, int threshold) {
+        if (index < 0 || index > arr.length) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        checkThreshold(threshold);
+        if (arr.length < threshold) {
+            return DataStructures.ArrayOperations.insertAt(arr, index, element);
+        }
+        int[] newArr = new int[arr.length + 1];
+        newArr[index] = element;
+        ForkJoinPool.commonPool().invoke(new CopyTask(arr, 0, newArr, 0, index, threshold));
+        ForkJoinPool.commonPool().invoke(
+            new CopyTask(arr, index, newArr, index + 1, arr.length - index, threshold));
+        return newArr;
+    }
+
+    /**
+     * Delete an element at a specific index, copying in parallel chunks
+     * @param arr The array to delete from
+     * @param index The position to delete from
+     * @return A new array with the element deleted
+     */
+    public static int[] deleteAt(int[] arr, int index) {
+        return deleteAt(arr, index, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Delete an element at a specific index, copying in parallel chunks
+     * @param arr The array to delete from
+     * @param index The position to delete from
+     * @param threshold Chunk size below which copying runs sequentially
+     * @return A new array with the element deleted
+     */
+    public static int[] deleteAt(int[] arr, int index, int threshold) {
+        if (index < 0 || index >= arr.length) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        checkThreshold(threshold);
+        if (arr.length < threshold) {
+            return DataStructures.ArrayOperations.deleteAt(arr, index);
+        }
+        int[] newArr = new int[arr.length - 1];
+        ForkJoinPool.commonPool().invoke(new CopyTask(arr, 0, newArr, 0, index, threshold));
+        ForkJoinPool.commonPool().invoke(
+            new CopyTask(arr, index + 1, newArr, index, arr.length - index - 1, threshold));
+        return newArr;
+    }
+
+    /**
+     * Search for a value with a parallel first-match scan. Chunks that lie
+     * entirely after a match already found are skipped.
+     * @param arr The array to search in
+     * @param target The value to search for
+     * @return The index of the first occurrence, or -1 if not found
+     */
+    public static int search(int[] arr, int target) {
+        return search(arr, target, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Search for a value with a parallel first-match scan
+     * @param arr The array to search in
+     * @param target The value to search for
+     * @param threshold Chunk size below which scanning runs sequentially
+     * @return The index of the first occurrence, or -1 if not found
+     */
+    public static int search(int[] arr, int target, int threshold) {
+        checkThreshold(threshold);
+        if (arr.length < threshold) {
+            return DataStructures.ArrayOperations.search(arr, target);
+        }
+        AtomicInteger best = new AtomicInteger(Integer.MAX_VALUE);
+        ForkJoinPool.commonPool().invoke(new SearchTask(arr, target, 0, arr.length, threshold, best));
+        int index = best.get();
+        return index == Integer.MAX_VALUE ? -1 : index;
+    }
+
+    /**
+     * Update the value at a specific index. A single store gains nothing from
+     * parallelism, so this simply delegates to the scalar implementation.
+     * @param arr The array to update
+     * @param index The position to update
+     * @param newValue The new value
+     * @return true if update was successful, false otherwise
+     */
+    public static boolean update(int[] arr, int index, int newValue) {
+        return DataStructures.ArrayOperations.update(arr, index, newValue);
+    }
+
+    private static void checkThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+        }
+    }
+
+    // Copies src[srcPos, srcPos + length) to dest[destPos, ...) in parallel chunks
+    @SuppressWarnings("serial")
+    private static final class CopyTask extends RecursiveAction {
+        private final int[] src;
+        private final int srcPos;
+        private final int[] dest;
+        private final int destPos;
+        private final int length;
+        private final int threshold;
+
+        CopyTask(int[] src, int srcPos, int[] dest, int destPos, int length, int threshold) {
+            this.src = src;
+            this.srcPos = srcPos;
+            this.dest = dest;
+            this.destPos = destPos;
+            this.length = length;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (length <= threshold) {
+                System.arraycopy(src, srcPos, dest, destPos, length);
+                return;
+            }
+            int half = length >>> 1;
+            invokeAll(
+                new CopyTask(src, srcPos, dest, destPos, half, threshold),
+                new CopyTask(src, srcPos + half, dest, destPos + half, length - half, threshold));
+        }
+    }
+
+    // Scans [from, to) and lowers best to the smallest matching index found
+    @SuppressWarnings("serial")
+    private static final class SearchTask extends RecursiveAction {
+        private final int[] arr;
+        private final int target;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final AtomicInteger best;
+
+        SearchTask(int[] arr, int target, int from, int to, int threshold, AtomicInteger best) {
+            this.arr = arr;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.best = best;
+        }
+
+        @Override
+        protected void compute() {
+            // Early cancellation: a match before this range already wins
+            if (from >= best.get()) {
+                return;
+            }
+            if (to - from <= threshold) {
+                for (int i = from; i < to; i++) {
+                    if (arr[i] == target) {
+                        lowerBest(i);
+                        break;
+                    }
+                    // Check periodically whether an earlier match made this chunk moot
+                    if ((i & 4095) == 0 && i >= best.get()) {
+                        break;
+                    }
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            SearchTask right = new SearchTask(arr, target, mid, to, threshold, best);
+            right.fork();
+            new SearchTask(arr, target, from, mid, threshold, best).compute();
+            right.join();
+        }
+
+        private void lowerBest(int index) {
+            int current = best.get();
+            while (index < current && !best.compareAndSet(current, index)) {
+                current = best.get();
+            }
+        }
+    }
+}
@@ -0,0 +1,458 @@
+import java.util.Arrays;
+
+/**
+ * Immutable vector of ints with structural sharing: a 32-way tree whose
+ * leaves hold up to 32 values. Every "modifying" operation returns a new
+ * vector that copies only the O(log n) nodes on one root-to-leaf path and
+ * shares everything else with the old one, so keeping every historical
+ * version for undo costs O(log n) memory per version instead of the O(n)
+ * copy {@code ArrayOperations.insertAt} makes.
+ *
+ * <p>The tree follows the relaxed radix balanced (RRB) idea. Branches that
+ * are completely full except for their last child are <em>strict</em>, and
+ * a lookup finds the child with a shift and a mask, as in Clojure's or
+ * Scala's vectors. Inserting in the middle or concatenating can leave nodes
+ * partly full; such branches keep a table of cumulative child sizes and
+ * lookups use it instead. That relaxation is what makes insertAt, deleteAt
+ * and concat O(log n) rather than O(n). Nodes are merged only when they
+ * empty, so heavy deletion can leave sparse leaves behind.
+ */
+public final class PersistentIntVector {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final PersistentIntVector EMPTY = new PersistentIntVector(null, 0, 0);
+
+    private abstract static class Node {
+        abstract int size();
+    }
+
+    private static final class Leaf extends Node {
+        final int[] values;
+
+        Leaf(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        int size() {
+            return values.length;
+        }
+    }
+
+    private static final class Branch extends Node {
+        final Node[] children;
+        // sizes[i] = number of values in children[0..i]
+        final int[] sizes;
+        // Every child but the last is completely full, so radix indexing works
+        final boolean strict;
+
+        Branch(Node[] children, int[] sizes, boolean strict) {
+            this.children = children;
+            this.sizes = sizes;
+            this.strict = strict;
+        }
+
+        @Override
+        int size() {
+            return sizes[sizes.length - 1];
+        }
+    }
+
+    private final Node root;
+    private final int size;
+    // Number of branch levels above the leaves; 0 when the root is a leaf
+    private final int height;
+
+    private PersistentIntVector(Node root, int size, int height) {
+        this.root = root;
+        this.size = size;
+        this.height = height;
+    }
+
+    /**
+     * @return The empty vector
+     */
+    public static PersistentIntVector empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Build a vector holding a copy of the given values, with every node full
+     * @param values The values
+     * @return The new vector
+     */
+    public static PersistentIntVector of(int... values) {
+        if (values.length == 0) {
+            return EMPTY;
+        }
+        Node[] level = new Node[(values.length + MASK) >>> BITS];
+        for (int i = 0; i < level.length; i++) {
+            int from = i << BITS;
+            level[i] = new Leaf(Arrays.copyOfRange(values, from, Math.min(from + WIDTH, values.length)));
+        }
+        int height = 0;
+        while (level.length > 1) {
+            height++;
+            Node[] upper = new Node[(level.length + MASK) >>> BITS];
+            for (int i = 0; i < upper.length; i++) {
+                int from = i << BITS;
+                upper[i] = branch(Arrays.copyOfRange(level, from, Math.min(from + WIDTH, level.length)), height);
+            }
+            level = upper;
+        }
+        return new PersistentIntVector(level[0], values.length, height);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Get the value at a specific index
+     * @param index The position to read
+     * @return The value at that position
+     */
+    public int get(int index) {
+        checkIndex(index, size);
+        Node node = root;
+        for (int level = height; level > 0; level--) {
+            Branch branch = (Branch) node;
+            int child = childIndex(branch, index, level);
+            if (child > 0) {
+                index -= branch.sizes[child - 1];
+            }
+            node = branch.children[child];
+        }
+        return ((Leaf) node).values[index];
+    }
+
+    /**
+     * Search for a value in the vector
+     * @param value The value to search for
+     * @return The index of the first occurrence, or -1 if not found
+     */
+    public int search(int value) {
+        int[] offset = {0};
+        return root == null ? -1 : search(root, value, offset);
+    }
+
+    /**
+     * Replace the value at a specific index
+     * @param index The position to update
+     * @param newValue The new value
+     * @return A new vector with the value replaced
+     */
+    public PersistentIntVector update(int index, int newValue) {
+        checkIndex(index, size);
+        return new PersistentIntVector(update(root, height, index, newValue), size, height);
+    }
+
+    /**
+     * Insert a value at a specific index in O(log n)
+     * @param index The position to insert at, from 0 to size()
+     * @param value The value to insert
+     * @return A new vector with the value inserted
+     */
+    public PersistentIntVector insertAt(int index, int value) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        if (root == null) {
+            return new PersistentIntVector(new Leaf(new int[] {value}), 1, 0);
+        }
+        Node[] result = insert(root, height, index, value);
+        if (result.length == 1) {
+            return new PersistentIntVector(result[0], size + 1, height);
+        }
+        // The root split
+        return new PersistentIntVector(branch(result, height + 1), size + 1, height + 1);
+    }
+
+    /**
+     * @param value The value to append
+     * @return A new vector with the value added at the end
+     */
+    public PersistentIntVector append(int value) {
+        return insertAt(size, value);
+    }
+
+    /**
+     * Delete the value at a specific index in O(log n)
+     * @param index The position to delete from
+     * @return A new vector without that value
+     */
+    public PersistentIntVector deleteAt(int index) {
+        checkIndex(index, size);
+        if (size == 1) {
+            return EMPTY;
+        }
+        Node newRoot = delete(root, height, index);
+        int newHeight = height;
+        // Drop roots left with a single child
+        while (newRoot instanceof Branch && ((Branch) newRoot).children.length == 1) {
+            newRoot = ((Branch) newRoot).children[0];
+            newHeight--;
+        }
+        return new PersistentIntVector(newRoot, size - 1, newHeight);
+    }
+
+    /**
+     * Concatenate two vectors in O(log n): the shorter tree is grafted onto
+     * the facing edge of the taller one
+     * @param other The vector to append
+     * @return A new vector holding this vector's values followed by the other's
+     */
+    public PersistentIntVector concat(PersistentIntVector other) {
+        if (other.size == 0) {
+            return this;
+        }
+        if (size == 0) {
+            return other;
+        }
+        if (height >= other.height) {
+            Node[] result = graftRight(root, height, other.root, other.height);
+            return joined(result, height, size + other.size);
+        }
+        Node[] result = graftLeft(other.root, other.height, root, height);
+        return joined(result, other.height, size + other.size);
+    }
+
+    /**
+     * @return The values in order
+     */
+    public int[] toArray() {
+        int[] result = new int[size];
+        if (root != null) {
+            copyTo(root, result, 0);
+        }
+        return result;
+    }
+
+    private static PersistentIntVector joined(Node[] result, int height, int size) {
+        if (result.length == 1) {
+            return new PersistentIntVector(result[0], size, height);
+        }
+        return new PersistentIntVector(branch(result, height + 1), size, height + 1);
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+    }
+
+    // Values a full subtree at this level holds
+    private static long capacity(int level) {
+        return 1L << (BITS * (level + 1));
+    }
+
+    // Build a branch at the given level, with size table and strictness
+    private static Branch branch(Node[] children, int level) {
+        int[] sizes = new int[children.length];
+        int total = 0;
+        boolean strict = true;
+        long full = capacity(level - 1);
+        for (int i = 0; i < children.length; i++) {
+            Node child = children[i];
+            total += child.size();
+            sizes[i] = total;
+            if (i < children.length - 1 ? child.size() != full : !isStrict(child)) {
+                strict = false;
+            }
+        }
+        return new Branch(children, sizes, strict);
+    }
+
+    private static boolean isStrict(Node node) {
+        return node instanceof Leaf || ((Branch) node).strict;
+    }
+
+    private static int childIndex(Branch branch, int index, int level) {
+        int guess = (index >>> (BITS * level)) & MASK;
+        if (branch.strict) {
+            return guess;
+        }
+        // Children hold at most a full subtree each, so the radix guess never overshoots
+        while (branch.sizes[guess] <= index) {
+            guess++;
+        }
+        return guess;
+    }
+
+    private static int search(Node node, int value, int[] offset) {
+        if (node instanceof Leaf) {
+            int[] values = ((Leaf) node).values;
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == value) {
+                    return offset[0] + i;
+                }
+            }
+            offset[0] += values.length;
+            return -1;
+        }
+        for (Node child : ((Branch) node).children) {
+            int found = search(child, value, offset);
+            if (found >= 0) {
+                return found;
+            }
+        }
+        return -1;
+    }
+
+    private static Node update(Node node, int level, int index, int newValue) {
+        if (level == 0) {
+            int[] values = ((Leaf) node).values.clone();
+            values[index] = newValue;
+            return new Leaf(values);
+        }
+        Branch branch = (Branch) node;
+        int child = childIndex(branch, index, level);
+        int offset = child == 0 ? 0 : branch.sizes[child - 1];
+        Node[] children = branch.children.clone();
+        children[child] = update(children[child], level - 1, index - offset, newValue);
+        // Sizes and strictness are unchanged
+        return new Branch(children, branch.sizes, branch.strict);
+    }
+
+    // Returns the replacement for node: one node, or two if it overflowed and split
+    private static Node[] insert(Node node, int level, int index, int value) {
+        if (level == 0) {
+            int[] old = ((Leaf) node).values;
+            int[] values = new int[old.length + 1];
+            System.arraycopy(old, 0, values, 0, index);
+            values[index] = value;
+            System.arraycopy(old, index, values, index + 1, old.length - index);
+            if (values.length <= WIDTH) {
+                return new Node[] {new Leaf(values)};
+            }
+            int half = values.length >>> 1;
+            return new Node[] {
+                new Leaf(Arrays.copyOfRange(values, 0, half)),
+                new Leaf(Arrays.copyOfRange(values, half, values.length))
+            };
+        }
+        Branch branch = (Branch) node;
+        // Appending goes into the last child even though index equals its end
+        int child = index == branch.size() ? branch.children.length - 1 : childIndex(branch, index, level);
+        int offset = child == 0 ? 0 : branch.sizes[child - 1];
+        Node[] replaced = insert(branch.children[child], level - 1, index - offset, value);
+        return replaceChild(branch, level, child, replaced);
+    }
+
+    // Substitute replacement nodes for children[child], splitting the branch if it overflows
+    private static Node[] replaceChild(Branch branch, int level, int child, Node[] replacement) {
+        Node[] old = branch.children;
+        Node[] children = new Node[old.length - 1 + replacement.length];
+        System.arraycopy(old, 0, children, 0, child);
+        System.arraycopy(replacement, 0, children, child, replacement.length);
+        System.arraycopy(old, child + 1, children, child + replacement.length, old.length - child - 1);
+        return split(children, level);
+    }
+
+    private static Node[] split(Node[] children, int level) {
+        if (children.length <= WIDTH) {
+            return new Node[] {branch(children, level)};
+        }
+        int half = children.length >>> 1;
+        return new Node[] {
+            branch(Arrays.copyOfRange(children, 0, half), level),
+            branch(Arrays.copyOfRange(children, half, children.length), level)
+        };
+    }
+
+    // Returns the node without the value at index, or null if that emptied it
+    private static Node delete(Node node, int level, int index) {
+        if (level == 0) {
+            int[] old = ((Leaf) node).values;
+            if (old.length == 1) {
+                return null;
+            }
+            int[] values = new int[old.length - 1];
+            System.arraycopy(old, 0, values, 0, index);
+            System.arraycopy(old, index + 1, values, index, old.length - index - 1);
+            return new Leaf(values);
+        }
+        Branch branch = (Branch) node;
+        int child = childIndex(branch, index, level);
+        int offset = child == 0 ? 0 : branch.sizes[child - 1];
+        Node replaced = delete(branch.children[child], level - 1, index - offset);
+        if (replaced != null) {
+            Node[] children = branch.children.clone();
+            children[child] = replaced;
+            return branch(children, level);
+        }
+        if (branch.children.length == 1) {
+            return null;
+        }
+        Node[] children = new Node[branch.children.length - 1];
+        System.arraycopy(branch.children, 0, children, 0, child);
+        System.arraycopy(branch.children, child + 1, children, child, children.length - child);
+        return branch(children, level);
+    }
+
+    // Attach a subtree of level subLevel <= level along the right edge of node
+    private static Node[] graftRight(Node node, int level, Node sub, int subLevel) {
+        if (level == subLevel) {
+            return joinSiblings(node, sub, level);
+        }
+        Branch branch = (Branch) node;
+        int last = branch.children.length - 1;
+        if (level - 1 == subLevel) {
+            Node[] replacement = joinSiblings(branch.children[last], sub, subLevel);
+            return replaceChild(branch, level, last, replacement);
+        }
+        return replaceChild(branch, level, last, graftRight(branch.children[last], level - 1, sub, subLevel));
+    }
+
+    // Attach a subtree of level subLevel <= level along the left edge of node
+    private static Node[] graftLeft(Node node, int level, Node sub, int subLevel) {
+        if (level == subLevel) {
+            return joinSiblings(sub, node, level);
+        }
+        Branch branch = (Branch) node;
+        if (level - 1 == subLevel) {
+            return replaceChild(branch, level, 0, joinSiblings(sub, branch.children[0], subLevel));
+        }
+        return replaceChild(branch, level, 0, graftLeft(branch.children[0], level - 1, sub, subLevel));
+    }
+
+    // Two adjacent nodes of the same level as one node if they fit, otherwise as two
+    private static Node[] joinSiblings(Node left, Node right, int level) {
+        if (level == 0) {
+            int[] a = ((Leaf) left).values;
+            int[] b = ((Leaf) right).values;
+            if (a.length + b.length > WIDTH) {
+                return new Node[] {left, right};
+            }
+            int[] values = Arrays.copyOf(a, a.length + b.length);
+            System.arraycopy(b, 0, values, a.length, b.length);
+            return new Node[] {new Leaf(values)};
+        }
+        Node[] a = ((Branch) left).children;
+        Node[] b = ((Branch) right).children;
+        if (a.length + b.length > WIDTH) {
+            return new Node[] {left, right};
+        }
+        Node[] children = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, children, a.length, b.length);
+        return new Node[] {branch(children, level)};
+    }
+
+    private static int copyTo(Node node, int[] target, int offset) {
+        if (node instanceof Leaf) {
+            int[] values = ((Leaf) node).values;
+            System.arraycopy(values, 0, target, offset, values.length);
+            return offset + values.length;
+        }
+        for (Node child : ((Branch) node).children) {
+            offset = copyTo(child, target, offset);
+        }
+        return offset;
+    }
+}
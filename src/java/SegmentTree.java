@@ -0,0 +1,202 @@
+/**
+ * Segment tree with lazy propagation: node p covers a range of the array
+ * and its children 2p and 2p + 1 cover the two halves. Each node keeps the
+ * sum, min and max of its range, plus an addition not yet passed down to
+ * its children, so a range addition touches O(log n) nodes instead of
+ * every value in the range.
+ *
+ * <p>This is the recursive top-down form; FlatSegmentTree stores the same
+ * information but walks it bottom-up without recursion.
+ */
+public class SegmentTree implements IntRangeTree {
+    private static final int SUM = 0;
+    private static final int MIN = 1;
+    private static final int MAX = 2;
+
+    private final int size;
+    private final long[] sums;
+    private final long[] mins;
+    private final long[] maxs;
+    // Addition already applied to node p but not yet to its children
+    private final long[] pending;
+
+    /**
+     * Create a tree of zeros
+     * @param size Number of values
+     */
+    public SegmentTree(int size) {
+        this(new int[size]);
+    }
+
+    private SegmentTree(int[] arr) {
+        this.size = arr.length;
+        // A range split at its midpoint needs node indices below twice the next power of two
+        int nodes = 4 * Integer.highestOneBit(Math.max(1, size - 1));
+        this.sums = new long[nodes];
+        this.mins = new long[nodes];
+        this.maxs = new long[nodes];
+        this.pending = new long[nodes];
+        if (size > 0) {
+            build(1, 0, size, arr);
+        }
+    }
+
+    /**
+     * Build a tree holding the values of an array in O(n)
+     * @param arr The initial values; the array is not modified
+     * @return The tree
+     */
+    public static SegmentTree of(int[] arr) {
+        return new SegmentTree(arr);
+    }
+
+    private void build(int node, int lo, int hi, int[] arr) {
+        if (hi - lo == 1) {
+            sums[node] = arr[lo];
+            mins[node] = arr[lo];
+            maxs[node] = arr[lo];
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        build(2 * node, lo, mid, arr);
+        build(2 * node + 1, mid, hi, arr);
+        pull(node);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long get(int index) {
+        checkIndex(index);
+        return query(1, 0, size, index, index + 1, SUM);
+    }
+
+    @Override
+    public void set(int index, long value) {
+        checkIndex(index);
+        set(1, 0, size, index, value);
+    }
+
+    private void set(int node, int lo, int hi, int index, long value) {
+        if (hi - lo == 1) {
+            sums[node] = value;
+            mins[node] = value;
+            maxs[node] = value;
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        push(node, lo, mid, hi);
+        if (index < mid) {
+            set(2 * node, lo, mid, index, value);
+        } else {
+            set(2 * node + 1, mid, hi, index, value);
+        }
+        pull(node);
+    }
+
+    @Override
+    public void addRange(int fromIndex, int toIndex, long delta) {
+        checkRange(fromIndex, toIndex);
+        if (fromIndex < toIndex) {
+            addRange(1, 0, size, fromIndex, toIndex, delta);
+        }
+    }
+
+    private void addRange(int node, int lo, int hi, int fromIndex, int toIndex, long delta) {
+        if (fromIndex <= lo && hi <= toIndex) {
+            apply(node, hi - lo, delta);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        push(node, lo, mid, hi);
+        if (fromIndex < mid) {
+            addRange(2 * node, lo, mid, fromIndex, toIndex, delta);
+        }
+        if (toIndex > mid) {
+            addRange(2 * node + 1, mid, hi, fromIndex, toIndex, delta);
+        }
+        pull(node);
+    }
+
+    @Override
+    public long sum(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        return fromIndex == toIndex ? 0 : query(1, 0, size, fromIndex, toIndex, SUM);
+    }
+
+    @Override
+    public long min(int fromIndex, int toIndex) {
+        checkNonEmptyRange(fromIndex, toIndex);
+        return query(1, 0, size, fromIndex, toIndex, MIN);
+    }
+
+    @Override
+    public long max(int fromIndex, int toIndex) {
+        checkNonEmptyRange(fromIndex, toIndex);
+        return query(1, 0, size, fromIndex, toIndex, MAX);
+    }
+
+    // Aggregate of [fromIndex, toIndex) within the node's range [lo, hi); the two must overlap
+    private long query(int node, int lo, int hi, int fromIndex, int toIndex, int kind) {
+        if (fromIndex <= lo && hi <= toIndex) {
+            return kind == SUM ? sums[node] : kind == MIN ? mins[node] : maxs[node];
+        }
+        int mid = (lo + hi) >>> 1;
+        push(node, lo, mid, hi);
+        if (toIndex <= mid) {
+            return query(2 * node, lo, mid, fromIndex, toIndex, kind);
+        }
+        if (fromIndex >= mid) {
+            return query(2 * node + 1, mid, hi, fromIndex, toIndex, kind);
+        }
+        long left = query(2 * node, lo, mid, fromIndex, toIndex, kind);
+        long right = query(2 * node + 1, mid, hi, fromIndex, toIndex, kind);
+        return kind == SUM ? left + right : kind == MIN ? Math.min(left, right) : Math.max(left, right);
+    }
+
+    private void apply(int node, int length, long delta) {
+        sums[node] += delta * length;
+        mins[node] += delta;
+        maxs[node] += delta;
+        pending[node] += delta;
+    }
+
+    // Pass the node's pending addition to its children
+    private void push(int node, int lo, int mid, int hi) {
+        long delta = pending[node];
+        if (delta != 0) {
+            apply(2 * node, mid - lo, delta);
+            apply(2 * node + 1, hi - mid, delta);
+            pending[node] = 0;
+        }
+    }
+
+    private void pull(int node) {
+        sums[node] = sums[2 * node] + sums[2 * node + 1];
+        mins[node] = Math.min(mins[2 * node], mins[2 * node + 1]);
+        maxs[node] = Math.max(maxs[2 * node], maxs[2 * node + 1]);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    private void checkRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException(
+                "Range [" + fromIndex + ", " + toIndex + ") out of bounds for size " + size);
+        }
+    }
+
+    private void checkNonEmptyRange(int fromIndex, int toIndex) {
+        checkRange(fromIndex, toIndex);
+        if (fromIndex == toIndex) {
+            throw new IllegalArgumentException("Empty range [" + fromIndex + ", " + toIndex + ")");
+        }
+    }
+}
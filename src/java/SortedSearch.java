@@ -0,0 +1,138 @@
+/**
+ * Search routines for arrays sorted in ascending order. Every method returns
+ * the index of the first occurrence of the target, or -1 if it is absent,
+ * matching {@code ArrayOperations.search} on the same array.
+ */
+public final class SortedSearch {
+    private SortedSearch() {
+    }
+
+    /**
+     * Classic binary search for the first occurrence of the target
+     * @param arr The sorted array to search in
+     * @param target The value to search for
+     * @return The index of the first occurrence, or -1 if not found
+     */
+    public static int binary(int[] arr, int target) {
+        int lo = 0;
+        int hi = arr.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arr[mid] < target) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo < arr.length && arr[lo] == target ? lo : -1;
+    }
+
+    /**
+     * Binary search whose loop body has no data-dependent branch, so the JIT
+     * can emit a conditional move and the CPU never mispredicts
+     * @param arr The sorted array to search in
+     * @param target The value to search for
+     * @return The index of the first occurrence, or -1 if not found
+     */
+    public static int branchless(int[] arr, int target) {
+        int n = arr.length;
+        if (n == 0) {
+            return -1;
+        }
+        int base = 0;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = arr[base + half - 1] < target ? base + half : base;
+            n -= half;
+        }
+        int index = arr[base] < target ? base + 1 : base;
+        return index < arr.length && arr[index] == target ? index : -1;
+    }
+
+    /**
+     * Interpolation search, O(log log n) probes for uniformly distributed
+     * keys. Falls back to bisection once the probe budget of about
+     * 2 log2(n) steps is spent, so skewed data stays O(log n).
+     * @param arr The sorted array to search in
+     * @param target The value to search for
+     * @return The index of the first occurrence, or -1 if not found
+     */
+    public static int interpolation(int[] arr, int target) {
+        int lo = 0;
+        int hi = arr.length - 1;
+        if (hi < 0 || target < arr[0] || target > arr[hi]) {
+            return -1;
+        }
+        // Invariant: the first occurrence, if any, lies in [lo, hi]
+        int budget = 2 * (32 - Integer.numberOfLeadingZeros(arr.length));
+        while (lo < hi) {
+            int pos;
+            long span = (long) arr[hi] - arr[lo];
+            if (budget-- > 0 && span > 0) {
+                pos = lo + (int) (((long) target - arr[lo]) * (hi - lo) / span);
+                pos = Math.max(lo, Math.min(pos, hi - 1));
+            } else {
+                pos = (lo + hi) >>> 1;
+            }
+            if (arr[pos] < target) {
+                lo = pos + 1;
+            } else {
+                hi = pos;
+            }
+        }
+        return arr[lo] == target ? lo : -1;
+    }
+
+    /**
+     * Copy of a sorted array in Eytzinger (breadth-first heap) order. The
+     * top levels of the implicit tree share a few cache lines, so repeated
+     * lookups against the same array touch less memory than binary search.
+     */
+    public static final class EytzingerIndex {
+        // 1-based heap layout; slot 0 is unused
+        private final int[] keys;
+        // Position of each slot's key in the original sorted array
+        private final int[] positions;
+
+        /**
+         * Build the layout in O(n)
+         * @param sorted An array sorted in ascending order
+         */
+        public EytzingerIndex(int[] sorted) {
+            this.keys = new int[sorted.length + 1];
+            this.positions = new int[sorted.length + 1];
+            fill(sorted, 0, 1);
+        }
+
+        private int fill(int[] sorted, int next, int slot) {
+            if (slot < keys.length) {
+                next = fill(sorted, next, 2 * slot);
+                keys[slot] = sorted[next];
+                positions[slot] = next++;
+                next = fill(sorted, next, 2 * slot + 1);
+            }
+            return next;
+        }
+
+        public int size() {
+            return keys.length - 1;
+        }
+
+        /**
+         * Search for a value
+         * @param target The value to search for
+         * @return The index of the first occurrence in the original sorted
+         *         array, or -1 if not found
+         */
+        public int search(int target) {
+            int n = keys.length;
+            int k = 1;
+            while (k < n) {
+                k = 2 * k + (keys[k] < target ? 1 : 0);
+            }
+            // Undo the trailing right turns to land on the lower bound
+            k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+            return k != 0 && keys[k] == target ? positions[k] : -1;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread-safe int-to-int hash map split into independently locked stripes,
+ * each an IntIntHashMap. Writers to different stripes never wait for each
+ * other, unlike a map behind one synchronized wrapper. Reads first try an
+ * optimistic StampedLock read, which writes nothing shared, and retake the
+ * read lock only if a writer got in the way, so read-mostly workloads do not
+ * bounce a lock's cache line between cores.
+ *
+ * <p>{@link #size()} sums the stripes one at a time, so it is only a
+ * snapshot while other threads write.
+ */
+public class StripedIntIntHashMap {
+    private static final class Stripe {
+        final StampedLock lock = new StampedLock();
+        final IntIntHashMap map;
+
+        Stripe(int expectedSize) {
+            map = new IntIntHashMap(expectedSize);
+        }
+    }
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    /**
+     * Create a map with four stripes per available processor
+     */
+    public StripedIntIntHashMap() {
+        this(Runtime.getRuntime().availableProcessors() * 4, 16);
+    }
+
+    /**
+     * @param stripes Number of independently locked parts; rounded up to a power of two
+     * @param expectedSize Number of entries the map should hold without growing
+     */
+    public StripedIntIntHashMap(int stripes, int expectedSize) {
+        if (stripes < 1 || stripes > 1 << 16) {
+            throw new IllegalArgumentException("Illegal stripe count: " + stripes);
+        }
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        int count = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Stripe[count];
+        this.stripeMask = count - 1;
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe(expectedSize / count + 1);
+        }
+    }
+
+    // IntIntHashMap places keys by the high bits of a Fibonacci hash, so stripes
+    // are chosen from the low bits of a different mix to keep the two independent
+    private Stripe stripeFor(int key) {
+        int h = key * 0x85EBCA6B;
+        h ^= h >>> 16;
+        return stripes[h & stripeMask];
+    }
+
+    /**
+     * Get the value for a key
+     * @param key The key to look up
+     * @param defaultValue Returned if the key is absent
+     * @return The key's value, or defaultValue
+     */
+    public int get(int key, int defaultValue) {
+        Stripe stripe = stripeFor(key);
+        long stamp = stripe.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            int value = stripe.map.get(key, defaultValue);
+            if (stripe.lock.validate(stamp)) {
+                return value;
+            }
+        }
+        stamp = stripe.lock.readLock();
+        try {
+            return stripe.map.get(key, defaultValue);
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @param key The key to look up
+     * @return true if the map has an entry for the key
+     */
+    public boolean containsKey(int key) {
+        Stripe stripe = stripeFor(key);
+        long stamp = stripe.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            boolean present = stripe.map.containsKey(key);
+            if (stripe.lock.validate(stamp)) {
+                return present;
+            }
+        }
+        stamp = stripe.lock.readLock();
+        try {
+            return stripe.map.containsKey(key);
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Associate a value with a key, replacing any previous value
+     * @param key The key
+     * @param value The value
+     * @return true if the key was new, false if an existing value was replaced
+     */
+    public boolean put(int key, int value) {
+        Stripe stripe = stripeFor(key);
+        long stamp = stripe.lock.writeLock();
+        try {
+            return stripe.map.put(key, value);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Atomically add to the value of a key, starting from 0 if it is absent
+     * @param key The key
+     * @param delta The amount to add
+     * @return The new value
+     */
+    public int addTo(int key, int delta) {
+        Stripe stripe = stripeFor(key);
+        long stamp = stripe.lock.writeLock();
+        try {
+            int value = stripe.map.get(key, 0) + delta;
+            stripe.map.put(key, value);
+            return value;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove the entry for a key
+     * @param key The key
+     * @return true if an entry was removed
+     */
+    public boolean remove(int key) {
+        Stripe stripe = stripeFor(key);
+        long stamp = stripe.lock.writeLock();
+        try {
+            return stripe.map.remove(key);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return The number of entries; only a snapshot while other threads write
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                size += stripe.map.size();
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
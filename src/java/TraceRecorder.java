@@ -0,0 +1,280 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact recording of what an operation did while it ran, for replaying
+ * it in the visualizer instead of rebuilding every step by hand. TracedOperations
+ * reports each compare, shift, write, swap, pointer update and node visit
+ * here as it happens.
+ *
+ * <p>Events go into a ring buffer preallocated at construction, two longs
+ * per event, so recording allocates nothing however long the operation
+ * runs. Once the buffer is full the oldest events are overwritten; {@link #dropped()}
+ * says how many were lost. A trace is turned into {@code AlgorithmVisualizer.Step}
+ * objects or streamed out as JSON, in both cases optionally downsampled to
+ * a number of events a player can show. A recorder is not thread-safe.
+ */
+public final class TraceRecorder {
+    // Event kinds, with the meaning of their three int operands
+    public enum Kind {
+        // a = index or node compared, b = value found there, c = value compared against
+        COMPARE,
+        // a = index moved from, b = index moved to, c = value moved
+        SHIFT,
+        // a = index or node written, b = new value
+        WRITE,
+        // a and b = indices exchanged
+        SWAP,
+        // a = node whose link changed, b = node it now points to, or -1 for null
+        POINTER,
+        // a = node visited, b = its value
+        VISIT
+    }
+
+    // Receives events without any being materialized as objects
+    public interface EventVisitor {
+        /**
+         * @param sequence Position of the event in the whole trace, counting dropped events
+         * @param kind What happened
+         * @param a First operand, see Kind
+         * @param b Second operand
+         * @param c Third operand
+         */
+        void visit(long sequence, Kind kind, int a, int b, int c);
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int MAX_CAPACITY = 1 << 29;
+
+    // Event i occupies events[2i] = kind << 32 | a and events[2i + 1] = b << 32 | c
+    private final long[] events;
+    private final int mask;
+    // Events recorded since the last clear, including overwritten ones
+    private long recorded;
+
+    public TraceRecorder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity Number of most recent events kept; rounded up to a power of two
+     */
+    public TraceRecorder(int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.events = new long[size * 2];
+        this.mask = size - 1;
+    }
+
+    public void compare(int index, int found, int target) {
+        add(Kind.COMPARE, index, found, target);
+    }
+
+    public void shift(int from, int to, int value) {
+        add(Kind.SHIFT, from, to, value);
+    }
+
+    public void write(int index, int value) {
+        add(Kind.WRITE, index, value, 0);
+    }
+
+    public void swap(int i, int j) {
+        add(Kind.SWAP, i, j, 0);
+    }
+
+    public void pointer(int node, int target) {
+        add(Kind.POINTER, node, target, 0);
+    }
+
+    public void visit(int node, int value) {
+        add(Kind.VISIT, node, value, 0);
+    }
+
+    private void add(Kind kind, int a, int b, int c) {
+        int slot = ((int) recorded & mask) << 1;
+        events[slot] = (long) kind.ordinal() << 32 | (a & 0xFFFFFFFFL);
+        events[slot + 1] = (long) b << 32 | (c & 0xFFFFFFFFL);
+        recorded++;
+    }
+
+    /**
+     * @return Number of events held, at most the capacity
+     */
+    public int size() {
+        return (int) Math.min(recorded, mask + 1);
+    }
+
+    /**
+     * @return Number of events recorded since the last clear, including overwritten ones
+     */
+    public long recorded() {
+        return recorded;
+    }
+
+    /**
+     * @return Number of oldest events overwritten because the buffer was full
+     */
+    public long dropped() {
+        return recorded - size();
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Discard all events; the buffer is reused
+     */
+    public void clear() {
+        recorded = 0;
+    }
+
+    /**
+     * Pass every held event to the visitor, oldest first
+     * @param visitor Receives the events
+     */
+    public void forEach(EventVisitor visitor) {
+        forEachSampled(Integer.MAX_VALUE, visitor);
+    }
+
+    /**
+     * Pass at most maxEvents held events to the visitor, oldest first. If there
+     * are more, events are taken at even intervals, always including the first
+     * and the last, so a long trace can be played back at a fixed length.
+     * @param maxEvents Largest number of events to pass on, at least 2
+     * @param visitor Receives the events
+     */
+    public void forEachSampled(int maxEvents, EventVisitor visitor) {
+        if (maxEvents < 2) {
+            throw new IllegalArgumentException("Need room for at least 2 events: " + maxEvents);
+        }
+        int size = size();
+        long first = recorded - size;
+        if (size <= maxEvents) {
+            for (int i = 0; i < size; i++) {
+                emit(first + i, visitor);
+            }
+            return;
+        }
+        // Event k of the sample is the held event at round(k * (size - 1) / (maxEvents - 1))
+        long span = size - 1;
+        long steps = maxEvents - 1;
+        for (long k = 0; k <= steps; k++) {
+            emit(first + (k * span + steps / 2) / steps, visitor);
+        }
+    }
+
+    private void emit(long sequence, EventVisitor visitor) {
+        int slot = ((int) sequence & mask) << 1;
+        long head = events[slot];
+        long tail = events[slot + 1];
+        visitor.visit(sequence, KINDS[(int) (head >>> 32)], (int) head, (int) (tail >>> 32), (int) tail);
+    }
+
+    /**
+     * Convert the trace into visualizer steps, one per event
+     * @param maxSteps Largest number of steps; longer traces are sampled as in forEachSampled
+     * @return The steps, oldest first
+     */
+    public List<AlgorithmVisualizer.Step> toSteps(int maxSteps) {
+        List<AlgorithmVisualizer.Step> steps = new ArrayList<>(Math.min(size(), maxSteps));
+        forEachSampled(maxSteps, (sequence, kind, a, b, c) -> steps.add(toStep(kind, a, b, c)));
+        return steps;
+    }
+
+    private static AlgorithmVisualizer.Step toStep(Kind kind, int a, int b, int c) {
+        switch (kind) {
+            case COMPARE:
+                return new AlgorithmVisualizer.Step("Compare",
+                    "Compare " + b + " at " + a + " with " + c + (b == c ? ": match." : "."));
+            case SHIFT:
+                return new AlgorithmVisualizer.Step("Shift Element", "Move " + c + " from " + a + " to " + b + ".");
+            case WRITE:
+                return new AlgorithmVisualizer.Step("Write Value", "Store " + b + " at " + a + ".");
+            case SWAP:
+                return new AlgorithmVisualizer.Step("Swap", "Exchange the elements at " + a + " and " + b + ".");
+            case POINTER:
+                return new AlgorithmVisualizer.Step("Update Pointer",
+                    "Point node " + a + " at " + (b < 0 ? "null" : "node " + b) + ".");
+            default:
+                return new AlgorithmVisualizer.Step("Visit Node", "Visit node " + a + " holding " + b + ".");
+        }
+    }
+
+    /**
+     * Stream the trace as JSON:
+     * {@code {"recorded":N,"dropped":D,"events":[{"seq":0,"kind":"COMPARE","a":3,"b":7,"c":9},...]}}.
+     * Numbers are formatted into a reused buffer, so nothing is allocated per event.
+     * @param out Where to write; not flushed or closed
+     * @param maxEvents Largest number of events; longer traces are sampled as in forEachSampled
+     * @throws IOException If writing fails
+     */
+    public void writeJson(Writer out, int maxEvents) throws IOException {
+        JsonEventWriter writer = new JsonEventWriter(out);
+        out.write("{\"recorded\":");
+        writer.number(recorded);
+        out.write(",\"dropped\":");
+        writer.number(dropped());
+        out.write(",\"events\":[");
+        forEachSampled(maxEvents, writer);
+        if (writer.failure != null) {
+            throw writer.failure;
+        }
+        out.write("]}");
+    }
+
+    // Visitor that writes each event as a JSON object; the first I/O failure stops the output
+    private static final class JsonEventWriter implements EventVisitor {
+        private final Writer out;
+        // Long.MIN_VALUE has 20 characters
+        private final char[] digits = new char[20];
+        private boolean first = true;
+        IOException failure;
+
+        JsonEventWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void visit(long sequence, Kind kind, int a, int b, int c) {
+            if (failure != null) {
+                return;
+            }
+            try {
+                out.write(first ? "{\"seq\":" : ",{\"seq\":");
+                first = false;
+                number(sequence);
+                out.write(",\"kind\":\"");
+                out.write(kind.name());
+                out.write("\",\"a\":");
+                number(a);
+                out.write(",\"b\":");
+                number(b);
+                out.write(",\"c\":");
+                number(c);
+                out.write('}');
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+
+        void number(long value) throws IOException {
+            int position = digits.length;
+            // Work with the negative value, which also covers Long.MIN_VALUE
+            long remaining = value < 0 ? value : -value;
+            do {
+                digits[--position] = (char) ('0' - remaining % 10);
+                remaining /= 10;
+            } while (remaining != 0);
+            if (value < 0) {
+                digits[--position] = '-';
+            }
+            out.write(digits, position, digits.length - position);
+        }
+    }
+}
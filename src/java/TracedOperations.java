@@ -0,0 +1,269 @@
+/**
+ * The operations shown in AlgorithmVisualizer, run for real on the caller's
+ * data while reporting every elementary step to a TraceRecorder. They follow
+ * the code samples in AlgorithmVisualizer step for step (element-by-element
+ * copies rather than System.arraycopy, a plain unbalanced BST for the tree),
+ * so a trace replays exactly what the visualizer's code describes, and they
+ * return the same results as DataStructures.
+ *
+ * <p>Array events use indices. List events identify a node by its position
+ * in the list at the time of the event, and tree events by the node's value.
+ */
+public final class TracedOperations {
+    private TracedOperations() {
+    }
+
+    /**
+     * Insert an element at a specific index in the array
+     * @param arr The array to insert into
+     * @param index The position to insert at
+     * @param element The element to insert
+     * @param trace Receives a SHIFT per copied element and a WRITE for the new one
+     * @return A new array with the element inserted
+     */
+    public static int[] insertAt(int[] arr, int index, int element, TraceRecorder trace) {
+        if (index < 0 || index > arr.length) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        int[] newArr = new int[arr.length + 1];
+        for (int i = 0; i < index; i++) {
+            newArr[i] = arr[i];
+            trace.shift(i, i, arr[i]);
+        }
+        newArr[index] = element;
+        trace.write(index, element);
+        for (int i = index; i < arr.length; i++) {
+            newArr[i + 1] = arr[i];
+            trace.shift(i, i + 1, arr[i]);
+        }
+        return newArr;
+    }
+
+    /**
+     * Delete an element at a specific index in the array
+     * @param arr The array to delete from
+     * @param index The position to delete from
+     * @param trace Receives a SHIFT per copied element
+     * @return A new array with the element deleted
+     */
+    public static int[] deleteAt(int[] arr, int index, TraceRecorder trace) {
+        if (index < 0 || index >= arr.length) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        int[] newArr = new int[arr.length - 1];
+        for (int i = 0; i < index; i++) {
+            newArr[i] = arr[i];
+            trace.shift(i, i, arr[i]);
+        }
+        for (int i = index + 1; i < arr.length; i++) {
+            newArr[i - 1] = arr[i];
+            trace.shift(i, i - 1, arr[i]);
+        }
+        return newArr;
+    }
+
+    /**
+     * Search for a value in the array
+     * @param arr The array to search in
+     * @param target The value to search for
+     * @param trace Receives a COMPARE per element examined
+     * @return The index of the target value, or -1 if not found
+     */
+    public static int search(int[] arr, int target, TraceRecorder trace) {
+        for (int i = 0; i < arr.length; i++) {
+            trace.compare(i, arr[i], target);
+            if (arr[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Update the value at a specific index in the array
+     * @param arr The array to update
+     * @param index The position to update
+     * @param newValue The new value
+     * @param trace Receives a WRITE if the index exists
+     * @return true if update was successful, false otherwise
+     */
+    public static boolean update(int[] arr, int index, int newValue, TraceRecorder trace) {
+        if (index < 0 || index >= arr.length) {
+            return false;
+        }
+        arr[index] = newValue;
+        trace.write(index, newValue);
+        return true;
+    }
+
+    /**
+     * Insert a new node into the linked list at a specific position
+     * @param head The head of the linked list
+     * @param value The value to insert
+     * @param position The position to insert at
+     * @param trace Receives a VISIT per node passed and a POINTER per link changed
+     * @return The new head of the linked list
+     */
+    public static DataStructures.LinkedListOperations.Node insertNode(DataStructures.LinkedListOperations.Node head,
+            int value, int position, TraceRecorder trace) {
+        DataStructures.LinkedListOperations.Node newNode = new DataStructures.LinkedListOperations.Node(value);
+        if (position == 0) {
+            newNode.next = head;
+            trace.pointer(0, head == null ? -1 : 1);
+            return newNode;
+        }
+        DataStructures.LinkedListOperations.Node current = head;
+        int i = 0;
+        for (; i < position - 1 && current != null; i++) {
+            trace.visit(i, current.value);
+            current = current.next;
+        }
+        if (current != null) {
+            trace.visit(i, current.value);
+            newNode.next = current.next;
+            trace.pointer(i + 1, current.next == null ? -1 : i + 2);
+            current.next = newNode;
+            trace.pointer(i, i + 1);
+        }
+        return head;
+    }
+
+    /**
+     * Delete a node from the linked list at a specific position
+     * @param head The head of the linked list
+     * @param position The position to delete from
+     * @param trace Receives a VISIT per node passed and a POINTER for the bypassing link
+     * @return The new head of the linked list
+     */
+    public static DataStructures.LinkedListOperations.Node deleteNode(DataStructures.LinkedListOperations.Node head,
+            int position, TraceRecorder trace) {
+        if (head == null) {
+            return null;
+        }
+        if (position == 0) {
+            trace.visit(0, head.value);
+            return head.next;
+        }
+        DataStructures.LinkedListOperations.Node current = head;
+        int i = 0;
+        for (; i < position - 1 && current.next != null; i++) {
+            trace.visit(i, current.value);
+            current = current.next;
+        }
+        trace.visit(i, current.value);
+        if (current.next != null) {
+            current.next = current.next.next;
+            trace.pointer(i, current.next == null ? -1 : i + 2);
+        }
+        return head;
+    }
+
+    /**
+     * Search for a value in the linked list
+     * @param head The head of the linked list
+     * @param value The value to search for
+     * @param trace Receives a COMPARE per node examined
+     * @return The position of the value, or -1 if not found
+     */
+    public static int searchNode(DataStructures.LinkedListOperations.Node head, int value, TraceRecorder trace) {
+        DataStructures.LinkedListOperations.Node current = head;
+        int position = 0;
+        while (current != null) {
+            trace.compare(position, current.value, value);
+            if (current.value == value) {
+                return position;
+            }
+            current = current.next;
+            position++;
+        }
+        return -1;
+    }
+
+    /**
+     * Update the value of a node at a specific position
+     * @param head The head of the linked list
+     * @param position The position to update
+     * @param newValue The new value
+     * @param trace Receives a VISIT per node passed and a WRITE if the node exists
+     * @return true if update was successful, false otherwise
+     */
+    public static boolean updateNode(DataStructures.LinkedListOperations.Node head, int position, int newValue,
+            TraceRecorder trace) {
+        DataStructures.LinkedListOperations.Node current = head;
+        for (int i = 0; i < position && current != null; i++) {
+            trace.visit(i, current.value);
+            current = current.next;
+        }
+        if (current != null) {
+            current.value = newValue;
+            trace.write(position, newValue);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Insert a value into a binary search tree, without rebalancing, as in TREE_INSERT
+     * @param root The root of the tree
+     * @param value The value to insert; ignored if already present
+     * @param trace Receives a COMPARE per node on the path and a POINTER for the new link
+     * @return The new root of the tree
+     */
+    public static AlgorithmVisualizer.TreeOperations.TreeNode treeInsert(
+            AlgorithmVisualizer.TreeOperations.TreeNode root, int value, TraceRecorder trace) {
+        AlgorithmVisualizer.TreeOperations.TreeNode node = new AlgorithmVisualizer.TreeOperations.TreeNode(value);
+        if (root == null) {
+            return node;
+        }
+        // Iterative, so degenerate (sorted) input of any length cannot overflow the stack
+        AlgorithmVisualizer.TreeOperations.TreeNode current = root;
+        while (true) {
+            trace.compare(current.value, current.value, value);
+            if (value == current.value) {
+                return root;
+            }
+            AlgorithmVisualizer.TreeOperations.TreeNode next = value < current.value ? current.left : current.right;
+            if (next == null) {
+                if (value < current.value) {
+                    current.left = node;
+                } else {
+                    current.right = node;
+                }
+                trace.pointer(current.value, value);
+                return root;
+            }
+            current = next;
+        }
+    }
+
+    /**
+     * Search for a value in a binary search tree
+     * @param root The root of the tree
+     * @param value The value to search for
+     * @param trace Receives a COMPARE per node on the path
+     * @return The node holding the value, or null if not found
+     */
+    public static AlgorithmVisualizer.TreeOperations.TreeNode treeSearch(
+            AlgorithmVisualizer.TreeOperations.TreeNode root, int value, TraceRecorder trace) {
+        AlgorithmVisualizer.TreeOperations.TreeNode current = root;
+        while (current != null) {
+            trace.compare(current.value, current.value, value);
+            if (current.value == value) {
+                return current;
+            }
+            current = value < current.value ? current.left : current.right;
+        }
+        return null;
+    }
+
+    /**
+     * Visit every node of a tree in the given order, as in TREE_TRAVERSAL
+     * @param root The root of the tree
+     * @param order The traversal order
+     * @param trace Receives a VISIT per node, in visiting order
+     */
+    public static void traverse(AlgorithmVisualizer.TreeOperations.TreeNode root, TreeTraversals.Order order,
+            TraceRecorder trace) {
+        TreeTraversals.iterator(root, order).forEachRemaining((int value) -> trace.visit(value, value));
+    }
+}
@@ -0,0 +1,243 @@
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Whole-tree operations on {@code AlgorithmVisualizer.TreeOperations.TreeNode}
+ * that avoid inserting one key at a time. Building from sorted input takes
+ * O(n) instead of n calls to TREE_INSERT, and union, intersection and
+ * difference merge the two trees' inorder sequences in O(m + n).
+ *
+ * <p>Every tree returned here is perfectly balanced and has its height and
+ * size fields set, so it can be handed straight to BalancedTreeOperations.
+ * Input trees are left unchanged.
+ */
+public final class TreeBulkOperations {
+    // Default number of values below which a parallel build stops forking
+    public static final int DEFAULT_THRESHOLD = 1 << 14;
+
+    private TreeBulkOperations() {
+    }
+
+    /**
+     * Build a perfectly balanced tree from values in ascending order
+     * @param sorted Values in ascending order; duplicates are stored once
+     * @return The root of the new tree, or null if the array is empty
+     * @throws IllegalArgumentException If the values are not in ascending order
+     */
+    public static AlgorithmVisualizer.TreeOperations.TreeNode buildFromSorted(int[] sorted) {
+        int[] distinct = distinctSorted(sorted);
+        return build(distinct, 0, distinct.length);
+    }
+
+    /**
+     * Build a perfectly balanced tree from values in ascending order, building
+     * left and right subtrees on the common fork-join pool
+     * @param sorted Values in ascending order; duplicates are stored once
+     * @return The root of the new tree, or null if the array is empty
+     * @throws IllegalArgumentException If the values are not in ascending order
+     */
+    public static AlgorithmVisualizer.TreeOperations.TreeNode parallelBuildFromSorted(int[] sorted) {
+        return parallelBuildFromSorted(sorted, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Build a perfectly balanced tree from values in ascending order, building
+     * left and right subtrees on the common fork-join pool
+     * @param sorted Values in ascending order; duplicates are stored once
+     * @param threshold Subtree size below which building runs sequentially
+     * @return The root of the new tree, or null if the array is empty
+     * @throws IllegalArgumentException If the values are not in ascending order
+     */
+    public static AlgorithmVisualizer.TreeOperations.TreeNode parallelBuildFromSorted(int[] sorted,
+                                                                                   int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+        }
+        int[] distinct = distinctSorted(sorted);
+        if (distinct.length < threshold) {
+            return build(distinct, 0, distinct.length);
+        }
+        return ForkJoinPool.commonPool().invoke(new BuildTask(distinct, 0, distinct.length, threshold));
+    }
+
+    /**
+     * @param a The root of the first tree
+     * @param b The root of the second tree
+     * @return A new tree holding every value in either tree
+     */
+    public static AlgorithmVisualizer.TreeOperations.TreeNode union(
+            AlgorithmVisualizer.TreeOperations.TreeNode a, AlgorithmVisualizer.TreeOperations.TreeNode b) {
+        IntArrayList merged = new IntArrayList();
+        PrimitiveIterator.OfInt left = TreeTraversals.iterator(a, TreeTraversals.Order.INORDER);
+        PrimitiveIterator.OfInt right = TreeTraversals.iterator(b, TreeTraversals.Order.INORDER);
+        boolean hasX = left.hasNext();
+        boolean hasY = right.hasNext();
+        int x = hasX ? left.nextInt() : 0;
+        int y = hasY ? right.nextInt() : 0;
+        while (hasX || hasY) {
+            int next;
+            if (!hasY || hasX && x < y) {
+                next = x;
+            } else {
+                next = y;
+            }
+            appendDistinct(merged, next);
+            // Consume whichever side produced the value, both on a tie
+            if (hasX && x == next) {
+                hasX = left.hasNext();
+                x = hasX ? left.nextInt() : 0;
+            }
+            if (hasY && y == next) {
+                hasY = right.hasNext();
+                y = hasY ? right.nextInt() : 0;
+            }
+        }
+        return buildFromDistinct(merged);
+    }
+
+    /**
+     * @param a The root of the first tree
+     * @param b The root of the second tree
+     * @return A new tree holding the values present in both trees
+     */
+    public static AlgorithmVisualizer.TreeOperations.TreeNode intersect(
+            AlgorithmVisualizer.TreeOperations.TreeNode a, AlgorithmVisualizer.TreeOperations.TreeNode b) {
+        IntArrayList merged = new IntArrayList();
+        PrimitiveIterator.OfInt left = TreeTraversals.iterator(a, TreeTraversals.Order.INORDER);
+        PrimitiveIterator.OfInt right = TreeTraversals.iterator(b, TreeTraversals.Order.INORDER);
+        if (!left.hasNext() || !right.hasNext()) {
+            return null;
+        }
+        int x = left.nextInt();
+        int y = right.nextInt();
+        while (true) {
+            if (x < y) {
+                if (!left.hasNext()) {
+                    break;
+                }
+                x = left.nextInt();
+            } else if (y < x) {
+                if (!right.hasNext()) {
+                    break;
+                }
+                y = right.nextInt();
+            } else {
+                appendDistinct(merged, x);
+                if (!left.hasNext() || !right.hasNext()) {
+                    break;
+                }
+                x = left.nextInt();
+                y = right.nextInt();
+            }
+        }
+        return buildFromDistinct(merged);
+    }
+
+    /**
+     * @param a The root of the tree to subtract from
+     * @param b The root of the tree whose values are removed
+     * @return A new tree holding the values of the first tree that are not in the second
+     */
+    public static AlgorithmVisualizer.TreeOperations.TreeNode difference(
+            AlgorithmVisualizer.TreeOperations.TreeNode a, AlgorithmVisualizer.TreeOperations.TreeNode b) {
+        IntArrayList merged = new IntArrayList();
+        PrimitiveIterator.OfInt left = TreeTraversals.iterator(a, TreeTraversals.Order.INORDER);
+        PrimitiveIterator.OfInt right = TreeTraversals.iterator(b, TreeTraversals.Order.INORDER);
+        boolean hasY = right.hasNext();
+        int y = hasY ? right.nextInt() : 0;
+        while (left.hasNext()) {
+            int x = left.nextInt();
+            // Skip the values of b that are below x
+            while (hasY && y < x) {
+                hasY = right.hasNext();
+                y = hasY ? right.nextInt() : 0;
+            }
+            if (!hasY || y != x) {
+                appendDistinct(merged, x);
+            }
+        }
+        return buildFromDistinct(merged);
+    }
+
+    // The values of sorted without repeats; sorted itself if it has none
+    private static int[] distinctSorted(int[] sorted) {
+        int distinct = sorted.length == 0 ? 0 : 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] < sorted[i - 1]) {
+                throw new IllegalArgumentException("Values are not sorted at index " + i);
+            }
+            if (sorted[i] != sorted[i - 1]) {
+                distinct++;
+            }
+        }
+        if (distinct == sorted.length) {
+            return sorted;
+        }
+        int[] result = new int[distinct];
+        result[0] = sorted[0];
+        int count = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[i - 1]) {
+                result[count++] = sorted[i];
+            }
+        }
+        return result;
+    }
+
+    // Trees built outside BalancedTreeOperations may hold repeats; drop them here
+    private static void appendDistinct(IntArrayList list, int value) {
+        if (list.size() == 0 || list.get(list.size() - 1) != value) {
+            list.add(value);
+        }
+    }
+
+    private static AlgorithmVisualizer.TreeOperations.TreeNode buildFromDistinct(IntArrayList values) {
+        return build(values.toArray(), 0, values.size());
+    }
+
+    // Middle element as root, halves as subtrees; recursion depth is log2(n)
+    private static AlgorithmVisualizer.TreeOperations.TreeNode build(int[] values, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        AlgorithmVisualizer.TreeOperations.TreeNode node = new AlgorithmVisualizer.TreeOperations.TreeNode(values[mid]);
+        node.left = build(values, from, mid);
+        node.right = build(values, mid + 1, to);
+        BalancedTreeOperations.update(node);
+        return node;
+    }
+
+    // Builds the subtree for values[from, to), forking the left half
+    @SuppressWarnings("serial")
+    private static final class BuildTask extends RecursiveTask<AlgorithmVisualizer.TreeOperations.TreeNode> {
+        private final int[] values;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        BuildTask(int[] values, int from, int to, int threshold) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected AlgorithmVisualizer.TreeOperations.TreeNode compute() {
+            if (to - from <= threshold) {
+                return build(values, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            BuildTask left = new BuildTask(values, from, mid, threshold);
+            left.fork();
+            AlgorithmVisualizer.TreeOperations.TreeNode node =
+                new AlgorithmVisualizer.TreeOperations.TreeNode(values[mid]);
+            node.right = new BuildTask(values, mid + 1, to, threshold).compute();
+            node.left = left.join();
+            BalancedTreeOperations.update(node);
+            return node;
+        }
+    }
+}
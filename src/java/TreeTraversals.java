@@ -0,0 +1,419 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Executable versions of TREE_TRAVERSAL over
+ * {@code AlgorithmVisualizer.TreeOperations.TreeNode}. Values are handed to
+ * the caller instead of printed, lazily through iterators and spliterators,
+ * and nothing recurses, so skewed trees cannot overflow the stack.
+ *
+ * <p>Depth-first traversals keep a stack of pending work, O(h) entries, that
+ * grows in place and does not allocate per node. Their spliterators split off
+ * whole subtrees, so {@code stream(root, order, true)} hands big subtrees to
+ * other fork-join workers while keeping encounter order. Level order keeps a
+ * queue of O(width) nodes and does not split, since no prefix of a level-order
+ * walk is a subtree. {@link #forEachMorris} visits inorder or preorder in O(1)
+ * extra space by threading the tree temporarily.
+ *
+ * <p>The tree must not be modified while a traversal is in progress.
+ */
+public final class TreeTraversals {
+    public enum Order {
+        INORDER, PREORDER, POSTORDER, LEVEL_ORDER
+    }
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private TreeTraversals() {
+    }
+
+    /**
+     * @param root The root of the tree, or null
+     * @param order The traversal order
+     * @return A lazy iterator over the values in the given order
+     */
+    public static PrimitiveIterator.OfInt iterator(AlgorithmVisualizer.TreeOperations.TreeNode root, Order order) {
+        return order == Order.LEVEL_ORDER ? new LevelOrder(root) : new DepthFirst(root, order);
+    }
+
+    /**
+     * @param root The root of the tree, or null
+     * @param order The traversal order
+     * @return An ordered spliterator over the values; depth-first orders can be split
+     */
+    public static Spliterator.OfInt spliterator(AlgorithmVisualizer.TreeOperations.TreeNode root, Order order) {
+        return order == Order.LEVEL_ORDER ? new LevelOrder(root) : new DepthFirst(root, order);
+    }
+
+    /**
+     * @param root The root of the tree, or null
+     * @param order The traversal order
+     * @param parallel Whether the stream may process subtrees in parallel
+     * @return A stream of the values in the given encounter order
+     */
+    public static IntStream stream(AlgorithmVisualizer.TreeOperations.TreeNode root, Order order,
+                                   boolean parallel) {
+        return StreamSupport.intStream(spliterator(root, order), parallel);
+    }
+
+    /**
+     * Morris traversal: visit every value with O(1) extra space by pointing
+     * the rightmost node of each left subtree back at its ancestor while that
+     * subtree is walked. Every temporary link is removed before returning,
+     * also when the action throws; the exception is rethrown once the tree
+     * has been restored.
+     * @param root The root of the tree, or null
+     * @param order INORDER or PREORDER
+     * @param action Called with each value
+     * @throws IllegalArgumentException If the order is POSTORDER or LEVEL_ORDER
+     */
+    public static void forEachMorris(AlgorithmVisualizer.TreeOperations.TreeNode root, Order order,
+                                     IntConsumer action) {
+        if (order != Order.INORDER && order != Order.PREORDER) {
+            throw new IllegalArgumentException("Morris traversal supports INORDER and PREORDER, not " + order);
+        }
+        boolean inorder = order == Order.INORDER;
+        // Once the action fails the walk continues without it, only to undo the threads
+        Throwable failure = null;
+        AlgorithmVisualizer.TreeOperations.TreeNode current = root;
+        while (current != null) {
+            boolean visit = false;
+            AlgorithmVisualizer.TreeOperations.TreeNode next;
+            if (current.left == null) {
+                visit = true;
+                next = current.right;
+            } else {
+                AlgorithmVisualizer.TreeOperations.TreeNode predecessor = current.left;
+                while (predecessor.right != null && predecessor.right != current) {
+                    predecessor = predecessor.right;
+                }
+                if (predecessor.right == null) {
+                    // First arrival: thread the predecessor back here and go left
+                    predecessor.right = current;
+                    visit = !inorder;
+                    next = current.left;
+                } else {
+                    // Back from the left subtree: remove the thread and go right
+                    predecessor.right = null;
+                    visit = inorder;
+                    next = current.right;
+                }
+            }
+            if (visit && failure == null) {
+                try {
+                    action.accept(current.value);
+                } catch (RuntimeException | Error e) {
+                    failure = e;
+                }
+            }
+            current = next;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+    }
+
+    // Size of the tree if BalancedTreeOperations maintains it, otherwise -1
+    private static long knownSize(AlgorithmVisualizer.TreeOperations.TreeNode root) {
+        if (root == null) {
+            return 0;
+        }
+        int expected = 1 + BalancedTreeOperations.size(root.left) + BalancedTreeOperations.size(root.right);
+        return root.size == expected ? root.size : -1;
+    }
+
+    /**
+     * Depth-first walk driven by a stack of tasks. A SUBTREE task expands into
+     * its children's SUBTREE tasks and its own VALUE_ONLY task, pushed so they
+     * pop in the requested order; a VALUE_ONLY task emits the node's value.
+     * The top of the stack is always the next piece of work in encounter order,
+     * so a split hands off the top half of the stack.
+     */
+    private static final class DepthFirst implements PrimitiveIterator.OfInt, Spliterator.OfInt {
+        private static final boolean SUBTREE = true;
+        private static final boolean VALUE_ONLY = false;
+
+        private final Order order;
+        private AlgorithmVisualizer.TreeOperations.TreeNode[] nodes;
+        private boolean[] subtree;
+        private int top;
+        // Used only when the tree's size fields are not maintained
+        private long estimate;
+        private final boolean sizesKnown;
+        // Node fetched by hasNext() and not yet returned
+        private AlgorithmVisualizer.TreeOperations.TreeNode pending;
+
+        DepthFirst(AlgorithmVisualizer.TreeOperations.TreeNode root, Order order) {
+            this(order, new AlgorithmVisualizer.TreeOperations.TreeNode[INITIAL_CAPACITY],
+                new boolean[INITIAL_CAPACITY], 0, Long.MAX_VALUE, knownSize(root) >= 0);
+            if (root != null) {
+                push(root, SUBTREE);
+            }
+        }
+
+        private DepthFirst(Order order, AlgorithmVisualizer.TreeOperations.TreeNode[] nodes, boolean[] subtree,
+                           int top, long estimate, boolean sizesKnown) {
+            this.order = order;
+            this.nodes = nodes;
+            this.subtree = subtree;
+            this.top = top;
+            this.estimate = estimate;
+            this.sizesKnown = sizesKnown;
+        }
+
+        private void push(AlgorithmVisualizer.TreeOperations.TreeNode node, boolean kind) {
+            if (top == nodes.length) {
+                nodes = Arrays.copyOf(nodes, top * 2);
+                subtree = Arrays.copyOf(subtree, top * 2);
+            }
+            nodes[top] = node;
+            subtree[top++] = kind;
+        }
+
+        // Push a subtree's parts in reverse of the order they must come out
+        private void expand(AlgorithmVisualizer.TreeOperations.TreeNode node) {
+            switch (order) {
+                case INORDER:
+                    if (node.right != null) {
+                        push(node.right, SUBTREE);
+                    }
+                    push(node, VALUE_ONLY);
+                    if (node.left != null) {
+                        push(node.left, SUBTREE);
+                    }
+                    break;
+                case PREORDER:
+                    if (node.right != null) {
+                        push(node.right, SUBTREE);
+                    }
+                    if (node.left != null) {
+                        push(node.left, SUBTREE);
+                    }
+                    push(node, VALUE_ONLY);
+                    break;
+                default:
+                    push(node, VALUE_ONLY);
+                    if (node.right != null) {
+                        push(node.right, SUBTREE);
+                    }
+                    if (node.left != null) {
+                        push(node.left, SUBTREE);
+                    }
+                    break;
+            }
+        }
+
+        private AlgorithmVisualizer.TreeOperations.TreeNode advance() {
+            if (pending != null) {
+                AlgorithmVisualizer.TreeOperations.TreeNode node = pending;
+                pending = null;
+                return node;
+            }
+            while (top > 0) {
+                AlgorithmVisualizer.TreeOperations.TreeNode node = nodes[--top];
+                nodes[top] = null;
+                if (subtree[top] == VALUE_ONLY) {
+                    return node;
+                }
+                expand(node);
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (pending == null) {
+                pending = advance();
+            }
+            return pending != null;
+        }
+
+        @Override
+        public int nextInt() {
+            AlgorithmVisualizer.TreeOperations.TreeNode node = advance();
+            if (node == null) {
+                throw new NoSuchElementException();
+            }
+            return node.value;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            AlgorithmVisualizer.TreeOperations.TreeNode node = advance();
+            if (node == null) {
+                return false;
+            }
+            action.accept(node.value);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            for (AlgorithmVisualizer.TreeOperations.TreeNode node = advance(); node != null; node = advance()) {
+                action.accept(node.value);
+            }
+        }
+
+        // Both interfaces supply a boxed default; pick one
+        @Override
+        public void forEachRemaining(Consumer<? super Integer> action) {
+            forEachRemaining(action instanceof IntConsumer ? (IntConsumer) action : (IntConsumer) action::accept);
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            if (pending != null) {
+                return null;
+            }
+            // A lone subtree is opened up so there is something to hand off
+            while (top == 1 && subtree[0] == SUBTREE) {
+                AlgorithmVisualizer.TreeOperations.TreeNode node = nodes[0];
+                top = 0;
+                expand(node);
+            }
+            if (top < 2) {
+                return null;
+            }
+            int count = top / 2;
+            int capacity = Math.max(INITIAL_CAPACITY, count * 2);
+            AlgorithmVisualizer.TreeOperations.TreeNode[] prefixNodes =
+                new AlgorithmVisualizer.TreeOperations.TreeNode[capacity];
+            boolean[] prefixKinds = new boolean[capacity];
+            System.arraycopy(nodes, top - count, prefixNodes, 0, count);
+            System.arraycopy(subtree, top - count, prefixKinds, 0, count);
+            Arrays.fill(nodes, top - count, top, null);
+            top -= count;
+            estimate >>>= 1;
+            return new DepthFirst(order, prefixNodes, prefixKinds, count, estimate, sizesKnown);
+        }
+
+        @Override
+        public long estimateSize() {
+            if (!sizesKnown) {
+                return estimate;
+            }
+            long sum = pending != null ? 1 : 0;
+            for (int i = 0; i < top; i++) {
+                sum += subtree[i] == SUBTREE ? BalancedTreeOperations.size(nodes[i]) : 1;
+            }
+            return sum;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+
+    // Breadth-first walk over a growable ring buffer of nodes
+    private static final class LevelOrder implements PrimitiveIterator.OfInt, Spliterator.OfInt {
+        private AlgorithmVisualizer.TreeOperations.TreeNode[] queue =
+            new AlgorithmVisualizer.TreeOperations.TreeNode[INITIAL_CAPACITY];
+        private int head;
+        private int count;
+        private long remaining;
+
+        LevelOrder(AlgorithmVisualizer.TreeOperations.TreeNode root) {
+            long size = knownSize(root);
+            remaining = size >= 0 ? size : Long.MAX_VALUE;
+            if (root != null) {
+                offer(root);
+            }
+        }
+
+        private void offer(AlgorithmVisualizer.TreeOperations.TreeNode node) {
+            if (count == queue.length) {
+                AlgorithmVisualizer.TreeOperations.TreeNode[] grown =
+                    new AlgorithmVisualizer.TreeOperations.TreeNode[count * 2];
+                int firstPart = Math.min(count, queue.length - head);
+                System.arraycopy(queue, head, grown, 0, firstPart);
+                System.arraycopy(queue, 0, grown, firstPart, count - firstPart);
+                queue = grown;
+                head = 0;
+            }
+            queue[(head + count) & (queue.length - 1)] = node;
+            count++;
+        }
+
+        private AlgorithmVisualizer.TreeOperations.TreeNode poll() {
+            if (count == 0) {
+                return null;
+            }
+            AlgorithmVisualizer.TreeOperations.TreeNode node = queue[head];
+            queue[head] = null;
+            head = (head + 1) & (queue.length - 1);
+            count--;
+            if (node.left != null) {
+                offer(node.left);
+            }
+            if (node.right != null) {
+                offer(node.right);
+            }
+            if (remaining != Long.MAX_VALUE) {
+                remaining--;
+            }
+            return node;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return count > 0;
+        }
+
+        @Override
+        public int nextInt() {
+            AlgorithmVisualizer.TreeOperations.TreeNode node = poll();
+            if (node == null) {
+                throw new NoSuchElementException();
+            }
+            return node.value;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            AlgorithmVisualizer.TreeOperations.TreeNode node = poll();
+            if (node == null) {
+                return false;
+            }
+            action.accept(node.value);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            for (AlgorithmVisualizer.TreeOperations.TreeNode node = poll(); node != null; node = poll()) {
+                action.accept(node.value);
+            }
+        }
+
+        // Both interfaces supply a boxed default; pick one
+        @Override
+        public void forEachRemaining(Consumer<? super Integer> action) {
+            forEachRemaining(action instanceof IntConsumer ? (IntConsumer) action : (IntConsumer) action::accept);
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return remaining;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * Unrolled linked list of ints: each node holds a small block of values, so a
+ * traversal pays one pointer hop and one object header per block instead of
+ * per value. Positional operations mirror
+ * {@code DataStructures.LinkedListOperations}.
+ */
+public class UnrolledIntList {
+    // 64 bytes of values; with its 16-byte header the int[] spans two cache lines, sometimes three
+    private static final int BLOCK_SIZE = 16;
+
+    private static final class Block {
+        final int[] values = new int[BLOCK_SIZE];
+        int count;
+        Block next;
+    }
+
+    // Never null; may be empty only when the whole list is empty
+    private final Block head = new Block();
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Insert a value at a specific position
+     * @param value The value to insert
+     * @param position The position to insert at
+     * @return true if inserted, false if the position is past the end
+     */
+    public boolean insertNode(int value, int position) {
+        if (position < 0 || position > size) {
+            return false;
+        }
+        // Find the first block the position falls in or just after
+        Block block = head;
+        while (position > block.count) {
+            position -= block.count;
+            block = block.next;
+        }
+        if (block.count == BLOCK_SIZE) {
+            Block split = splitBlock(block);
+            if (position > block.count) {
+                position -= block.count;
+                block = split;
+            }
+        }
+        System.arraycopy(block.values, position, block.values, position + 1, block.count - position);
+        block.values[position] = value;
+        block.count++;
+        size++;
+        return true;
+    }
+
+    /**
+     * Delete the value at a specific position
+     * @param position The position to delete from
+     * @return true if deleted, false if there is no such position
+     */
+    public boolean deleteNode(int position) {
+        if (position < 0 || position >= size) {
+            return false;
+        }
+        Block previous = null;
+        Block block = head;
+        while (position >= block.count) {
+            position -= block.count;
+            previous = block;
+            block = block.next;
+        }
+        System.arraycopy(block.values, position + 1, block.values, position, block.count - position - 1);
+        block.count--;
+        size--;
+        // Keep blocks at least half full by merging with the following block
+        Block next = block.next;
+        if (next != null && block.count + next.count <= BLOCK_SIZE
+                && (block.count < BLOCK_SIZE / 2 || next.count < BLOCK_SIZE / 2)) {
+            System.arraycopy(next.values, 0, block.values, block.count, next.count);
+            block.count += next.count;
+            block.next = next.next;
+        }
+        // A block left empty has no following block to merge; unlink it unless it is the head
+        if (block.count == 0 && previous != null) {
+            previous.next = block.next;
+        }
+        return true;
+    }
+
+    /**
+     * Search for a value in the list
+     * @param value The value to search for
+     * @return The position of the value, or -1 if not found
+     */
+    public int searchNode(int value) {
+        int offset = 0;
+        for (Block block = head; block != null; block = block.next) {
+            int[] values = block.values;
+            for (int i = 0, n = block.count; i < n; i++) {
+                if (values[i] == value) {
+                    return offset + i;
+                }
+            }
+            offset += block.count;
+        }
+        return -1;
+    }
+
+    /**
+     * Update the value at a specific position
+     * @param position The position to update
+     * @param newValue The new value
+     * @return true if update was successful, false otherwise
+     */
+    public boolean updateNode(int position, int newValue) {
+        if (position < 0 || position >= size) {
+            return false;
+        }
+        Block block = head;
+        while (position >= block.count) {
+            position -= block.count;
+            block = block.next;
+        }
+        block.values[position] = newValue;
+        return true;
+    }
+
+    /**
+     * Get the value at a specific position
+     * @param position The position to read
+     * @return The value at that position
+     */
+    public int get(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of bounds for size " + size);
+        }
+        Block block = head;
+        while (position >= block.count) {
+            position -= block.count;
+            block = block.next;
+        }
+        return block.values[position];
+    }
+
+    /**
+     * @return The values in list order as a plain array
+     */
+    public int[] toArray() {
+        int[] result = new int[size];
+        int offset = 0;
+        for (Block block = head; block != null; block = block.next) {
+            System.arraycopy(block.values, 0, result, offset, block.count);
+            offset += block.count;
+        }
+        return result;
+    }
+
+    // Move the upper half of a full block into a new block linked after it
+    private static Block splitBlock(Block block) {
+        Block split = new Block();
+        int half = BLOCK_SIZE / 2;
+        System.arraycopy(block.values, half, split.values, 0, BLOCK_SIZE - half);
+        split.count = BLOCK_SIZE - half;
+        block.count = half;
+        split.next = block.next;
+        block.next = split;
+        return split;
+    }
+}
@@ -0,0 +1,64 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Linear search that compares a whole vector of lanes per step using the
+ * incubating Vector API. Compile and run with
+ * {@code --add-modules jdk.incubator.vector}; when the module is not present
+ * at runtime {@link #indexOf(int[], int)} falls back to a scalar scan.
+ */
+public final class VectorizedSearch {
+    private static final boolean AVAILABLE =
+        ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private VectorizedSearch() {
+    }
+
+    /**
+     * @return true if searches run on the Vector API rather than the scalar fallback
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Search for a value in the array
+     * @param arr The array to search in
+     * @param target The value to search for
+     * @return The index of the first occurrence, or -1 if not found
+     */
+    public static int indexOf(int[] arr, int target) {
+        if (AVAILABLE) {
+            return Lanes.indexOf(arr, target);
+        }
+        return scalarIndexOf(arr, target, 0);
+    }
+
+    static int scalarIndexOf(int[] arr, int target, int from) {
+        for (int i = from; i < arr.length; i++) {
+            if (arr[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Vector API types are only linked once this holder is initialized
+    private static final class Lanes {
+        private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+        static int indexOf(int[] arr, int target) {
+            int step = SPECIES.length();
+            int bound = SPECIES.loopBound(arr.length);
+            int i = 0;
+            for (; i < bound; i += step) {
+                VectorMask<Integer> hits = IntVector.fromArray(SPECIES, arr, i).eq(target);
+                if (hits.anyTrue()) {
+                    return i + hits.firstTrue();
+                }
+            }
+            return scalarIndexOf(arr, target, i);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+import java.util.Arrays;
+
+/**
+ * Static xor filter with 8-bit fingerprints (Graf and Lemire): each value
+ * hashes to one slot in each third of a byte table, and is reported present
+ * when the xor of its three slots equals its fingerprint. About 9.9 bits a
+ * value, a false-positive rate of 1/256, and a lookup of three independent
+ * reads with no branches.
+ *
+ * <p>The table is solved once at build time, so values cannot be added
+ * afterwards: rebuild with {@link #of(int[])} when the guarded data gains
+ * values. Use BlockedBloomFilter where the data changes often or another
+ * false-positive rate is needed.
+ */
+public final class XorFilter implements IntMembershipFilter {
+    // Table slots per value, plus a constant, as the construction needs to succeed reliably
+    private static final double LOAD = 1.23;
+    private static final int EXTRA_SLOTS = 32;
+    private static final int MAX_ATTEMPTS = 100;
+
+    private final long seed;
+    private final int segmentLength;
+    private final byte[] fingerprints;
+    private final int count;
+
+    private XorFilter(long seed, int segmentLength, byte[] fingerprints, int count) {
+        this.seed = seed;
+        this.segmentLength = segmentLength;
+        this.fingerprints = fingerprints;
+        this.count = count;
+    }
+
+    /**
+     * Build a filter holding every value of an array; duplicates are allowed
+     * @param arr The values; the array is not modified
+     * @return The filter
+     */
+    public static XorFilter of(int[] arr) {
+        int[] values = arr.clone();
+        Arrays.sort(values);
+        int distinct = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i == 0 || values[i] != values[i - 1]) {
+                values[distinct++] = values[i];
+            }
+        }
+        return build(Arrays.copyOf(values, distinct));
+    }
+
+    /**
+     * Build a filter holding every value of a linked list
+     * @param head The head of the linked list
+     * @return The filter
+     */
+    public static XorFilter of(DataStructures.LinkedListOperations.Node head) {
+        int length = 0;
+        for (DataStructures.LinkedListOperations.Node n = head; n != null; n = n.next) {
+            length++;
+        }
+        int[] values = new int[length];
+        int i = 0;
+        for (DataStructures.LinkedListOperations.Node n = head; n != null; n = n.next) {
+            values[i++] = n.value;
+        }
+        return of(values);
+    }
+
+    // Build from distinct values, retrying with a new seed until the table can be solved
+    private static XorFilter build(int[] values) {
+        int n = values.length;
+        int segmentLength = (int) ((EXTRA_SLOTS + (long) Math.ceil(LOAD * n)) / 3);
+        int capacity = 3 * segmentLength;
+        long[] hashes = new long[n];
+        // Per slot: how many values map to it, and the xor of their hashes
+        int[] slotCount = new int[capacity];
+        long[] slotHashes = new long[capacity];
+        int[] ready = new int[capacity];
+        long[] peeledHashes = new long[n];
+        int[] peeledSlots = new int[n];
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++, seed = IntMembershipFilter.hash(attempt, seed)) {
+            Arrays.fill(slotCount, 0);
+            Arrays.fill(slotHashes, 0);
+            for (int i = 0; i < n; i++) {
+                long h = IntMembershipFilter.hash(values[i], seed);
+                hashes[i] = h;
+                for (int j = 0; j < 3; j++) {
+                    int slot = slot(h, j, segmentLength);
+                    slotCount[slot]++;
+                    slotHashes[slot] ^= h;
+                }
+            }
+            // Peel: a slot used by exactly one value can be solved last for that value
+            int readyCount = 0;
+            for (int slot = 0; slot < capacity; slot++) {
+                if (slotCount[slot] == 1) {
+                    ready[readyCount++] = slot;
+                }
+            }
+            int peeled = 0;
+            while (readyCount > 0) {
+                int slot = ready[--readyCount];
+                if (slotCount[slot] != 1) {
+                    continue;
+                }
+                long h = slotHashes[slot];
+                peeledHashes[peeled] = h;
+                peeledSlots[peeled] = slot;
+                peeled++;
+                for (int j = 0; j < 3; j++) {
+                    int other = slot(h, j, segmentLength);
+                    slotCount[other]--;
+                    slotHashes[other] ^= h;
+                    if (slotCount[other] == 1) {
+                        ready[readyCount++] = other;
+                    }
+                }
+            }
+            if (peeled < n) {
+                continue;
+            }
+            // Assign in reverse peeling order, so each value's own slot is written after its other two
+            byte[] fingerprints = new byte[capacity];
+            for (int i = n - 1; i >= 0; i--) {
+                long h = peeledHashes[i];
+                int slot = peeledSlots[i];
+                fingerprints[slot] = 0;
+                fingerprints[slot] = (byte) (fingerprint(h)
+                    ^ fingerprints[slot(h, 0, segmentLength)]
+                    ^ fingerprints[slot(h, 1, segmentLength)]
+                    ^ fingerprints[slot(h, 2, segmentLength)]);
+            }
+            return new XorFilter(seed, segmentLength, fingerprints, n);
+        }
+        throw new IllegalStateException("Could not build xor filter for " + n + " values");
+    }
+
+    @Override
+    public boolean mightContain(int value) {
+        long h = IntMembershipFilter.hash(value, seed);
+        int f = fingerprint(h) ^ fingerprints[slot(h, 0, segmentLength)]
+            ^ fingerprints[slot(h, 1, segmentLength)]
+            ^ fingerprints[slot(h, 2, segmentLength)];
+        return (byte) f == 0;
+    }
+
+    /**
+     * @return Number of distinct values the filter was built with
+     */
+    public int count() {
+        return count;
+    }
+
+    @Override
+    public double falsePositiveRate() {
+        return 1.0 / 256;
+    }
+
+    @Override
+    public long sizeInBytes() {
+        return fingerprints.length;
+    }
+
+    private static int fingerprint(long h) {
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // Slot in segment j, from a rotation of the hash mapped onto the segment without a division
+    private static int slot(long h, int j, int segmentLength) {
+        long r = Long.rotateLeft(h, 21 * j) & 0xFFFFFFFFL;
+        return (int) ((r * segmentLength) >>> 32) + j * segmentLength;
+    }
+}
@@ -0,0 +1,406 @@
+import java.io.BufferedReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Minimal microbenchmark runner for the data-structure code. It follows the
+ * JMH recipe (warmup iterations, timed measurement iterations, batches sized
+ * so timer overhead stays negligible, results fed to a sink) and reports
+ * throughput, average time per operation, and allocation per operation read
+ * from the thread allocation counter, i.e. what JMH prints as
+ * {@code gc.alloc.rate.norm} under {@code -prof gc}.
+ *
+ * <p>Results can be appended to a CSV file tagged with a commit id and
+ * compared against a CSV from another commit.
+ */
+public final class BenchmarkHarness {
+    // One benchmarked operation plus the state it runs against
+    public interface Benchmark {
+        /**
+         * Prepare state for a batch of up to {@code ops} calls to run(). Not timed.
+         * @param ops Number of operations in the coming batch
+         */
+        default void setup(int ops) {
+        }
+
+        /**
+         * Run one operation
+         * @param op Sequence number of the operation within the batch
+         * @return Any value derived from the result, so the JIT cannot drop the work
+         */
+        int run(int op);
+
+        /**
+         * @return Largest batch that setup() can prepare, for benchmarks that consume state
+         */
+        default int maxBatch() {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    // A benchmark that does its own timing, e.g. one that runs on several threads
+    public interface TimedBenchmark {
+        /**
+         * Run the benchmark for about the given time
+         * @param millis How long to run
+         * @return Operations completed per second, over all threads
+         * @throws InterruptedException If interrupted while waiting for worker threads
+         */
+        double run(long millis) throws InterruptedException;
+    }
+
+    public static final class Result {
+        final String name;
+        final String params;
+        final double opsPerSecond;
+        final double nanosPerOp;
+        final double nanosPerOpError;
+        final double bytesPerOp;
+        final long gcCount;
+
+        Result(String name, String params, double opsPerSecond, double nanosPerOp,
+               double nanosPerOpError, double bytesPerOp, long gcCount) {
+            this.name = name;
+            this.params = params;
+            this.opsPerSecond = opsPerSecond;
+            this.nanosPerOp = nanosPerOp;
+            this.nanosPerOpError = nanosPerOpError;
+            this.bytesPerOp = bytesPerOp;
+            this.gcCount = gcCount;
+        }
+
+        String key() {
+            return name + "|" + params;
+        }
+    }
+
+    // Command-line options shared by the benchmark mains
+    public static final class Options {
+        int[] sizes = {10, 100, 1_000, 10_000, 100_000, 1_000_000};
+        String[] distributions;
+        String filter = "";
+        int warmup = 3;
+        int iterations = 5;
+        long millis = 200;
+        Path csv;
+        String commit = System.getenv().getOrDefault("GIT_COMMIT", "unknown");
+        Path baseline;
+
+        /**
+         * Parse {@code --sizes 10,1000 --dist UNIFORM,ZIPFIAN --filter search
+         * --warmup 3 --iterations 5 --time 200 --csv out.csv --commit abc123
+         * --baseline old.csv}
+         * @param args The command-line arguments
+         * @return The parsed options
+         */
+        public static Options parse(String[] args) {
+            Options o = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String value = i + 1 < args.length ? args[i + 1] : null;
+                if (value == null) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                switch (args[i]) {
+                    case "--sizes":
+                        String[] parts = value.split(",");
+                        o.sizes = new int[parts.length];
+                        for (int j = 0; j < parts.length; j++) {
+                            o.sizes[j] = Integer.parseInt(parts[j].trim().replace("_", ""));
+                        }
+                        break;
+                    case "--dist":
+                        o.distributions = value.split(",");
+                        break;
+                    case "--filter":
+                        o.filter = value;
+                        break;
+                    case "--warmup":
+                        o.warmup = Integer.parseInt(value);
+                        break;
+                    case "--iterations":
+                        o.iterations = Integer.parseInt(value);
+                        break;
+                    case "--time":
+                        o.millis = Long.parseLong(value);
+                        break;
+                    case "--csv":
+                        o.csv = Path.of(value);
+                        break;
+                    case "--commit":
+                        o.commit = value;
+                        break;
+                    case "--baseline":
+                        o.baseline = Path.of(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+                i++;
+            }
+            return o;
+        }
+
+        public BenchmarkHarness newHarness() {
+            return new BenchmarkHarness(warmup, iterations, millis);
+        }
+
+        /**
+         * @param name A benchmark name
+         * @return true if the benchmark passes the --filter substring
+         */
+        public boolean selected(String name) {
+            return name.contains(filter);
+        }
+
+        /**
+         * Write the CSV and baseline comparison requested on the command line
+         * @param harness The harness holding the results
+         * @throws IOException If a file cannot be read or written
+         */
+        public void finish(BenchmarkHarness harness) throws IOException {
+            if (csv != null) {
+                harness.writeCsv(csv, commit);
+            }
+            if (baseline != null) {
+                harness.compareWith(baseline);
+            }
+            System.out.println("(sink " + harness.sink() + ")");
+        }
+    }
+
+    // A batch shorter than this is doubled, to keep nanoTime() overhead out of the numbers
+    private static final long MIN_BATCH_NANOS = 1_000_000L;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private final List<Result> results = new ArrayList<>();
+    // Receives every benchmark result so no work is dead code
+    private int sink;
+
+    public BenchmarkHarness(int warmupIterations, int measurementIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+    }
+
+    /**
+     * Warm up, measure and record one benchmark
+     * @param name Benchmark name, e.g. "ArrayOperations.search"
+     * @param params Parameter description, e.g. "size=1000,dist=UNIFORM"
+     * @param benchmark The operation to measure
+     * @return The measured result
+     */
+    public Result run(String name, String params, Benchmark benchmark) {
+        for (int i = 0; i < warmupIterations; i++) {
+            iteration(benchmark, new long[3]);
+        }
+        long gcBefore = gcCount();
+        double[] nanosPerOp = new double[measurementIterations];
+        long totalOps = 0;
+        long totalNanos = 0;
+        long totalBytes = 0;
+        for (int i = 0; i < measurementIterations; i++) {
+            long[] totals = new long[3];
+            iteration(benchmark, totals);
+            nanosPerOp[i] = (double) totals[1] / totals[0];
+            totalOps += totals[0];
+            totalNanos += totals[1];
+            totalBytes += totals[2];
+        }
+        Result result = new Result(name, params,
+            totalOps * 1e9 / totalNanos,
+            (double) totalNanos / totalOps,
+            confidence99(nanosPerOp),
+            (double) totalBytes / totalOps,
+            gcCount() - gcBefore);
+        results.add(result);
+        print(result);
+        return result;
+    }
+
+    /**
+     * Warm up, measure and record a benchmark that times itself. Time per
+     * operation is the inverse of total throughput; allocation is not measured.
+     * @param name Benchmark name, e.g. "MpmcIntQueue.offerPoll"
+     * @param params Parameter description, e.g. "threads=4"
+     * @param benchmark The benchmark to measure
+     * @return The measured result
+     * @throws InterruptedException If interrupted while the benchmark runs
+     */
+    public Result runTimed(String name, String params, TimedBenchmark benchmark) throws InterruptedException {
+        long millis = iterationNanos / 1_000_000L;
+        for (int i = 0; i < warmupIterations; i++) {
+            benchmark.run(millis);
+        }
+        long gcBefore = gcCount();
+        double[] nanosPerOp = new double[measurementIterations];
+        double totalNanosPerOp = 0;
+        for (int i = 0; i < measurementIterations; i++) {
+            nanosPerOp[i] = 1e9 / benchmark.run(millis);
+            totalNanosPerOp += nanosPerOp[i];
+        }
+        double meanNanosPerOp = totalNanosPerOp / measurementIterations;
+        Result result = new Result(name, params, 1e9 / meanNanosPerOp, meanNanosPerOp,
+            confidence99(nanosPerOp), Double.NaN, gcCount() - gcBefore);
+        results.add(result);
+        print(result);
+        return result;
+    }
+
+    // Accumulates {operations, timed nanos, allocated bytes} for one iteration
+    private void iteration(Benchmark benchmark, long[] totals) {
+        int batch = 1;
+        int maxBatch = Math.max(1, benchmark.maxBatch());
+        while (totals[1] < iterationNanos) {
+            benchmark.setup(batch);
+            long bytesBefore = THREADS.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            int acc = 0;
+            for (int op = 0; op < batch; op++) {
+                acc += benchmark.run(op);
+            }
+            long elapsed = System.nanoTime() - start;
+            long bytes = THREADS.getCurrentThreadAllocatedBytes() - bytesBefore;
+            sink += acc;
+            totals[0] += batch;
+            totals[1] += elapsed;
+            totals[2] += bytes;
+            if (elapsed < MIN_BATCH_NANOS && batch <= maxBatch / 2) {
+                batch *= 2;
+            }
+        }
+    }
+
+    // Half-width of a 99% confidence interval, using z = 2.576
+    private static double confidence99(double[] samples) {
+        if (samples.length < 2) {
+            return Double.NaN;
+        }
+        double mean = 0;
+        for (double s : samples) {
+            mean += s;
+        }
+        mean /= samples.length;
+        double variance = 0;
+        for (double s : samples) {
+            variance += (s - mean) * (s - mean);
+        }
+        variance /= samples.length - 1;
+        return 2.576 * Math.sqrt(variance / samples.length);
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(gc.getCollectionCount(), 0);
+        }
+        return count;
+    }
+
+    public static void printHeader() {
+        System.out.printf(Locale.ROOT, "%-42s %-28s %14s %12s %10s %12s %5s%n",
+            "Benchmark", "Params", "ops/s", "ns/op", "+- (99%)", "B/op", "gc");
+    }
+
+    private static void print(Result r) {
+        System.out.printf(Locale.ROOT, "%-42s %-28s %14.1f %12.2f %10.2f %12.1f %5d%n",
+            r.name, r.params, r.opsPerSecond, r.nanosPerOp, r.nanosPerOpError, r.bytesPerOp, r.gcCount);
+    }
+
+    /**
+     * Append all results to a CSV file, creating it with a header if needed
+     * @param file The CSV file
+     * @param commit Identifier of the code version that was measured
+     * @throws IOException If the file cannot be written
+     */
+    public void writeCsv(Path file, String commit) throws IOException {
+        boolean exists = Files.exists(file);
+        try (PrintWriter out = new PrintWriter(new FileWriter(file.toFile(), true))) {
+            if (!exists) {
+                out.println("commit,benchmark,params,ops_per_s,ns_per_op,ns_per_op_error,bytes_per_op,gc_count");
+            }
+            for (Result r : results) {
+                out.printf(Locale.ROOT, "%s,%s,\"%s\",%.3f,%.3f,%.3f,%.3f,%d%n",
+                    commit, r.name, r.params, r.opsPerSecond, r.nanosPerOp, r.nanosPerOpError,
+                    r.bytesPerOp, r.gcCount);
+            }
+        }
+    }
+
+    /**
+     * Print the ratio of each result's time per operation to the most recent
+     * matching entry in a baseline CSV written by {@link #writeCsv}
+     * @param baseline The CSV from the version to compare against
+     * @throws IOException If the file cannot be read
+     */
+    public void compareWith(Path baseline) throws IOException {
+        Map<String, Double> previous = new HashMap<>();
+        try (BufferedReader in = Files.newBufferedReader(baseline)) {
+            in.readLine();
+            String line;
+            while ((line = in.readLine()) != null) {
+                // commit,benchmark,"params",ops,ns,...; params are quoted and contain commas
+                int open = line.indexOf('"');
+                int close = line.indexOf('"', open + 1);
+                String[] head = line.substring(0, open).split(",");
+                String[] tail = line.substring(close + 2).split(",");
+                previous.put(head[1] + "|" + line.substring(open + 1, close), Double.parseDouble(tail[1]));
+            }
+        }
+        System.out.printf(Locale.ROOT, "%n%-42s %-28s %12s %12s %8s%n",
+            "Benchmark", "Params", "base ns/op", "ns/op", "ratio");
+        for (Result r : results) {
+            Double before = previous.get(r.key());
+            if (before != null) {
+                System.out.printf(Locale.ROOT, "%-42s %-28s %12.2f %12.2f %7.2fx%n",
+                    r.name, r.params, before, r.nanosPerOp, r.nanosPerOp / before);
+            }
+        }
+    }
+
+    /**
+     * Measure the heap a data structure retains, by forcing collections
+     * before and after building it. Noisy below a few hundred kilobytes.
+     * @param build Builds the structure and keeps it reachable until this returns
+     * @return Bytes still reachable after the build
+     */
+    public static double retainedBytes(Supplier<Object> build) {
+        long before = usedAfterGc();
+        Object built = build.get();
+        long after = usedAfterGc();
+        if (built == null) {
+            throw new IllegalStateException("Build returned nothing to measure");
+        }
+        return after - before;
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * @return Value accumulated from all benchmark results; print it to keep the sink alive
+     */
+    public int sink() {
+        return sink;
+    }
+}
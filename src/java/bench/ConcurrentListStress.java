@@ -0,0 +1,193 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Multi-threaded stress test of ConcurrentIntLinkedList against the same
+ * sorted-set workload on a LinkedListOperations list behind one global lock.
+ * Each thread runs a mix of contains/insert/delete on random keys for a fixed
+ * time; the run prints throughput per thread count and checks that the final
+ * size matches the net inserts the threads observed.
+ *
+ * Usage: java ConcurrentListStress [keyRange] [millisPerRun] [updatePercent]
+ */
+public class ConcurrentListStress {
+    // The workload both implementations run
+    interface IntSet {
+        boolean insert(int value);
+        boolean delete(int value);
+        boolean contains(int value);
+        int size();
+    }
+
+    // Sorted list of LinkedListOperations nodes guarded by a single lock
+    static final class CoarseLockedList implements IntSet {
+        private DataStructures.LinkedListOperations.Node head;
+
+        @Override
+        public synchronized boolean insert(int value) {
+            DataStructures.LinkedListOperations.Node pred = null;
+            DataStructures.LinkedListOperations.Node curr = head;
+            while (curr != null && curr.value < value) {
+                pred = curr;
+                curr = curr.next;
+            }
+            if (curr != null && curr.value == value) {
+                return false;
+            }
+            DataStructures.LinkedListOperations.Node node = new DataStructures.LinkedListOperations.Node(value);
+            node.next = curr;
+            if (pred == null) {
+                head = node;
+            } else {
+                pred.next = node;
+            }
+            return true;
+        }
+
+        @Override
+        public synchronized boolean delete(int value) {
+            DataStructures.LinkedListOperations.Node pred = null;
+            DataStructures.LinkedListOperations.Node curr = head;
+            while (curr != null && curr.value < value) {
+                pred = curr;
+                curr = curr.next;
+            }
+            if (curr == null || curr.value != value) {
+                return false;
+            }
+            if (pred == null) {
+                head = curr.next;
+            } else {
+                pred.next = curr.next;
+            }
+            return true;
+        }
+
+        @Override
+        public synchronized boolean contains(int value) {
+            DataStructures.LinkedListOperations.Node curr = head;
+            while (curr != null && curr.value < value) {
+                curr = curr.next;
+            }
+            return curr != null && curr.value == value;
+        }
+
+        @Override
+        public synchronized int size() {
+            int count = 0;
+            for (DataStructures.LinkedListOperations.Node curr = head; curr != null; curr = curr.next) {
+                count++;
+            }
+            return count;
+        }
+    }
+
+    static final class LockFreeList implements IntSet {
+        private final ConcurrentIntLinkedList list = new ConcurrentIntLinkedList();
+
+        @Override
+        public boolean insert(int value) {
+            return list.insert(value);
+        }
+
+        @Override
+        public boolean delete(int value) {
+            return list.delete(value);
+        }
+
+        @Override
+        public boolean contains(int value) {
+            return list.contains(value);
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int keyRange = args.length > 0 ? Integer.parseInt(args[0]) : 2048;
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        int updatePercent = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("keyRange=%d, %d ms per run, %d%% updates%n", keyRange, millis, updatePercent);
+        System.out.printf("%-8s %18s %18s %8s%n", "threads", "coarse-lock ops/s", "lock-free ops/s", "speedup");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            double locked = run(new CoarseLockedList(), threads, keyRange, millis, updatePercent);
+            double lockFree = run(new LockFreeList(), threads, keyRange, millis, updatePercent);
+            System.out.printf("%-8d %18.0f %18.0f %7.2fx%n", threads, locked, lockFree, lockFree / locked);
+        }
+    }
+
+    // Returns operations per second; throws if the final size is inconsistent
+    static double run(IntSet set, int threads, int keyRange, long millis, int updatePercent)
+            throws InterruptedException {
+        // Prefill half the key range
+        int prefilled = 0;
+        for (int key = 0; key < keyRange; key += 2) {
+            if (set.insert(key)) {
+                prefilled++;
+            }
+        }
+
+        AtomicLong operations = new AtomicLong();
+        AtomicLong netInserts = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean stop = new AtomicBoolean();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long ops = 0;
+                long net = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                while (!stop.get()) {
+                    int key = random.nextInt(keyRange);
+                    int roll = random.nextInt(100);
+                    if (roll < updatePercent / 2) {
+                        if (set.insert(key)) {
+                            net++;
+                        }
+                    } else if (roll < updatePercent) {
+                        if (set.delete(key)) {
+                            net--;
+                        }
+                    } else {
+                        set.contains(key);
+                    }
+                    ops++;
+                }
+                operations.addAndGet(ops);
+                netInserts.addAndGet(net);
+            });
+            workers.add(worker);
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        Thread.sleep(millis);
+        stop.set(true);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        long expected = prefilled + netInserts.get();
+        if (set.size() != expected) {
+            throw new IllegalStateException("Size " + set.size() + " does not match expected " + expected);
+        }
+        return operations.get() * 1e9 / elapsed;
+    }
+}
@@ -0,0 +1,173 @@
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Multi-threaded throughput of MpmcIntQueue, EliminationIntStack and
+ * StripedIntIntHashMap against the synchronized wrappers they replace, for
+ * 1, 2, 4, ... threads up to twice the processor count. Each thread runs
+ * the same operation mix for a fixed time, like ConcurrentListStress. The
+ * maps are prefilled with every other key of each key range in
+ * {@code --sizes}, and UPDATE_PERCENT of their operations are puts. This
+ * measures throughput only; correctness under contention is covered by the
+ * unit tests of each structure.
+ *
+ * <p>Takes the options of BenchmarkHarness.Options; {@code --time} is the
+ * length of each run, and results go into the same CSV as the other mains:
+ * <pre>
+ * java -cp out ConcurrentStructuresBenchmark --sizes 1024,65536 --time 500 --csv results.csv
+ * </pre>
+ */
+public class ConcurrentStructuresBenchmark {
+    // One operation of a worker thread; returns a value to feed to the sink
+    interface Step {
+        long run(ThreadLocalRandom random);
+    }
+
+    private static final int EMPTY = Integer.MIN_VALUE;
+    private static final int UPDATE_PERCENT = 10;
+
+    // Receives the sum of every step's results, so the steps cannot be optimized away
+    private static volatile long sink;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        BenchmarkHarness.Options options = BenchmarkHarness.Options.parse(args);
+        BenchmarkHarness harness = options.newHarness();
+        int maxThreads = Runtime.getRuntime().availableProcessors() * 2;
+
+        BenchmarkHarness.printHeader();
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            int workers = threads;
+            String params = "threads=" + threads;
+
+            // Queue: each step offers a value, then polls one
+            if (options.selected("MpmcIntQueue.offerPoll")) {
+                MpmcIntQueue queue = new MpmcIntQueue(1 << 14);
+                harness.runTimed("MpmcIntQueue.offerPoll", params, millis -> run(workers, millis, random -> {
+                    int value = random.nextInt(1, 1000);
+                    return (queue.offer(value) ? value : 0) + queue.poll(EMPTY);
+                }));
+            }
+            if (options.selected("SynchronizedDeque.offerPoll")) {
+                ArrayDeque<Integer> lockedQueue = new ArrayDeque<>();
+                harness.runTimed("SynchronizedDeque.offerPoll", params, millis -> run(workers, millis, random -> {
+                    int value = random.nextInt(1, 1000);
+                    Integer polled;
+                    synchronized (lockedQueue) {
+                        lockedQueue.addLast(value);
+                        polled = lockedQueue.pollFirst();
+                    }
+                    return value - polled;
+                }));
+            }
+
+            // Stack: each step pushes a value, then pops one
+            if (options.selected("EliminationIntStack.pushPop")) {
+                EliminationIntStack stack = new EliminationIntStack();
+                harness.runTimed("EliminationIntStack.pushPop", params, millis -> run(workers, millis, random -> {
+                    int value = random.nextInt(1, 1000);
+                    stack.push(value);
+                    return stack.pop(EMPTY);
+                }));
+            }
+            if (options.selected("SynchronizedDeque.pushPop")) {
+                ArrayDeque<Integer> lockedStack = new ArrayDeque<>();
+                harness.runTimed("SynchronizedDeque.pushPop", params, millis -> run(workers, millis, random -> {
+                    int value = random.nextInt(1, 1000);
+                    Integer popped;
+                    synchronized (lockedStack) {
+                        lockedStack.push(value);
+                        popped = lockedStack.pop();
+                    }
+                    return value - popped;
+                }));
+            }
+
+            // Map: mostly lookups over a prefilled key range
+            for (int keyRange : options.sizes) {
+                String mapParams = params + ",keys=" + keyRange + ",updates=" + UPDATE_PERCENT + "%";
+                if (options.selected("StripedIntIntHashMap.getPut")) {
+                    StripedIntIntHashMap map = new StripedIntIntHashMap();
+                    for (int key = 0; key < keyRange; key += 2) {
+                        map.put(key, key);
+                    }
+                    Step step = random -> {
+                        int key = random.nextInt(keyRange);
+                        if (random.nextInt(100) < UPDATE_PERCENT) {
+                            return map.put(key, key) ? 1 : 0;
+                        }
+                        return map.get(key, 0);
+                    };
+                    harness.runTimed("StripedIntIntHashMap.getPut", mapParams,
+                        millis -> run(workers, millis, step));
+                }
+                if (options.selected("SynchronizedHashMap.getPut")) {
+                    Map<Integer, Integer> lockedMap = Collections.synchronizedMap(new HashMap<>());
+                    for (int key = 0; key < keyRange; key += 2) {
+                        lockedMap.put(key, key);
+                    }
+                    Step step = random -> {
+                        int key = random.nextInt(keyRange);
+                        if (random.nextInt(100) < UPDATE_PERCENT) {
+                            return lockedMap.put(key, key) == null ? 1 : 0;
+                        }
+                        return lockedMap.getOrDefault(key, 0);
+                    };
+                    harness.runTimed("SynchronizedHashMap.getPut", mapParams,
+                        millis -> run(workers, millis, step));
+                }
+            }
+            System.out.println();
+        }
+        options.finish(harness);
+    }
+
+    // Runs step on every thread for the given time and returns steps per second
+    static double run(int threads, long millis, Step step) throws InterruptedException {
+        AtomicLong operations = new AtomicLong();
+        AtomicLong results = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean stop = new AtomicBoolean();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long ops = 0;
+                long sum = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                while (!stop.get()) {
+                    sum += step.run(random);
+                    ops++;
+                }
+                operations.addAndGet(ops);
+                results.addAndGet(sum);
+            });
+            workers.add(worker);
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        Thread.sleep(millis);
+        stop.set(true);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        sink += results.get();
+        return operations.get() * 1e9 / elapsed;
+    }
+}
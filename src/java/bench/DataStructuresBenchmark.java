@@ -0,0 +1,428 @@
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+/**
+ * Benchmarks for every operation in DataStructures.ArrayOperations and
+ * DataStructures.LinkedListOperations, across sizes and across the
+ * distribution of positions the operations touch.
+ *
+ * <p>Build and run from the repository root:
+ * <pre>
+ * javac --release 17 --add-modules jdk.incubator.vector -d out src/java/*.java src/java/bench/*.java
+ * java --add-modules jdk.incubator.vector -cp out DataStructuresBenchmark \
+ *     --sizes 10,1000,100000 --dist UNIFORM,ZIPFIAN --csv results.csv --commit $(git rev-parse --short HEAD)
+ * </pre>
+ * Sizes up to 10^8 work given a large enough heap ({@code -Xmx}).
+ * Pass {@code --baseline results.csv} on a later commit to print the ratio
+ * of each result to the recorded one.
+ */
+public class DataStructuresBenchmark {
+    // Which positions an operation touches
+    public enum Distribution {
+        HEAD, TAIL, UNIFORM, ZIPFIAN;
+
+        /**
+         * Draw positions in [0, n)
+         * @param n Number of positions
+         * @param count How many positions to draw
+         * @param seed Random seed
+         * @return The drawn positions
+         */
+        public int[] positions(int n, int count, long seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            int[] positions = new int[count];
+            Zipfian zipfian = this == ZIPFIAN ? new Zipfian(n) : null;
+            for (int i = 0; i < count; i++) {
+                switch (this) {
+                    case HEAD:
+                        positions[i] = 0;
+                        break;
+                    case TAIL:
+                        positions[i] = n - 1;
+                        break;
+                    case UNIFORM:
+                        positions[i] = random.nextInt(n);
+                        break;
+                    default:
+                        positions[i] = zipfian.next(random);
+                        break;
+                }
+            }
+            return positions;
+        }
+    }
+
+    // Zipfian ranks with skew 0.99, rank 0 the most popular (Gray et al., as in YCSB)
+    static final class Zipfian {
+        private static final double THETA = 0.99;
+        // Terms of zeta(n) summed exactly; the rest is approximated by an integral
+        private static final int EXACT_TERMS = 1_000_000;
+
+        private final int n;
+        private final double zetaN;
+        private final double alpha;
+        private final double eta;
+
+        Zipfian(int n) {
+            this.n = n;
+            this.zetaN = zeta(n);
+            double zeta2 = zeta(2);
+            this.alpha = 1.0 / (1.0 - THETA);
+            this.eta = (1 - Math.pow(2.0 / n, 1 - THETA)) / (1 - zeta2 / zetaN);
+        }
+
+        private static double zeta(int n) {
+            int exact = Math.min(n, EXACT_TERMS);
+            double sum = 0;
+            for (int i = 1; i <= exact; i++) {
+                sum += 1 / Math.pow(i, THETA);
+            }
+            if (n > exact) {
+                sum += (Math.pow(n, 1 - THETA) - Math.pow(exact, 1 - THETA)) / (1 - THETA);
+            }
+            return sum;
+        }
+
+        int next(SplittableRandom random) {
+            if (n == 1) {
+                return 0;
+            }
+            double u = random.nextDouble();
+            double uz = u * zetaN;
+            if (uz < 1) {
+                return 0;
+            }
+            if (uz < 1 + Math.pow(0.5, THETA)) {
+                return 1;
+            }
+            return Math.min(n - 1, (int) (n * Math.pow(eta * u - eta + 1, alpha)));
+        }
+    }
+
+    // Positions are cycled from a table of this many entries
+    static final int POSITION_TABLE = 4096;
+    static final int POSITION_MASK = POSITION_TABLE - 1;
+    // Values per OrderedIntArray batch insert
+    static final int ORDERED_BATCH = 64;
+
+    public static void main(String[] args) throws IOException {
+        BenchmarkHarness.Options options = BenchmarkHarness.Options.parse(args);
+        BenchmarkHarness harness = options.newHarness();
+        Distribution[] distributions = distributions(options);
+
+        BenchmarkHarness.printHeader();
+        for (int n : options.sizes) {
+            for (Distribution d : distributions) {
+                String params = "size=" + n + ",dist=" + d;
+                int[] positions = d.positions(n, POSITION_TABLE, 42);
+                arrayBenchmarks(harness, options, params, n, positions);
+                linkedListBenchmarks(harness, options, params, n, positions);
+                persistentBenchmarks(harness, options, params, n, positions);
+                orderedBenchmarks(harness, options, params, n, positions);
+                compressedBenchmarks(harness, options, params, n, positions);
+                rangeBenchmarks(harness, options, params, n, positions);
+                filterBenchmarks(harness, options, params, n, positions);
+            }
+        }
+        options.finish(harness);
+    }
+
+    static Distribution[] distributions(BenchmarkHarness.Options options) {
+        if (options.distributions == null) {
+            return Distribution.values();
+        }
+        Distribution[] result = new Distribution[options.distributions.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = Distribution.valueOf(options.distributions[i].trim());
+        }
+        return result;
+    }
+
+    private static void arrayBenchmarks(BenchmarkHarness harness, BenchmarkHarness.Options options,
+                                        String params, int n, int[] positions) {
+        int[] arr = new int[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = 2 * i + 1;
+        }
+        if (options.selected("ArrayOperations.insertAt")) {
+            harness.run("ArrayOperations.insertAt", params,
+                op -> DataStructures.ArrayOperations.insertAt(arr, positions[op & POSITION_MASK], op).length);
+        }
+        if (options.selected("ArrayOperations.deleteAt")) {
+            harness.run("ArrayOperations.deleteAt", params,
+                op -> DataStructures.ArrayOperations.deleteAt(arr, positions[op & POSITION_MASK]).length);
+        }
+        if (options.selected("ArrayOperations.search")) {
+            harness.run("ArrayOperations.search", params,
+                op -> DataStructures.ArrayOperations.search(arr, arr[positions[op & POSITION_MASK]]));
+        }
+        if (options.selected("ArrayOperations.update")) {
+            harness.run("ArrayOperations.update", params,
+                op -> DataStructures.ArrayOperations.update(arr, positions[op & POSITION_MASK], op) ? 1 : 0);
+        }
+    }
+
+    private static void linkedListBenchmarks(BenchmarkHarness harness, BenchmarkHarness.Options options,
+                                             String params, int n, int[] positions) {
+        DataStructures.LinkedListOperations.Node[] list = {buildList(n)};
+        // Inserting and deleting consume state, so each batch is undone before the next
+        int maxBatch = Math.max(1, Math.min(POSITION_TABLE, n / 16));
+
+        if (options.selected("LinkedListOperations.insertNode")) {
+            harness.run("LinkedListOperations.insertNode", params, new BenchmarkHarness.Benchmark() {
+                private int pending;
+
+                @Override
+                public void setup(int ops) {
+                    for (int op = pending - 1; op >= 0; op--) {
+                        list[0] = DataStructures.LinkedListOperations.deleteNode(list[0], positions[op]);
+                    }
+                    pending = ops;
+                }
+
+                @Override
+                public int run(int op) {
+                    list[0] = DataStructures.LinkedListOperations.insertNode(list[0], op, positions[op]);
+                    return list[0].value;
+                }
+
+                @Override
+                public int maxBatch() {
+                    return maxBatch;
+                }
+            });
+        }
+        if (options.selected("LinkedListOperations.deleteNode")) {
+            harness.run("LinkedListOperations.deleteNode", params, new BenchmarkHarness.Benchmark() {
+                private int pending;
+
+                @Override
+                public void setup(int ops) {
+                    for (int op = pending - 1; op >= 0; op--) {
+                        list[0] = DataStructures.LinkedListOperations.insertNode(list[0], op, deletePosition(op));
+                    }
+                    pending = ops;
+                }
+
+                // Clamp so the position exists in a list that has already lost op nodes
+                private int deletePosition(int op) {
+                    return Math.min(positions[op], n - op - 1);
+                }
+
+                @Override
+                public int run(int op) {
+                    list[0] = DataStructures.LinkedListOperations.deleteNode(list[0], deletePosition(op));
+                    return list[0] == null ? 0 : list[0].value;
+                }
+
+                @Override
+                public int maxBatch() {
+                    return Math.max(1, Math.min(maxBatch, n - 1));
+                }
+            });
+        }
+        // Values equal positions, so searching for p finds the node at position p
+        DataStructures.LinkedListOperations.Node head = buildList(n);
+        if (options.selected("LinkedListOperations.searchNode")) {
+            harness.run("LinkedListOperations.searchNode", params,
+                op -> DataStructures.LinkedListOperations.searchNode(head, positions[op & POSITION_MASK]));
+        }
+        if (options.selected("LinkedListOperations.updateNode")) {
+            harness.run("LinkedListOperations.updateNode", params,
+                op -> DataStructures.LinkedListOperations.updateNode(head, positions[op & POSITION_MASK], op) ? 1 : 0);
+        }
+    }
+
+    // Each op derives a new version from the same base, like the copying array operations above
+    private static void persistentBenchmarks(BenchmarkHarness harness, BenchmarkHarness.Options options,
+                                             String params, int n, int[] positions) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = 2 * i + 1;
+        }
+        PersistentIntVector vector = PersistentIntVector.of(values);
+        if (options.selected("PersistentIntVector.insertAt")) {
+            harness.run("PersistentIntVector.insertAt", params,
+                op -> vector.insertAt(positions[op & POSITION_MASK], op).size());
+        }
+        if (options.selected("PersistentIntVector.deleteAt")) {
+            harness.run("PersistentIntVector.deleteAt", params,
+                op -> vector.deleteAt(positions[op & POSITION_MASK]).size());
+        }
+        if (options.selected("PersistentIntVector.update")) {
+            harness.run("PersistentIntVector.update", params,
+                op -> vector.update(positions[op & POSITION_MASK], op).size());
+        }
+        if (options.selected("PersistentIntVector.get")) {
+            harness.run("PersistentIntVector.get", params,
+                op -> vector.get(positions[op & POSITION_MASK]));
+        }
+        DataStructures.LinkedListOperations.Node head = buildList(n);
+        if (options.selected("PersistentListOperations.insertNode")) {
+            harness.run("PersistentListOperations.insertNode", params, op ->
+                DataStructures.PersistentListOperations.insertNode(head, op, positions[op & POSITION_MASK]).value);
+        }
+    }
+
+    private static void orderedBenchmarks(BenchmarkHarness harness, BenchmarkHarness.Options options,
+                                          String params, int n, int[] positions) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = 2 * i + 1;
+        }
+        // Each op copies the array and inserts a batch of even values between existing odd ones
+        int[][] batches = new int[POSITION_TABLE / ORDERED_BATCH][ORDERED_BATCH];
+        for (int i = 0; i < POSITION_TABLE; i++) {
+            batches[i / ORDERED_BATCH][i % ORDERED_BATCH] = 2 * positions[i];
+        }
+        int batchMask = batches.length - 1;
+        if (options.selected("OrderedIntArray.addAll")) {
+            harness.run("OrderedIntArray.addAll", params, op -> {
+                OrderedIntArray ordered = OrderedIntArray.fromSorted(values);
+                ordered.addAll(batches[op & batchMask]);
+                return ordered.size();
+            });
+        }
+        if (options.selected("OrderedIntArray.add")) {
+            harness.run("OrderedIntArray.add", params, op -> {
+                OrderedIntArray ordered = OrderedIntArray.fromSorted(values);
+                for (int value : batches[op & batchMask]) {
+                    ordered.add(value);
+                }
+                return ordered.size();
+            });
+        }
+        OrderedIntArray ordered = OrderedIntArray.fromSorted(values);
+        if (options.selected("OrderedIntArray.lowerBound")) {
+            harness.run("OrderedIntArray.lowerBound", params,
+                op -> ordered.lowerBound(2 * positions[op & POSITION_MASK]));
+        }
+        if (options.selected("OrderedIntArray.gallop")) {
+            // Each lookup starts from the previous answer, as a merge or range scan would
+            int[] hint = {0};
+            harness.run("OrderedIntArray.gallop", params,
+                op -> hint[0] = ordered.lowerBound(2 * positions[op & POSITION_MASK], hint[0]));
+        }
+    }
+
+    private static void compressedBenchmarks(BenchmarkHarness harness, BenchmarkHarness.Options options,
+                                             String params, int n, int[] positions) {
+        // Sorted IDs with small random gaps, and counters in a narrow range
+        SplittableRandom random = new SplittableRandom(42);
+        int[] ids = new int[n];
+        int[] counters = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = (i == 0 ? 0 : ids[i - 1]) + 1 + random.nextInt(8);
+            counters[i] = 1000 + random.nextInt(200);
+        }
+        CompressedIntArray compressedIds = CompressedIntArray.of(ids);
+        CompressedIntArray compressedCounters = CompressedIntArray.of(counters);
+        if (options.selected("CompressedIntArray.get")) {
+            harness.run("CompressedIntArray.get", params + ",data=ids",
+                op -> compressedIds.get(positions[op & POSITION_MASK]));
+            harness.run("CompressedIntArray.get", params + ",data=counters",
+                op -> compressedCounters.get(positions[op & POSITION_MASK]));
+        }
+        if (options.selected("CompressedIntArray.search")) {
+            int[] scratch = new int[CompressedIntArray.BLOCK_SIZE];
+            harness.run("CompressedIntArray.search", params + ",data=ids",
+                op -> compressedIds.search(ids[positions[op & POSITION_MASK]], scratch));
+            harness.run("CompressedIntArray.search", params + ",data=counters",
+                op -> compressedCounters.search(counters[positions[op & POSITION_MASK]], scratch));
+        }
+    }
+
+    private static void rangeBenchmarks(BenchmarkHarness harness, BenchmarkHarness.Options options,
+                                        String params, int n, int[] positions) {
+        int[] arr = new int[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = 2 * i + 1;
+        }
+        // Ranges run between two consecutive positions from the table
+        int[] from = new int[POSITION_TABLE];
+        int[] to = new int[POSITION_TABLE];
+        for (int i = 0; i < POSITION_TABLE; i++) {
+            int a = positions[i];
+            int b = positions[(i + 1) & POSITION_MASK];
+            from[i] = Math.min(a, b);
+            to[i] = Math.max(a, b) + 1;
+        }
+        if (options.selected("rescan.sum")) {
+            harness.run("rescan.sum", params, op -> {
+                long sum = 0;
+                for (int i = from[op & POSITION_MASK]; i < to[op & POSITION_MASK]; i++) {
+                    sum += arr[i];
+                }
+                return (int) sum;
+            });
+        }
+        FenwickTree fenwick = FenwickTree.of(arr);
+        if (options.selected("FenwickTree.sum")) {
+            harness.run("FenwickTree.sum", params,
+                op -> (int) fenwick.sum(from[op & POSITION_MASK], to[op & POSITION_MASK]));
+        }
+        if (options.selected("FenwickTree.addRange")) {
+            harness.run("FenwickTree.addRange", params, op -> {
+                fenwick.addRange(from[op & POSITION_MASK], to[op & POSITION_MASK], (op & 1) == 0 ? 1 : -1);
+                return 0;
+            });
+        }
+        IntRangeTree[] trees = {SegmentTree.of(arr), FlatSegmentTree.of(arr)};
+        for (IntRangeTree tree : trees) {
+            String name = tree.getClass().getSimpleName();
+            if (options.selected(name + ".sum")) {
+                harness.run(name + ".sum", params,
+                    op -> (int) tree.sum(from[op & POSITION_MASK], to[op & POSITION_MASK]));
+            }
+            if (options.selected(name + ".min")) {
+                harness.run(name + ".min", params,
+                    op -> (int) tree.min(from[op & POSITION_MASK], to[op & POSITION_MASK]));
+            }
+            if (options.selected(name + ".addRange")) {
+                harness.run(name + ".addRange", params, op -> {
+                    tree.addRange(from[op & POSITION_MASK], to[op & POSITION_MASK], (op & 1) == 0 ? 1 : -1);
+                    return 0;
+                });
+            }
+        }
+    }
+
+    private static void filterBenchmarks(BenchmarkHarness harness, BenchmarkHarness.Options options,
+                                         String params, int n, int[] positions) {
+        // The array holds odd values only, so every even target is a miss
+        int[] arr = new int[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = 2 * i + 1;
+        }
+        IntMembershipFilter[] filters = {BlockedBloomFilter.of(arr, 0.01), XorFilter.of(arr)};
+        if (options.selected("ArrayOperations.search.miss")) {
+            harness.run("ArrayOperations.search.miss", params,
+                op -> DataStructures.ArrayOperations.search(arr, 2 * positions[op & POSITION_MASK]));
+        }
+        for (IntMembershipFilter filter : filters) {
+            String name = "ArrayOperations.search." + filter.getClass().getSimpleName() + ".miss";
+            if (options.selected(name)) {
+                harness.run(name, params,
+                    op -> DataStructures.ArrayOperations.search(arr, 2 * positions[op & POSITION_MASK], filter));
+            }
+        }
+        DataStructures.LinkedListOperations.Node head = buildList(n);
+        IntMembershipFilter listFilter = XorFilter.of(head);
+        String listName = "LinkedListOperations.searchNode.XorFilter.miss";
+        if (options.selected(listName)) {
+            harness.run(listName, params, op ->
+                DataStructures.LinkedListOperations.searchNode(head, n + positions[op & POSITION_MASK], listFilter));
+        }
+    }
+
+    // List holding 0, 1, ..., n - 1
+    static DataStructures.LinkedListOperations.Node buildList(int n) {
+        DataStructures.LinkedListOperations.Node head = null;
+        for (int i = n - 1; i >= 0; i--) {
+            DataStructures.LinkedListOperations.Node node = new DataStructures.LinkedListOperations.Node(i);
+            node.next = head;
+            head = node;
+        }
+        return head;
+    }
+}
@@ -0,0 +1,88 @@
+import java.io.IOException;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Compares CsrGraph with AdjacencyMatrixGraph on random undirected graphs
+ * of two shapes: sparse (average degree 16) and dense (a quarter of all
+ * vertex pairs). Reports heap retained per graph, then times the parallel
+ * CSR build, BFS from random sources, Dijkstra with weights in [1, 100],
+ * and connected components. The matrix runs only up to MATRIX_LIMIT
+ * vertices, beyond which it no longer fits a reasonable heap.
+ *
+ * <p>Build as described in DataStructuresBenchmark, then:
+ * <pre>
+ * java -Xmx8g -cp out GraphBenchmark --sizes 1000,10000,1000000
+ * </pre>
+ */
+public class GraphBenchmark {
+    private static final int MATRIX_LIMIT = 1 << 14;
+    private static final int DENSE_LIMIT = 1 << 12;
+    private static final int SPARSE_DEGREE = 16;
+
+    public static void main(String[] args) throws IOException {
+        BenchmarkHarness.Options options = BenchmarkHarness.Options.parse(args);
+        BenchmarkHarness harness = options.newHarness();
+        int mask = DataStructuresBenchmark.POSITION_MASK;
+
+        for (int n : options.sizes) {
+            for (boolean dense : new boolean[] {false, true}) {
+                if (dense && n > DENSE_LIMIT) {
+                    continue;
+                }
+                String params = "vertices=" + n + ",shape=" + (dense ? "dense" : "sparse");
+                SplittableRandom random = new SplittableRandom(42);
+                // Undirected edges are stored both ways, so this gives the intended average degree
+                long wanted = dense ? (long) n * n / 8 : (long) n * SPARSE_DEGREE / 2;
+                int edges = (int) Math.min(Integer.MAX_VALUE / 2 - 8, wanted);
+                int[] sources = random.ints(edges, 0, n).toArray();
+                int[] targets = random.ints(edges, 0, n).toArray();
+                int[] weights = random.ints(edges, 1, 101).toArray();
+                int[] starts = random.ints(DataStructuresBenchmark.POSITION_TABLE, 0, n).toArray();
+
+                CsrGraph[] csr = {null};
+                AdjacencyMatrixGraph[] matrix = {null};
+                double csrBytes = BenchmarkHarness.retainedBytes(
+                    () -> csr[0] = CsrGraph.fromEdges(n, sources, targets, weights, false));
+                boolean withMatrix = n <= MATRIX_LIMIT;
+                String matrixBytes = "n/a";
+                if (withMatrix) {
+                    matrixBytes = String.format(Locale.ROOT, "%.0f",
+                        BenchmarkHarness.retainedBytes(() -> matrix[0] = AdjacencyMatrixGraph.fromGraph(csr[0])));
+                }
+                System.out.printf(Locale.ROOT, "%s: %d arcs; CsrGraph %.0f B, AdjacencyMatrixGraph %s B%n",
+                    params, csr[0].edgeCount(), csrBytes, matrixBytes);
+
+                BenchmarkHarness.printHeader();
+                if (options.selected("CsrGraph.fromEdges")) {
+                    harness.run("CsrGraph.fromEdges", params,
+                        op -> CsrGraph.fromEdges(n, sources, targets, weights, false).degree(0));
+                }
+                if (options.selected("CsrGraph.bfs")) {
+                    harness.run("CsrGraph.bfs", params, op -> csr[0].bfs(starts[op & mask])[0]);
+                }
+                if (withMatrix && options.selected("AdjacencyMatrixGraph.bfs")) {
+                    harness.run("AdjacencyMatrixGraph.bfs", params, op -> matrix[0].bfs(starts[op & mask])[0]);
+                }
+                if (options.selected("CsrGraph.shortestPaths")) {
+                    harness.run("CsrGraph.shortestPaths", params,
+                        op -> csr[0].shortestPaths(starts[op & mask])[0]);
+                }
+                if (withMatrix && options.selected("AdjacencyMatrixGraph.shortestPaths")) {
+                    harness.run("AdjacencyMatrixGraph.shortestPaths", params,
+                        op -> matrix[0].shortestPaths(starts[op & mask])[0]);
+                }
+                if (options.selected("CsrGraph.connectedComponents")) {
+                    harness.run("CsrGraph.connectedComponents", params,
+                        op -> csr[0].connectedComponents()[n - 1]);
+                }
+                if (withMatrix && options.selected("AdjacencyMatrixGraph.connectedComponents")) {
+                    harness.run("AdjacencyMatrixGraph.connectedComponents", params,
+                        op -> matrix[0].connectedComponents()[n - 1]);
+                }
+                System.out.println();
+            }
+        }
+        options.finish(harness);
+    }
+}
@@ -0,0 +1,116 @@
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Compares IntIntHashMap with {@code HashMap<Integer, Integer>}: lookups
+ * that hit and miss, put/remove churn at constant size, heap retained per
+ * entry, and the longest single put while growing from empty to n entries,
+ * which shows the pause a one-shot rehash causes.
+ *
+ * <p>Build as described in DataStructuresBenchmark, then:
+ * <pre>
+ * java -Xmx4g -cp out HashMapBenchmark --sizes 1000,1000000,10000000
+ * </pre>
+ */
+public class HashMapBenchmark {
+    public static void main(String[] args) throws IOException {
+        BenchmarkHarness.Options options = BenchmarkHarness.Options.parse(args);
+        BenchmarkHarness harness = options.newHarness();
+        int mask = DataStructuresBenchmark.POSITION_MASK;
+
+        for (int n : options.sizes) {
+            String params = "size=" + n;
+            SplittableRandom random = new SplittableRandom(42);
+            int[] keys = random.ints(n).toArray();
+            // Present keys for hits; fresh random keys are almost surely absent
+            int[] hits = new int[DataStructuresBenchmark.POSITION_TABLE];
+            int[] misses = random.ints(DataStructuresBenchmark.POSITION_TABLE).toArray();
+            for (int i = 0; i < hits.length; i++) {
+                hits[i] = keys[random.nextInt(n)];
+            }
+
+            IntIntHashMap[] primitive = {null};
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            HashMap<Integer, Integer>[] boxed = new HashMap[1];
+            double primitiveBytes = BenchmarkHarness.retainedBytes(() -> primitive[0] = fillPrimitive(keys)) / n;
+            double boxedBytes = BenchmarkHarness.retainedBytes(() -> boxed[0] = fillBoxed(keys)) / n;
+            System.out.printf(Locale.ROOT, "size=%d: IntIntHashMap %.1f B/entry, HashMap %.1f B/entry%n",
+                n, primitiveBytes, boxedBytes);
+            System.out.printf(Locale.ROOT, "size=%d: longest put while growing: IntIntHashMap %.1f us,"
+                + " HashMap %.1f us%n", n, longestPrimitivePut(keys) / 1e3, longestBoxedPut(keys) / 1e3);
+
+            BenchmarkHarness.printHeader();
+            IntIntHashMap map = primitive[0];
+            HashMap<Integer, Integer> reference = boxed[0];
+            if (options.selected("IntIntHashMap.getHit")) {
+                harness.run("IntIntHashMap.getHit", params, op -> map.get(hits[op & mask], 0));
+            }
+            if (options.selected("HashMap.getHit")) {
+                harness.run("HashMap.getHit", params, op -> reference.getOrDefault(hits[op & mask], 0));
+            }
+            if (options.selected("IntIntHashMap.getMiss")) {
+                harness.run("IntIntHashMap.getMiss", params, op -> map.get(misses[op & mask], 0));
+            }
+            if (options.selected("HashMap.getMiss")) {
+                harness.run("HashMap.getMiss", params, op -> reference.getOrDefault(misses[op & mask], 0));
+            }
+            // Put a key and take it out again, so the size stays n
+            if (options.selected("IntIntHashMap.putRemove")) {
+                harness.run("IntIntHashMap.putRemove", params, op -> {
+                    int key = misses[op & mask];
+                    map.put(key, op);
+                    return map.remove(key) ? 1 : 0;
+                });
+            }
+            if (options.selected("HashMap.putRemove")) {
+                harness.run("HashMap.putRemove", params, op -> {
+                    int key = misses[op & mask];
+                    reference.put(key, op);
+                    return reference.remove(key) != null ? 1 : 0;
+                });
+            }
+            System.out.println();
+        }
+        options.finish(harness);
+    }
+
+    private static IntIntHashMap fillPrimitive(int[] keys) {
+        IntIntHashMap map = new IntIntHashMap();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        return map;
+    }
+
+    private static HashMap<Integer, Integer> fillBoxed(int[] keys) {
+        HashMap<Integer, Integer> map = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        return map;
+    }
+
+    private static long longestPrimitivePut(int[] keys) {
+        IntIntHashMap map = new IntIntHashMap();
+        long longest = 0;
+        for (int i = 0; i < keys.length; i++) {
+            long start = System.nanoTime();
+            map.put(keys[i], i);
+            longest = Math.max(longest, System.nanoTime() - start);
+        }
+        return longest;
+    }
+
+    private static long longestBoxedPut(int[] keys) {
+        HashMap<Integer, Integer> map = new HashMap<>();
+        long longest = 0;
+        for (int i = 0; i < keys.length; i++) {
+            long start = System.nanoTime();
+            map.put(keys[i], i);
+            longest = Math.max(longest, System.nanoTime() - start);
+        }
+        return longest;
+    }
+}
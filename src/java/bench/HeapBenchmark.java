@@ -0,0 +1,87 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+
+/**
+ * Compares the IntHeap implementations with {@code PriorityQueue<Integer>}:
+ * steady-state insert+extract on a heap holding n values, O(n) heapify
+ * against PriorityQueue's collection constructor, and decreaseKey on
+ * IndexedDaryIntHeap.
+ *
+ * <p>Build as described in DataStructuresBenchmark, then:
+ * <pre>
+ * java -cp out HeapBenchmark --sizes 1000,1000000 --csv results.csv
+ * </pre>
+ */
+public class HeapBenchmark {
+    public static void main(String[] args) throws IOException {
+        BenchmarkHarness.Options options = BenchmarkHarness.Options.parse(args);
+        BenchmarkHarness harness = options.newHarness();
+        int mask = DataStructuresBenchmark.POSITION_MASK;
+
+        BenchmarkHarness.printHeader();
+        for (int n : options.sizes) {
+            String params = "size=" + n;
+            SplittableRandom random = new SplittableRandom(42);
+            int[] initial = random.ints(n).toArray();
+            int[] values = random.ints(DataStructuresBenchmark.POSITION_TABLE).toArray();
+
+            // Each op inserts one value and extracts the minimum, so the size stays n
+            steadyState(harness, options, "DaryIntHeap(2).insertExtract", params,
+                DaryIntHeap.heapify(initial, 2), values);
+            steadyState(harness, options, "DaryIntHeap(4).insertExtract", params,
+                DaryIntHeap.heapify(initial, 4), values);
+            PairingIntHeap pairing = new PairingIntHeap();
+            for (int value : initial) {
+                pairing.insert(value);
+            }
+            steadyState(harness, options, "PairingIntHeap.insertExtract", params, pairing, values);
+            List<Integer> boxed = new ArrayList<>(n);
+            for (int value : initial) {
+                boxed.add(value);
+            }
+            PriorityQueue<Integer> queue = new PriorityQueue<>(boxed);
+            if (options.selected("PriorityQueue.insertExtract")) {
+                harness.run("PriorityQueue.insertExtract", params, op -> {
+                    queue.add(values[op & mask]);
+                    return queue.poll();
+                });
+            }
+
+            if (options.selected("DaryIntHeap(4).heapify")) {
+                harness.run("DaryIntHeap(4).heapify", params, op -> DaryIntHeap.heapify(initial, 4).peek());
+            }
+            if (options.selected("PriorityQueue.heapify")) {
+                harness.run("PriorityQueue.heapify", params, op -> new PriorityQueue<>(boxed).peek());
+            }
+
+            if (options.selected("IndexedDaryIntHeap.decreaseKey")) {
+                IndexedDaryIntHeap indexed = new IndexedDaryIntHeap(n);
+                for (int id = 0; id < n; id++) {
+                    indexed.insert(id, initial[id] >>> 1);
+                }
+                int[] ids = DataStructuresBenchmark.Distribution.UNIFORM.positions(n,
+                    DataStructuresBenchmark.POSITION_TABLE, 7);
+                harness.run("IndexedDaryIntHeap.decreaseKey", params, op -> {
+                    int id = ids[op & mask];
+                    indexed.decreaseKey(id, indexed.priorityOf(id) - 1);
+                    return indexed.peekId();
+                });
+            }
+        }
+        options.finish(harness);
+    }
+
+    private static void steadyState(BenchmarkHarness harness, BenchmarkHarness.Options options, String name,
+                                    String params, IntHeap heap, int[] values) {
+        if (options.selected(name)) {
+            int mask = DataStructuresBenchmark.POSITION_MASK;
+            harness.run(name, params, op -> {
+                heap.insert(values[op & mask]);
+                return heap.extract();
+            });
+        }
+    }
+}
@@ -0,0 +1,77 @@
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Compares lookups in a balanced tree of {@code TreeOperations.TreeNode}
+ * (BalancedTreeOperations) with IntBPlusTree, and the heap each retains per
+ * key. Lookups touch keys drawn from the same distributions as
+ * DataStructuresBenchmark; once the tree outgrows the caches, ns/op is
+ * dominated by cache misses, so the gap between the two is mostly the
+ * difference in lines touched. For hardware counts run the same command
+ * under {@code perf stat -e cache-misses,LLC-load-misses}.
+ *
+ * <p>Build as described in DataStructuresBenchmark, then:
+ * <pre>
+ * java -Xmx8g -cp out TreeBenchmark --sizes 1000,1000000,30000000 --dist UNIFORM,ZIPFIAN
+ * </pre>
+ */
+public class TreeBenchmark {
+    public static void main(String[] args) throws IOException {
+        BenchmarkHarness.Options options = BenchmarkHarness.Options.parse(args);
+        BenchmarkHarness harness = options.newHarness();
+        DataStructuresBenchmark.Distribution[] distributions = DataStructuresBenchmark.distributions(options);
+
+        for (int n : options.sizes) {
+            // Odd keys, so every even value is a miss
+            int[] keys = new int[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = 2 * i + 1;
+            }
+            AlgorithmVisualizer.TreeOperations.TreeNode[] avl = {null};
+            IntBPlusTree[] bplus = {null};
+            double avlBytes = BenchmarkHarness.retainedBytes(() -> avl[0] = buildAvl(keys)) / n;
+            double bplusBytes = BenchmarkHarness.retainedBytes(() -> bplus[0] = IntBPlusTree.fromSorted(keys)) / n;
+            System.out.printf(Locale.ROOT, "size=%d: TreeNode %.1f B/key (height %d), IntBPlusTree %.1f B/key"
+                + " (height %d)%n", n, avlBytes, avl[0].height, bplusBytes, bplus[0].height());
+
+            BenchmarkHarness.printHeader();
+            for (DataStructuresBenchmark.Distribution d : distributions) {
+                String params = "size=" + n + ",dist=" + d;
+                int[] positions = d.positions(n, DataStructuresBenchmark.POSITION_TABLE, 42);
+                int[] hits = new int[positions.length];
+                for (int i = 0; i < positions.length; i++) {
+                    hits[i] = keys[positions[i]];
+                }
+                int mask = DataStructuresBenchmark.POSITION_MASK;
+                if (options.selected("TreeNode.search")) {
+                    harness.run("TreeNode.search", params,
+                        op -> BalancedTreeOperations.search(avl[0], hits[op & mask]) != null ? 1 : 0);
+                }
+                if (options.selected("IntBPlusTree.contains")) {
+                    harness.run("IntBPlusTree.contains", params,
+                        op -> bplus[0].contains(hits[op & mask]) ? 1 : 0);
+                }
+                if (options.selected("TreeNode.forEachInRange")) {
+                    harness.run("TreeNode.forEachInRange", params,
+                        op -> BalancedTreeOperations.forEachInRange(avl[0], hits[op & mask], hits[op & mask] + 200,
+                            value -> { }));
+                }
+                if (options.selected("IntBPlusTree.forEachInRange")) {
+                    harness.run("IntBPlusTree.forEachInRange", params,
+                        op -> bplus[0].forEachInRange(hits[op & mask], hits[op & mask] + 200, value -> { }));
+                }
+            }
+            System.out.println();
+        }
+        options.finish(harness);
+    }
+
+    // Tree of TreeNodes built by repeated insertion, as a caller would
+    static AlgorithmVisualizer.TreeOperations.TreeNode buildAvl(int[] keys) {
+        AlgorithmVisualizer.TreeOperations.TreeNode root = null;
+        for (int key : keys) {
+            root = BalancedTreeOperations.insert(root, key);
+        }
+        return root;
+    }
+}
@@ -0,0 +1,38 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+class BenchmarkHarnessOptionsTest {
+    @Test
+    void parsesEveryOption() {
+        BenchmarkHarness.Options o = BenchmarkHarness.Options.parse(new String[] {
+            "--sizes", "10,1_000", "--dist", "HEAD,UNIFORM", "--filter", "search", "--warmup", "1",
+            "--iterations", "2", "--time", "50", "--csv", "out.csv", "--commit", "abc123", "--baseline", "old.csv"});
+        assertArrayEquals(new int[] {10, 1000}, o.sizes);
+        assertArrayEquals(new String[] {"HEAD", "UNIFORM"}, o.distributions);
+        assertEquals("search", o.filter);
+        assertEquals(1, o.warmup);
+        assertEquals(2, o.iterations);
+        assertEquals(50, o.millis);
+        assertEquals(Path.of("out.csv"), o.csv);
+        assertEquals("abc123", o.commit);
+        assertEquals(Path.of("old.csv"), o.baseline);
+    }
+
+    @Test
+    void rejectsTrailingOptionWithoutValue() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> BenchmarkHarness.Options.parse(new String[] {"--time", "50", "--sizes"}));
+        assertEquals("Missing value for --sizes", e.getMessage());
+    }
+
+    @Test
+    void rejectsUnknownOption() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> BenchmarkHarness.Options.parse(new String[] {"--size", "10"}));
+        assertEquals("Unknown option: --size", e.getMessage());
+    }
+}
@@ -0,0 +1,78 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class CompressedIntArrayTest {
+    @Test
+    void roundTripsEveryWidth() {
+        SplittableRandom random = new SplittableRandom(7);
+        int[] scratch = new int[CompressedIntArray.BLOCK_SIZE];
+        for (int width = 0; width <= 32; width++) {
+            // Unsorted values spanning exactly width bits above a base, so blocks use frame of reference
+            int n = 3 * CompressedIntArray.BLOCK_SIZE + 17;
+            int[] values = new int[n];
+            for (int i = 0; i < n; i++) {
+                int bits = width == 0 ? 0 : (int) (random.nextLong() >>> (64 - width));
+                values[i] = -5 + bits;
+            }
+            check(values, scratch);
+        }
+    }
+
+    @Test
+    void roundTripsSortedValuesWithOutliers() {
+        SplittableRandom random = new SplittableRandom(11);
+        int n = 10 * CompressedIntArray.BLOCK_SIZE + 3;
+        int[] values = new int[n];
+        for (int i = 1; i < n; i++) {
+            // Mostly small gaps, so blocks use delta encoding, with rare large jumps as exceptions
+            int gap = random.nextInt(100) == 0 ? 1 << 20 : random.nextInt(1 << random.nextInt(1, 12));
+            values[i] = values[i - 1] + gap;
+        }
+        check(values, new int[CompressedIntArray.BLOCK_SIZE]);
+    }
+
+    @Test
+    void handlesEmptyAndExtremes() {
+        assertEquals(0, CompressedIntArray.of().size());
+        assertEquals(-1, CompressedIntArray.of().search(1));
+        check(new int[] {Integer.MIN_VALUE, Integer.MAX_VALUE, 0, -1, 1}, new int[CompressedIntArray.BLOCK_SIZE]);
+    }
+
+    @Test
+    void rejectsWrongScratchSize() {
+        CompressedIntArray array = CompressedIntArray.of(1, 2, 3);
+        assertThrows(IllegalArgumentException.class, () -> array.search(2, new int[10]));
+    }
+
+    private static void check(int[] values, int[] scratch) {
+        CompressedIntArray array = CompressedIntArray.of(values);
+        assertEquals(values.length, array.size());
+        assertArrayEquals(values, array.toArray());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], array.get(i), "index " + i);
+        }
+        for (int i = 0; i < values.length; i += 7) {
+            int expected = firstIndex(values, values[i]);
+            assertEquals(expected, array.search(values[i]));
+            assertEquals(expected, array.search(values[i], scratch));
+        }
+        int absent = values.length == 0 ? 0 : Arrays.stream(values).max().getAsInt();
+        if (absent < Integer.MAX_VALUE) {
+            assertEquals(-1, array.search(absent + 1, scratch));
+        }
+    }
+
+    private static int firstIndex(int[] values, int target) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,100 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(value = 60, unit = TimeUnit.SECONDS)
+class ConcurrentIntLinkedListTest {
+    private static final int THREADS = 4;
+
+    @Test
+    void sequentialOperations() {
+        ConcurrentIntLinkedList list = new ConcurrentIntLinkedList();
+        assertTrue(list.insert(20));
+        assertTrue(list.insert(10));
+        assertTrue(list.insert(30));
+        assertFalse(list.insert(20));
+        assertEquals(1, list.searchNode(20));
+        assertTrue(list.delete(20));
+        assertFalse(list.delete(20));
+        assertFalse(list.contains(20));
+        assertEquals(-1, list.searchNode(20));
+        assertArrayEquals(new int[] {10, 30}, list.toArray());
+        assertEquals(2, list.size());
+    }
+
+    @Test
+    void randomMixOnSharedKeysKeepsSizeAndOrder() throws InterruptedException {
+        int keyRange = 256;
+        int operations = 50_000;
+        ConcurrentIntLinkedList list = new ConcurrentIntLinkedList();
+        int prefilled = 0;
+        for (int key = 0; key < keyRange; key += 2) {
+            if (list.insert(key)) {
+                prefilled++;
+            }
+        }
+
+        AtomicLong netInserts = new AtomicLong();
+        ConcurrentTesting.run(THREADS, index -> {
+            SplittableRandom random = new SplittableRandom(index);
+            long net = 0;
+            for (int i = 0; i < operations; i++) {
+                int key = random.nextInt(keyRange);
+                int roll = random.nextInt(3);
+                if (roll == 0) {
+                    net += list.insert(key) ? 1 : 0;
+                } else if (roll == 1) {
+                    net -= list.delete(key) ? 1 : 0;
+                } else {
+                    list.contains(key);
+                }
+            }
+            netInserts.addAndGet(net);
+        });
+
+        int[] values = list.toArray();
+        assertEquals(prefilled + netInserts.get(), list.size());
+        assertEquals(list.size(), values.length);
+        for (int i = 0; i < values.length; i++) {
+            assertTrue(values[i] >= 0 && values[i] < keyRange, "value out of range: " + values[i]);
+            if (i > 0) {
+                assertTrue(values[i - 1] < values[i], "not strictly ascending at " + i);
+            }
+            assertTrue(list.contains(values[i]));
+        }
+    }
+
+    @Test
+    void disjointRangesEndWithExactlyTheSurvivors() throws InterruptedException {
+        int perThread = 2_000;
+        ConcurrentIntLinkedList list = new ConcurrentIntLinkedList();
+        // Thread t owns keys t, t + THREADS, t + 2 * THREADS, ... so neighbours in the list belong to other threads
+        ConcurrentTesting.run(THREADS, index -> {
+            for (int i = 0; i < perThread; i++) {
+                assertTrue(list.insert(index + i * THREADS));
+            }
+            for (int i = 1; i < perThread; i += 2) {
+                assertTrue(list.delete(index + i * THREADS));
+            }
+            for (int i = 0; i < perThread; i++) {
+                assertEquals(i % 2 == 0, list.contains(index + i * THREADS));
+            }
+        });
+
+        int[] values = list.toArray();
+        assertEquals(THREADS * perThread / 2, values.length);
+        assertEquals(values.length, list.size());
+        for (int i = 0; i < values.length; i++) {
+            // Surviving keys are the even rounds: k with (k / THREADS) even
+            int expected = (i / THREADS) * 2 * THREADS + i % THREADS;
+            assertEquals(expected, values[i]);
+        }
+    }
+}
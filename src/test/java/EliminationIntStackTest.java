@@ -0,0 +1,69 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(value = 60, unit = TimeUnit.SECONDS)
+class EliminationIntStackTest {
+    private static final int EMPTY = -1;
+
+    @Test
+    void lifo() {
+        EliminationIntStack stack = new EliminationIntStack();
+        assertTrue(stack.isEmpty());
+        for (int i = 0; i < 5; i++) {
+            stack.push(i);
+        }
+        assertEquals(4, stack.peek(EMPTY));
+        for (int i = 4; i >= 0; i--) {
+            assertEquals(i, stack.pop(EMPTY));
+        }
+        assertEquals(EMPTY, stack.pop(EMPTY));
+        assertTrue(stack.isEmpty());
+    }
+
+    @Test
+    void everyValuePushedIsPoppedExactlyOnce() throws InterruptedException {
+        int threads = 4;
+        int perThread = 100_000;
+        int total = threads * perThread;
+        // One slot, so contending pushes and pops meet in the elimination array often
+        EliminationIntStack stack = new EliminationIntStack(1);
+        AtomicIntegerArray seen = new AtomicIntegerArray(total);
+        AtomicLong pushedSum = new AtomicLong();
+        AtomicLong poppedSum = new AtomicLong();
+
+        // Thread t pushes t * perThread, t * perThread + 1, ... and pops after every push
+        ConcurrentTesting.run(threads, index -> {
+            long pushed = 0;
+            long popped = 0;
+            for (int i = 0; i < perThread; i++) {
+                int value = index * perThread + i;
+                stack.push(value);
+                pushed += value;
+                int taken = stack.pop(EMPTY);
+                if (taken != EMPTY) {
+                    assertEquals(0, seen.getAndIncrement(taken), "popped twice: " + taken);
+                    popped += taken;
+                }
+            }
+            pushedSum.addAndGet(pushed);
+            poppedSum.addAndGet(popped);
+        });
+
+        // Whatever is left must be exactly the values no thread popped
+        long remaining = 0;
+        for (int value = stack.pop(EMPTY); value != EMPTY; value = stack.pop(EMPTY)) {
+            assertEquals(0, seen.getAndIncrement(value), "popped twice: " + value);
+            remaining += value;
+        }
+        assertEquals(pushedSum.get(), poppedSum.get() + remaining);
+        for (int i = 0; i < total; i++) {
+            assertEquals(1, seen.get(i), "lost: " + i);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(value = 60, unit = TimeUnit.SECONDS)
+class MpmcIntQueueTest {
+    private static final int EMPTY = -1;
+
+    @Test
+    void fifoAndCapacity() {
+        MpmcIntQueue queue = new MpmcIntQueue(3);
+        assertEquals(4, queue.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(4));
+        assertEquals(4, queue.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i, queue.poll(EMPTY));
+        }
+        assertEquals(EMPTY, queue.poll(EMPTY));
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void everyValueOfferedIsPolledExactlyOnceInProducerOrder() throws InterruptedException {
+        int producers = 3;
+        int consumers = 3;
+        int perProducer = 50_000;
+        int total = producers * perProducer;
+        // Small, so producers keep finding it full and consumers keep finding it empty
+        MpmcIntQueue queue = new MpmcIntQueue(64);
+        AtomicIntegerArray seen = new AtomicIntegerArray(total);
+        AtomicInteger consumed = new AtomicInteger();
+        AtomicLong offeredSum = new AtomicLong();
+        AtomicLong polledSum = new AtomicLong();
+
+        ConcurrentTesting.run(producers + consumers, index -> {
+            if (index < producers) {
+                // Producer p offers p * perProducer, p * perProducer + 1, ...
+                long sum = 0;
+                for (int i = 0; i < perProducer; i++) {
+                    int value = index * perProducer + i;
+                    while (!queue.offer(value)) {
+                        Thread.yield();
+                    }
+                    sum += value;
+                }
+                offeredSum.addAndGet(sum);
+            } else {
+                // Values of one producer must reach any one consumer in the order offered
+                int[] last = new int[producers];
+                Arrays.fill(last, -1);
+                long sum = 0;
+                while (consumed.get() < total) {
+                    int value = queue.poll(EMPTY);
+                    if (value == EMPTY) {
+                        Thread.yield();
+                        continue;
+                    }
+                    consumed.incrementAndGet();
+                    assertEquals(0, seen.getAndIncrement(value), "polled twice: " + value);
+                    int producer = value / perProducer;
+                    assertTrue(value > last[producer], "out of order: " + value + " after " + last[producer]);
+                    last[producer] = value;
+                    sum += value;
+                }
+                polledSum.addAndGet(sum);
+            }
+        });
+
+        assertEquals(total, consumed.get());
+        assertEquals(offeredSum.get(), polledSum.get());
+        for (int i = 0; i < total; i++) {
+            assertEquals(1, seen.get(i), "never polled: " + i);
+        }
+        assertTrue(queue.isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Timeout(value = 60, unit = TimeUnit.SECONDS)
+class StripedIntIntHashMapTest {
+    private static final int THREADS = 4;
+
+    @Test
+    void sequentialOperations() {
+        StripedIntIntHashMap map = new StripedIntIntHashMap(2, 4);
+        assertTrue(map.put(0, 10));
+        assertTrue(map.put(7, 70));
+        assertFalse(map.put(7, 71));
+        assertEquals(71, map.get(7, -1));
+        assertEquals(-1, map.get(8, -1));
+        assertEquals(5, map.addTo(8, 5));
+        assertEquals(8, map.addTo(8, 3));
+        assertTrue(map.containsKey(0));
+        assertTrue(map.remove(0));
+        assertFalse(map.remove(0));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void disjointKeyRangesReadTheirOwnWrites() throws InterruptedException {
+        int perThread = 20_000;
+        int rounds = 3;
+        // Few stripes and a tiny initial size, so every stripe holds keys of every
+        // thread and resizes while the other threads read it optimistically
+        StripedIntIntHashMap map = new StripedIntIntHashMap(2, 1);
+
+        // Thread t owns keys t, t + THREADS, t + 2 * THREADS, ...; no other thread writes them
+        ConcurrentTesting.run(THREADS, index -> {
+            for (int round = 0; round < rounds; round++) {
+                for (int i = 0; i < perThread; i++) {
+                    int key = index + i * THREADS;
+                    assertEquals(round == 0, map.put(key, key * 31 + round));
+                    assertEquals(key * 31 + round, map.get(key, -1), "key " + key);
+                }
+                for (int i = 0; i < perThread; i++) {
+                    int key = index + i * THREADS;
+                    assertEquals(key * 31 + round, map.get(key, -1), "key " + key);
+                    assertTrue(map.containsKey(key));
+                }
+            }
+            // Drop the odd-numbered keys of this thread
+            for (int i = 1; i < perThread; i += 2) {
+                int key = index + i * THREADS;
+                assertTrue(map.remove(key));
+                assertEquals(-1, map.get(key, -1));
+            }
+        });
+
+        assertEquals(THREADS * perThread / 2, map.size());
+        for (int key = 0; key < THREADS * perThread; key++) {
+            boolean kept = (key / THREADS) % 2 == 0;
+            assertEquals(kept ? key * 31 + rounds - 1 : -1, map.get(key, -1), "key " + key);
+        }
+    }
+
+    @Test
+    void addToFromAllThreadsLosesNoUpdates() throws InterruptedException {
+        int keys = 64;
+        int perThread = 50_000;
+        StripedIntIntHashMap map = new StripedIntIntHashMap(4, 1);
+
+        ConcurrentTesting.run(THREADS, index -> {
+            for (int i = 0; i < perThread; i++) {
+                map.addTo((i + index) % keys, 1);
+            }
+        });
+
+        int total = 0;
+        for (int key = 0; key < keys; key++) {
+            total += map.get(key, 0);
+        }
+        assertEquals(THREADS * perThread, total);
+        assertEquals(keys, map.size());
+    }
+}